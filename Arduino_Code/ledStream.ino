@@ -0,0 +1,41 @@
+#include "FastLED.h"
+#define LED_PIN     7
+#define NUM_LEDS    256
+#define BAUD_RATE   500000
+CRGB leds[NUM_LEDS];
+/*
+ * Receives frames streamed from the GUI (Stream button) and shows them on the strip.
+ * Each frame is an Adalight packet: 'A' 'd' 'a', the number of leds minus one (high byte, low byte),
+ * a checksum (high ^ low ^ 0x55), then 3 bytes (r, g, b) per led in strip order.
+ * The baud rate must match SerialPortOutput.DEFAULT_BAUD_RATE in the GUI.
+ */
+void setup() {
+  FastLED.addLeds<WS2812, LED_PIN, GRB>(leds, NUM_LEDS);
+  Serial.begin(BAUD_RATE);
+  Serial.setTimeout(100);
+}
+//wait for the next byte from the serial port and return it
+uint8_t readByte() {
+  while (!Serial.available()) {
+  }
+  return Serial.read();
+}
+void loop() {
+  //wait for the "Ada" magic. if a byte doesn't match, start looking again
+  if (readByte() != 'A') return;
+  if (readByte() != 'd') return;
+  if (readByte() != 'a') return;
+  uint8_t hi = readByte();
+  uint8_t lo = readByte();
+  uint8_t chk = readByte();
+  if (chk != (hi ^ lo ^ 0x55)) return;//bad header, look for the next one
+  uint16_t count = ((uint16_t)hi << 8 | lo) + 1;
+  //CRGB is laid out as r, g, b in memory, so the pixel bytes can be read straight into the leds
+  uint16_t shown = count < NUM_LEDS ? count : NUM_LEDS;
+  if (Serial.readBytes((char*)leds, shown * 3) != shown * 3) return;//timed out part way through a frame
+  //throw away the pixels for leds this strip doesn't have
+  for (uint32_t i = (uint32_t)shown * 3; i < (uint32_t)count * 3; i++) {
+    readByte();
+  }
+  FastLED.show();
+}
@@ -0,0 +1,165 @@
+import java.util.ArrayList;
+
+/**
+ * Animation
+ * <p>
+ * An ordered list of frames, each a FrameBuffer of the same size, with how long (in milliseconds) each frame is shown for.<p>
+ * Like FrameBuffer, this class does not depend on Greenfoot.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class Animation
+{
+    public static final int DEFAULT_DURATION = 500;
+
+    private int width;
+    private int height;
+    private ArrayList<FrameBuffer> frames = new ArrayList<FrameBuffer>();
+    private ArrayList<Integer> durations = new ArrayList<Integer>();
+    private int modCount;
+
+    /**
+     * Create a new Animation with a single black frame.
+     * @param width The number of pixels across each frame.
+     * @param height The number of pixels down each frame.
+     */
+    public Animation(int width, int height)
+    {
+        this.width = width;
+        this.height = height;
+        addFrame(new FrameBuffer(width, height), DEFAULT_DURATION);
+    }
+
+    /**
+     * Create a new Animation whose only frame is the given FrameBuffer.
+     */
+    public Animation(FrameBuffer first, int duration)
+    {
+        width = first.getWidth();
+        height = first.getHeight();
+        addFrame(first, duration);
+    }
+
+    /**
+     * Create a copy of this Animation, with a copy of every frame.
+     */
+    public Animation copy()
+    {
+        Animation copy = new Animation(frames.get(0).copy(), durations.get(0));
+        for (int i = 1; i < frames.size(); i++)
+            copy.addFrame(frames.get(i).copy(), durations.get(i));
+        return copy;
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+    public int getHeight()
+    {
+        return height;
+    }
+    public int getFrameCount()
+    {
+        return frames.size();
+    }
+    public FrameBuffer getFrame(int index)
+    {
+        return frames.get(index);
+    }
+
+    /**
+     * Get how long in milliseconds the frame at the given index is shown for.
+     */
+    public int getDuration(int index)
+    {
+        return durations.get(index);
+    }
+
+    /**
+     * Set how long in milliseconds the frame at the given index is shown for.
+     */
+    public void setDuration(int index, int duration)
+    {
+        durations.set(index, checkDuration(duration));
+        modCount++;
+    }
+
+    /**
+     * Get how long in milliseconds one play through of every frame takes.
+     */
+    public long getTotalDuration()
+    {
+        long total = 0;
+        for (int d : durations)
+            total += d;
+        return total;
+    }
+
+    /**
+     * Get a count that goes up every time frames are added, removed or retimed (but not when a frame's pixels change).
+     */
+    public int getModCount()
+    {
+        return modCount;
+    }
+
+    /**
+     * Add a frame to the end of this Animation.
+     */
+    public void addFrame(FrameBuffer frame, int duration)
+    {
+        insertFrame(frames.size(), frame, duration);
+    }
+
+    /**
+     * Insert a frame at the given index, moving the frame at that index (and those after it) back one.
+     */
+    public void insertFrame(int index, FrameBuffer frame, int duration)
+    {
+        if (frame.getWidth() != width || frame.getHeight() != height)
+            throw new IllegalArgumentException("Frame is " + frame.getWidth() + "x" + frame.getHeight() + " but the animation is " + width + "x" + height);
+        frames.add(index, frame);
+        durations.add(index, checkDuration(duration));
+        modCount++;
+    }
+
+    /**
+     * Remove the frame at the given index. The last frame cannot be removed.
+     * @return Whether the frame was removed.
+     */
+    public boolean removeFrame(int index)
+    {
+        if (frames.size() == 1)
+            return false;
+        frames.remove(index);
+        durations.remove(index);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Change the size of every frame. Pixels still inside the new size keep their color, new pixels are black.<p>
+     * Every frame is replaced by a new FrameBuffer.
+     */
+    public void resize(int newWidth, int newHeight)
+    {
+        for (int i = 0; i < frames.size(); i++)
+        {
+            FrameBuffer resized = new FrameBuffer(newWidth, newHeight);
+            resized.blit(frames.get(i), 0, 0, 0, 0, width, height);
+            frames.set(i, resized);
+        }
+        width = newWidth;
+        height = newHeight;
+        modCount++;
+    }
+
+    private static int checkDuration(int duration)
+    {
+        if (duration < 1)
+            throw new IllegalArgumentException("Frame duration must be at least 1ms, was " + duration);
+        return duration;
+    }
+}
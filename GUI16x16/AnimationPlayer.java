@@ -0,0 +1,126 @@
+/**
+ * AnimationPlayer
+ * <p>
+ * Keeps track of which frame of an Animation is showing, and moves through the frames by their durations while playing.<p>
+ * Playback only changes which frame index is current. Nothing is copied or allocated as frames go by, so whatever draws the
+ * current frame can just switch to the next FrameBuffer.<p>
+ * Call update() once per act cycle with the current time.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class AnimationPlayer
+{
+    private Animation animation;
+    private int frameIndex;
+    private boolean playing;
+    private boolean looping = true;
+    private long frameStart;
+
+    public AnimationPlayer(Animation animation)
+    {
+        this.animation = animation;
+    }
+
+    public Animation getAnimation()
+    {
+        return animation;
+    }
+
+    /**
+     * Switch to a different Animation, going back to its first frame and pausing.
+     */
+    public void setAnimation(Animation animation)
+    {
+        this.animation = animation;
+        frameIndex = 0;
+        playing = false;
+    }
+
+    public int getFrameIndex()
+    {
+        return frameIndex;
+    }
+    public FrameBuffer getCurrentFrame()
+    {
+        return animation.getFrame(frameIndex);
+    }
+    public boolean isPlaying()
+    {
+        return playing;
+    }
+
+    /**
+     * Set whether playing continues from the first frame after the last one, or stops on the last frame.
+     */
+    public void setLooping(boolean looping)
+    {
+        this.looping = looping;
+    }
+
+    /**
+     * Start moving through the frames, showing the current one for its full duration first.
+     * @param now The current time in milliseconds.
+     */
+    public void play(long now)
+    {
+        playing = true;
+        frameStart = now;
+    }
+
+    /**
+     * Stop on the current frame.
+     */
+    public void pause()
+    {
+        playing = false;
+    }
+
+    /**
+     * Jump to the frame at the given index (clamped to the frames there are). If playing, it is shown for its full duration.
+     * @param now The current time in milliseconds.
+     */
+    public void seek(int index, long now)
+    {
+        frameIndex = Math.max(0, Math.min(index, animation.getFrameCount() - 1));
+        frameStart = now;
+    }
+
+    /**
+     * Move on to the frame that should be showing at the given time.
+     * @param now The current time in milliseconds.
+     * @return Whether the current frame changed.
+     */
+    public boolean update(long now)
+    {
+        int count = animation.getFrameCount();
+        if (frameIndex >= count)
+        {
+            frameIndex = count - 1;
+            return true;
+        }
+        if (!playing)
+            return false;
+        int start = frameIndex;
+        // Step through however many frames have gone by, but if more than a whole play through was missed (the scenario was paused), just carry on from now.
+        for (int steps = 0; now - frameStart >= animation.getDuration(frameIndex); steps++)
+        {
+            if (steps == count)
+            {
+                frameStart = now;
+                break;
+            }
+            frameStart += animation.getDuration(frameIndex);
+            if (frameIndex + 1 < count)
+                frameIndex++;
+            else if (looping)
+                frameIndex = 0;
+            else
+            {
+                playing = false;
+                break;
+            }
+        }
+        return frameIndex != start;
+    }
+}
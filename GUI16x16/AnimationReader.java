@@ -0,0 +1,247 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * AnimationReader
+ * <p>
+ * Reads an animation file written by AnimationWriter one frame at a time, so a long sequence never needs to be held in memory.<p>
+ * See AnimationWriter for the file layout.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class AnimationReader implements Closeable
+{
+    // The most bytes a delta frame's varints can add to its pixels: the run count, and the skip and count of a run covering every pixel.
+    private static final int MAX_VARINT_BYTES = 15;
+
+    private DataInputStream in;
+    private int width;
+    private int height;
+    private int[] order;
+    private int[] current;
+    private byte[] payload = new byte[0];
+    private int payloadPos;
+    // The duration and payload length of the frame being read.
+    private int duration;
+    private int length;
+
+    /**
+     * Read the header of an animation file from a stream.
+     * @param in The stream to read from. Is closed when this AnimationReader is closed.
+     * @throws IOException If the stream could not be read or does not hold an animation in this format.
+     */
+    public AnimationReader(InputStream in) throws IOException
+    {
+        this.in = new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in));
+        if (this.in.readInt() != AnimationWriter.MAGIC)
+            throw new IOException("Not an animation file");
+        int version = this.in.readUnsignedByte();
+        if (version != AnimationWriter.VERSION)
+            throw new IOException("Unsupported animation version " + version);
+        int format = this.in.readUnsignedByte();
+        if (format != BinaryFrameCodec.RGB888)
+            throw new IOException("Unsupported animation pixel format " + format);
+        width = this.in.readUnsignedShort();
+        height = this.in.readUnsignedShort();
+        this.in.readUnsignedShort();
+        if (width == 0 || height == 0)
+            throw new IOException("Empty frames in animation file");
+        if (width > FrameBuffer.MAX_GRID_SIZE || height > FrameBuffer.MAX_GRID_SIZE)
+            throw new IOException("Frames too large in animation file: " + width + "x" + height);
+        order = LedLayout.COLUMN_MAJOR.getOrder(width, height);
+        current = new int[width * height];
+    }
+
+    /**
+     * Check if the file at the given path starts with the animation format's magic number.
+     */
+    public static boolean isAnimationFile(Path path) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            return in.readInt() == AnimationWriter.MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Read every frame of the animation file at the given path.
+     */
+    public static Animation readFile(Path path) throws IOException
+    {
+        try (AnimationReader reader = new AnimationReader(Files.newInputStream(path))) {
+            FrameBuffer frame = new FrameBuffer(reader.getWidth(), reader.getHeight());
+            int duration = reader.readFrame(frame);
+            if (duration == -1)
+                throw new IOException("Animation file has no frames");
+            Animation animation = new Animation(frame, duration);
+            for (frame = new FrameBuffer(reader.getWidth(), reader.getHeight()); (duration = reader.readFrame(frame)) != -1; frame = new FrameBuffer(reader.getWidth(), reader.getHeight()))
+                animation.addFrame(frame, duration);
+            return animation;
+        }
+    }
+
+    /**
+     * Count the frames of the file at the given path, which may be an animation file or a single frame (binary or text), without
+     * reading their pixels.
+     */
+    public static int countFrames(Path path) throws IOException
+    {
+        if (!isAnimationFile(path))
+            return 1;
+        try (AnimationReader reader = new AnimationReader(Files.newInputStream(path))) {
+            int count = 0;
+            while (reader.readFrameHeader() != -1)
+            {
+                reader.skipPayload();
+                count++;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Read an Animation from the file at the given path, which may be an animation file or a single frame (binary or text).<p>
+     * A single frame comes back as an Animation with just that frame.
+     */
+    public static Animation readAnyFile(Path path) throws IOException
+    {
+        if (isAnimationFile(path))
+            return readFile(path);
+        FrameBuffer frame;
+        if (BinaryFrameCodec.isBinaryFile(path))
+            frame = BinaryFrameCodec.readFile(path);
+        else
+            frame = TextFrameCodec.readFile(path);
+        return new Animation(frame, Animation.DEFAULT_DURATION);
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Read the next frame into the given FrameBuffer. Pixels are made opaque.
+     * @param into The FrameBuffer to put the frame's pixels in. Must be the size of the animation's frames.
+     * @return How long in milliseconds the frame is shown for, or -1 if there are no more frames.
+     * @throws IOException If the stream could not be read or a frame is damaged.
+     */
+    public int readFrame(FrameBuffer into) throws IOException
+    {
+        if (into.getWidth() != width || into.getHeight() != height)
+            throw new IllegalArgumentException("FrameBuffer is " + into.getWidth() + "x" + into.getHeight() + " but the animation is " + width + "x" + height);
+        int type = readFrameHeader();
+        if (type == -1)
+            return -1;
+        if (payload.length < length)
+            payload = new byte[length];
+        in.readFully(payload, 0, length);
+        if (type == AnimationWriter.KEYFRAME)
+        {
+            if (length != current.length * 3)
+                throw new IOException("Damaged animation keyframe");
+            for (int i = 0, p = 0; i < current.length; i++, p += 3)
+                current[i] = (payload[p] & 0xFF) << 16 | (payload[p + 1] & 0xFF) << 8 | (payload[p + 2] & 0xFF);
+        }
+        else if (type == AnimationWriter.DELTA)
+            applyDelta(length);
+        else
+            throw new IOException("Unknown animation frame type " + type);
+
+        int[] pixels = into.getPixels();
+        for (int i = 0; i < order.length; i++)
+            pixels[order[i]] = 0xFF000000 | current[i];
+        into.markChanged();
+        return duration;
+    }
+
+    /**
+     * Read the type, duration and payload length of the next frame.
+     * @return The frame's type, or -1 if there are no more frames.
+     */
+    private int readFrameHeader() throws IOException
+    {
+        int type = in.read();
+        if (type == -1)
+            return -1;
+        duration = in.readInt();
+        length = in.readInt();
+        if (duration < 1 || length < 0 || length > current.length * 3 + MAX_VARINT_BYTES)
+            throw new IOException("Damaged animation frame");
+        return type;
+    }
+
+    /**
+     * Skip the payload of the frame whose header was just read.
+     */
+    private void skipPayload() throws IOException
+    {
+        int left = length;
+        while (left > 0)
+        {
+            int skipped = in.skipBytes(left);
+            // skipBytes() can stop short without being at the end, so only a failed read means the end.
+            if (skipped == 0)
+            {
+                if (in.read() == -1)
+                    throw new EOFException("Animation file ends partway through a frame");
+                skipped = 1;
+            }
+            left -= skipped;
+        }
+    }
+
+    private void applyDelta(int length) throws IOException
+    {
+        payloadPos = 0;
+        int runs = readVarint(length);
+        int i = 0;
+        for (int r = 0; r < runs; r++)
+        {
+            int skip = readVarint(length);
+            if (skip < 0 || skip > current.length - i)
+                throw new IOException("Damaged animation delta frame");
+            i += skip;
+            int count = readVarint(length);
+            // Compared this way round so a huge count can't overflow past the checks.
+            if (count < 0 || count > current.length - i || count > (length - payloadPos) / 3)
+                throw new IOException("Damaged animation delta frame");
+            for (int p = payloadPos, end = i + count; i < end; i++, p += 3)
+                current[i] = (payload[p] & 0xFF) << 16 | (payload[p + 1] & 0xFF) << 8 | (payload[p + 2] & 0xFF);
+            payloadPos += count * 3;
+        }
+    }
+
+    private int readVarint(int length) throws IOException
+    {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7)
+        {
+            if (payloadPos >= length)
+                throw new IOException("Damaged animation delta frame");
+            int b = payload[payloadPos++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Damaged animation delta frame");
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+}
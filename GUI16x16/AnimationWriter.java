@@ -0,0 +1,229 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * AnimationWriter
+ * <p>
+ * Writes an animation file one frame at a time, so a long sequence never needs to be held in memory. Read it back with AnimationReader.<p>
+ * The first frame is stored whole (a keyframe). Each frame after that only stores the runs of pixels that changed since the frame before it
+ * (a delta frame), unless storing it whole would be smaller, or it has been keyframeInterval frames since the last keyframe.<p>
+ * All multi-byte values are big-endian. Pixels are RGB888 and go in the same column by column order as the text export.
+ * <pre>
+ * header:  magic "LEDA", version (1 byte), pixel format (1 byte, RGB888), width (2 bytes), height (2 bytes), reserved (2 bytes)
+ * frame:   type (1 byte, KEYFRAME or DELTA), duration in ms (4 bytes), payload length (4 bytes), payload
+ * keyframe payload: every pixel, 3 bytes each
+ * delta payload:    number of runs (varint), then for each run: pixels skipped since the last run (varint), pixels in the run (varint), the run's pixels
+ * </pre>
+ * Varints are unsigned, 7 bits per byte, lowest bits first, with the top bit set on every byte but the last.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class AnimationWriter implements Closeable
+{
+    public static final int MAGIC = 0x4C454441; // "LEDA"
+    public static final int VERSION = 1;
+    public static final int KEYFRAME = 0;
+    public static final int DELTA = 1;
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 60;
+
+    private DataOutputStream out;
+    private int width;
+    private int height;
+    private int[] order;
+    private int[] previous;
+    private boolean hasPrevious;
+    private int sinceKeyframe;
+    private int keyframeInterval = DEFAULT_KEYFRAME_INTERVAL;
+    private ByteArrayOutputStream payload = new ByteArrayOutputStream();
+
+    /**
+     * Write the header of a new animation file to a stream.
+     * @param out The stream to write to. Is closed when this AnimationWriter is closed.
+     * @param width The number of pixels across each frame.
+     * @param height The number of pixels down each frame.
+     */
+    public AnimationWriter(OutputStream out, int width, int height) throws IOException
+    {
+        if (width > FrameBuffer.MAX_GRID_SIZE || height > FrameBuffer.MAX_GRID_SIZE)
+            throw new IOException("Frame too large for animation format: " + width + "x" + height);
+        this.out = new DataOutputStream(out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out));
+        this.width = width;
+        this.height = height;
+        order = LedLayout.COLUMN_MAJOR.getOrder(width, height);
+        previous = new int[width * height];
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeByte(BinaryFrameCodec.RGB888);
+        this.out.writeShort(width);
+        this.out.writeShort(height);
+        this.out.writeShort(0);
+    }
+
+    /**
+     * Write every frame of an Animation to the file at the given path, replacing the file if it exists.
+     */
+    public static void writeFile(Animation animation, Path path) throws IOException
+    {
+        writeFile(animation, path, null);
+    }
+
+    /**
+     * Write every frame of an Animation to the file at the given path, telling the listener after each frame. The file is replaced in
+     * one step (see AtomicFile), so it is never left half written.
+     * @param listener Told how many frames have been written, or null.
+     */
+    public static void writeFile(Animation animation, Path path, ProgressListener listener) throws IOException
+    {
+        Path temp = AtomicFile.begin(path);
+        try {
+            try (AnimationWriter writer = new AnimationWriter(Files.newOutputStream(temp), animation.getWidth(), animation.getHeight())) {
+                for (int i = 0; i < animation.getFrameCount(); i++)
+                {
+                    writer.writeFrame(animation.getFrame(i), animation.getDuration(i));
+                    if (listener != null)
+                        listener.progress(i + 1, animation.getFrameCount());
+                }
+            }
+            AtomicFile.commit(temp, path);
+        } finally {
+            AtomicFile.abort(temp);
+        }
+    }
+
+    /**
+     * Set how many frames can go by before a keyframe is written even if a delta frame would be smaller. Keyframes let readers skip ahead.
+     * @param interval The most frames between keyframes, or 0 to only write keyframes when they are smaller.
+     */
+    public void setKeyframeInterval(int interval)
+    {
+        keyframeInterval = interval;
+    }
+
+    /**
+     * Write the next frame.
+     * @param frame The frame's pixels. Must be the size given when this AnimationWriter was made. Alpha is not stored.
+     * @param duration How long in milliseconds the frame is shown for. Must be at least 1.
+     */
+    public void writeFrame(FrameBuffer frame, int duration) throws IOException
+    {
+        if (duration < 1)
+            throw new IllegalArgumentException("Frame duration must be at least 1 ms, was " + duration);
+        if (frame.getWidth() != width || frame.getHeight() != height)
+            throw new IllegalArgumentException("Frame is " + frame.getWidth() + "x" + frame.getHeight() + " but the animation is " + width + "x" + height);
+        int[] pixels = frame.getPixels();
+        int keyframeSize = pixels.length * 3;
+        boolean keyframe = !hasPrevious || keyframeInterval > 0 && sinceKeyframe >= keyframeInterval;
+        if (!keyframe)
+        {
+            encodeDelta(pixels);
+            keyframe = payload.size() >= keyframeSize;
+        }
+        if (keyframe)
+        {
+            out.writeByte(KEYFRAME);
+            out.writeInt(duration);
+            out.writeInt(keyframeSize);
+            for (int i = 0; i < order.length; i++)
+                writeRGB(out, pixels[order[i]]);
+            sinceKeyframe = 0;
+        }
+        else
+        {
+            out.writeByte(DELTA);
+            out.writeInt(duration);
+            out.writeInt(payload.size());
+            payload.writeTo(out);
+        }
+        sinceKeyframe++;
+        for (int i = 0; i < order.length; i++)
+            previous[i] = pixels[order[i]] & 0xFFFFFF;
+        hasPrevious = true;
+    }
+
+    /**
+     * Fill payload with the runs of pixels that differ from the previous frame.
+     */
+    private void encodeDelta(int[] pixels)
+    {
+        payload.reset();
+        int runs = 0;
+        for (int i = nextChanged(pixels, 0); i < order.length; i = nextChanged(pixels, runEnd(pixels, i)))
+            runs++;
+        writeVarint(payload, runs);
+        int last = 0;
+        for (int i = nextChanged(pixels, 0); i < order.length; i = nextChanged(pixels, last))
+        {
+            int end = runEnd(pixels, i);
+            writeVarint(payload, i - last);
+            writeVarint(payload, end - i);
+            for (int k = i; k < end; k++)
+            {
+                int rgb = pixels[order[k]];
+                payload.write(rgb >> 16);
+                payload.write(rgb >> 8);
+                payload.write(rgb);
+            }
+            last = end;
+        }
+    }
+
+    private boolean changed(int[] pixels, int i)
+    {
+        return (pixels[order[i]] & 0xFFFFFF) != previous[i];
+    }
+
+    /**
+     * Get the position of the first changed pixel at or after i, or the pixel count if there are none.
+     */
+    private int nextChanged(int[] pixels, int i)
+    {
+        while (i < order.length && !changed(pixels, i))
+            i++;
+        return i;
+    }
+
+    /**
+     * Get the position just after the run of changed pixels starting at i.
+     * Runs separated by a single unchanged pixel are joined, as resending it costs no more than starting a new run.
+     */
+    private int runEnd(int[] pixels, int i)
+    {
+        int end = i + 1;
+        while (end < order.length && (changed(pixels, end) || end + 1 < order.length && changed(pixels, end + 1)))
+            end++;
+        return end;
+    }
+
+    private static void writeRGB(DataOutputStream out, int argb) throws IOException
+    {
+        out.writeByte(argb >> 16);
+        out.writeByte(argb >> 8);
+        out.writeByte(argb);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value)
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Flush and close the underlying stream.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        out.close();
+    }
+}
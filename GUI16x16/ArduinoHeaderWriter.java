@@ -0,0 +1,182 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * ArduinoHeaderWriter
+ * <p>
+ * Writes an Animation as a ready to compile C header for FastLED sketches. The frames go into one PROGMEM table, so they sit in flash
+ * instead of RAM and cost 3 bytes per LED (or 2 bytes with RGB565) instead of about 20 bytes of code per hand-written
+ * leds[n] = CRGB(r, g, b) line. The header also has functions to show a frame and to play the whole animation.<p>
+ * Usage in a sketch, for a header written with the name "heart":
+ * <pre>
+ * #include "heart.h"
+ * CRGB leds[HEART_NUM_LEDS];
+ * void setup() { FastLED.addLeds&lt;WS2812, 7, GRB&gt;(leds, HEART_NUM_LEDS); }
+ * void loop() { heart_play(leds); }
+ * </pre>
+ * LEDs go in the order of the given LedLayout, so leds[i] is LED i on the strip. On AVR boards a single table must stay under 32KB.<p>
+ * Durations are a uint16_t table, or uint32_t if any frame is shown for longer than 65535 milliseconds. Likewise the loops count
+ * LEDs and frames with uint16_t, or uint32_t if there are more than 65535 of them, so a counter never wraps before it reaches the end.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class ArduinoHeaderWriter
+{
+    private static final int VALUES_PER_LINE = 24;
+
+    private ArduinoHeaderWriter()
+    {}
+
+    /**
+     * Turn a file name (such as "my heart.h") into a name that can start C identifiers ("my_heart").
+     */
+    public static String identifierFor(String filename)
+    {
+        String name = filename.replace('\\', '/');
+        name = name.substring(name.lastIndexOf('/') + 1);
+        if (name.lastIndexOf('.') > 0)
+            name = name.substring(0, name.lastIndexOf('.'));
+        StringBuilder id = new StringBuilder();
+        for (char c : name.toCharArray())
+            id.append(c < 128 && Character.isLetterOrDigit(c) ? c : '_');
+        if (id.length() == 0 || Character.isDigit(id.charAt(0)))
+            id.insert(0, "frames_");
+        return id.toString();
+    }
+
+    /**
+     * Write the header to the file at the given path, named after the file (see identifierFor()). The file is replaced in one step
+     * (see AtomicFile), so it is never left half written.
+     */
+    public static void writeFile(Animation animation, int format, LedLayout layout, Path path) throws IOException
+    {
+        Path temp = AtomicFile.begin(path);
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp)) {
+                write(animation, identifierFor(path.getFileName().toString()), format, layout, writer);
+            }
+            AtomicFile.commit(temp, path);
+        } finally {
+            AtomicFile.abort(temp);
+        }
+    }
+
+    /**
+     * Write the header.
+     * @param animation The frames to put in the header.
+     * @param name The name to start the header's identifiers with. See identifierFor().
+     * @param format BinaryFrameCodec.RGB888 for a uint8_t table of r, g, b bytes, or BinaryFrameCodec.RGB565 for a uint16_t table.
+     * @param layout How the matrix is wired.
+     */
+    public static void write(Animation animation, String name, int format, LedLayout layout, Writer out) throws IOException
+    {
+        int width = animation.getWidth();
+        int height = animation.getHeight();
+        int count = animation.getFrameCount();
+        int[] order = layout.getOrder(width, height);
+        String macro = name.toUpperCase();
+        boolean rgb565 = format == BinaryFrameCodec.RGB565;
+        int frameBytes = order.length * BinaryFrameCodec.bytesPerPixel(format);
+
+        out.write("// " + width + "x" + height + ", " + count + " frame" + (count == 1 ? "" : "s") + ", " + (rgb565 ? "RGB565" : "RGB888")
+                  + ". " + frameBytes * count + " bytes of flash.\n");
+        out.write("// Generated by the 16x16 GUI. LEDs are in " + layout + " layout order.\n");
+        out.write("#ifndef " + macro + "_H\n#define " + macro + "_H\n\n");
+        out.write("#include \"FastLED.h\"\n");
+        out.write("#if defined(__AVR__)\n#include <avr/pgmspace.h>\n#else\n");
+        out.write("#ifndef PROGMEM\n#define PROGMEM\n#endif\n");
+        out.write("#ifndef pgm_read_byte\n#define pgm_read_byte(addr) (*(const uint8_t*)(addr))\n#endif\n");
+        out.write("#ifndef pgm_read_word\n#define pgm_read_word(addr) (*(const uint16_t*)(addr))\n#endif\n");
+        out.write("#ifndef pgm_read_dword\n#define pgm_read_dword(addr) (*(const uint32_t*)(addr))\n#endif\n");
+        out.write("#endif\n\n");
+        out.write("#define " + macro + "_WIDTH " + width + "\n");
+        out.write("#define " + macro + "_HEIGHT " + height + "\n");
+        out.write("#define " + macro + "_NUM_LEDS " + order.length + "\n");
+        out.write("#define " + macro + "_FRAME_COUNT " + count + "\n\n");
+
+        boolean longDurations = false;
+        for (int f = 0; f < count; f++)
+            longDurations |= animation.getDuration(f) > 0xFFFF;
+        out.write("const " + (longDurations ? "uint32_t " : "uint16_t ") + name + "_durations[" + macro + "_FRAME_COUNT] PROGMEM = {");
+        for (int f = 0; f < count; f++)
+            out.write((f == 0 ? "" : ", ") + animation.getDuration(f));
+        out.write("};\n\n");
+
+        if (rgb565)
+            out.write("const uint16_t " + name + "_frames[" + macro + "_FRAME_COUNT][" + macro + "_NUM_LEDS] PROGMEM = {\n");
+        else
+            out.write("const uint8_t " + name + "_frames[" + macro + "_FRAME_COUNT][" + macro + "_NUM_LEDS * 3] PROGMEM = {\n");
+        StringBuilder line = new StringBuilder();
+        for (int f = 0; f < count; f++)
+        {
+            out.write("  { // frame " + f + "\n");
+            int[] pixels = animation.getFrame(f).getPixels();
+            int values = 0;
+            for (int i = 0; i < order.length; i++)
+            {
+                int argb = pixels[order[i]];
+                if (rgb565)
+                    values = appendValue(out, line, "0x" + String.format("%04X", BinaryFrameCodec.toRGB565(argb)), values);
+                else
+                {
+                    values = appendValue(out, line, String.valueOf(FrameBuffer.red(argb)), values);
+                    values = appendValue(out, line, String.valueOf(FrameBuffer.green(argb)), values);
+                    values = appendValue(out, line, String.valueOf(FrameBuffer.blue(argb)), values);
+                }
+            }
+            out.write("    " + line + "\n");
+            line.setLength(0);
+            out.write(f == count - 1 ? "  }\n" : "  },\n");
+        }
+        out.write("};\n\n");
+
+        out.write("// Copy a frame from flash into the leds.\n");
+        // A uint16_t counter can't reach 65536, so "i < 65536" would never end.
+        String ledIndex = order.length > 0xFFFF ? "uint32_t" : "uint16_t";
+        String frameIndex = count > 0xFFFF ? "uint32_t" : "uint16_t";
+        out.write("inline void " + name + "_showFrame(CRGB* leds, " + frameIndex + " frame) {\n");
+        if (rgb565)
+        {
+            out.write("  const uint16_t* p = " + name + "_frames[frame];\n");
+            out.write("  for (" + ledIndex + " i = 0; i < " + macro + "_NUM_LEDS; i++) {\n");
+            out.write("    uint16_t c = pgm_read_word(p++);\n");
+            out.write("    leds[i] = CRGB((c >> 8 & 0xF8) | (c >> 13), (c >> 3 & 0xFC) | (c >> 9 & 0x03), (c << 3 & 0xF8) | (c >> 2 & 0x07));\n");
+        }
+        else
+        {
+            out.write("  const uint8_t* p = " + name + "_frames[frame];\n");
+            out.write("  for (" + ledIndex + " i = 0; i < " + macro + "_NUM_LEDS; i++) {\n");
+            out.write("    leds[i].r = pgm_read_byte(p++);\n");
+            out.write("    leds[i].g = pgm_read_byte(p++);\n");
+            out.write("    leds[i].b = pgm_read_byte(p++);\n");
+        }
+        out.write("  }\n}\n\n");
+        out.write("// Show every frame once, each for its duration.\n");
+        out.write("inline void " + name + "_play(CRGB* leds) {\n");
+        out.write("  for (" + frameIndex + " f = 0; f < " + macro + "_FRAME_COUNT; f++) {\n");
+        out.write("    " + name + "_showFrame(leds, f);\n");
+        out.write("    FastLED.show();\n");
+        out.write("    delay(" + (longDurations ? "pgm_read_dword" : "pgm_read_word") + "(&" + name + "_durations[f]));\n");
+        out.write("  }\n}\n\n");
+        out.write("#endif\n");
+    }
+
+    /**
+     * Add a value to the current line of the table, writing the line out when it is full.
+     * @return The number of values now on the line.
+     */
+    private static int appendValue(Writer out, StringBuilder line, String value, int values) throws IOException
+    {
+        if (values == VALUES_PER_LINE)
+        {
+            out.write("    " + line + "\n");
+            line.setLength(0);
+            values = 0;
+        }
+        line.append(value).append(',');
+        return values + 1;
+    }
+}
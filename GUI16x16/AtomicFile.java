@@ -0,0 +1,85 @@
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * AtomicFile
+ * <p>
+ * Replaces files so that they are never left half written. The new contents go into a temporary file next to the file being
+ * replaced, which is then renamed over it in one step. If writing fails, the old file is untouched.<p>
+ * The new file gets the permissions of the file it replaces, or if there isn't one, the permissions any new file gets (so it can
+ * be read by others as usual, not just its owner as with Files.createTempFile()).
+ * <pre>
+ * Path temp = AtomicFile.begin(path);
+ * try {
+ *     ... write everything to temp ...
+ *     AtomicFile.commit(temp, path);
+ * } finally {
+ *     AtomicFile.abort(temp);
+ * }
+ * </pre>
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class AtomicFile
+{
+    private AtomicFile()
+    {}
+
+    /**
+     * Create the temporary file to write the new contents of the file at the given path into.
+     */
+    public static Path begin(Path path) throws IOException
+    {
+        Path absolute = path.toAbsolutePath();
+        while (true)
+        {
+            Path temp = absolute.resolveSibling("." + absolute.getFileName() + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                Files.createFile(temp);
+            } catch (FileAlreadyExistsException e) {
+                continue;
+            }
+            try {
+                if (Files.exists(absolute))
+                    Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(absolute));
+            } catch (UnsupportedOperationException e) {
+                // Not a POSIX file system, so there are no permissions to keep.
+            } catch (IOException e) {
+                abort(temp);
+                throw e;
+            }
+            return temp;
+        }
+    }
+
+    /**
+     * Replace the file at the given path with the temporary file. Falls back to an ordinary replace where the file system cannot
+     * rename atomically.
+     */
+    public static void commit(Path temp, Path path) throws IOException
+    {
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Delete the temporary file if it is still there (that is, commit() was not reached).
+     */
+    public static void abort(Path temp)
+    {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            // Nothing more can be done, and the original file is untouched either way.
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * AutoSaver
+ * <p>
+ * Keeps a binary frame file (see BinaryFrameCodec) up to date with the frame being edited, so work is not lost if the scenario is
+ * closed. The file can be brought back with the Import button.<p>
+ * The file is not touched until the frame is edited, so the work saved by the last session is still there to import after the
+ * scenario is run or reset. A frame only counts as edited once one of its pixels changes after save() first sees it; being shown is
+ * not an edit.<p>
+ * The whole file is written by the first save after an edit to a different frame (or after the file was closed). After that only
+ * the pixels the frame's DirtyTracker marks as changed are written, each run of them with one positional write. The file's pixels are in row by row layout, the same order as
+ * FrameBuffer.getPixels(), so a run of changed pixels is also a run of bytes in the file.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class AutoSaver
+{
+    public static final String DEFAULT_FILE = "autosave.bin";
+    public static final int DEFAULT_INTERVAL = 1000;
+
+    private static final int FORMAT = BinaryFrameCodec.RGB888;
+    private static final LedLayout LAYOUT = LedLayout.ROW_MAJOR;
+
+    private final Path path;
+    private final int interval;
+    private FileChannel channel;
+    private DirtyTracker tracker;
+    private boolean wholeFile; // the file doesn't hold the tracked frame, so the next save writes it all
+    private ByteBuffer run = ByteBuffer.allocate(0);
+    private long lastSave = System.currentTimeMillis();
+
+    /**
+     * Create a new AutoSaver.
+     * @param path The file to keep up to date.
+     * @param interval The least number of milliseconds between saves made by update().
+     */
+    public AutoSaver(Path path, int interval)
+    {
+        this.path = path;
+        this.interval = interval;
+    }
+
+    /**
+     * Save the frame if it has been at least the interval since the last save.
+     * @param now The current time in milliseconds.
+     */
+    public void update(FrameBuffer frame, long now) throws IOException
+    {
+        if (now - lastSave >= interval)
+        {
+            save(frame);
+            lastSave = now;
+        }
+    }
+
+    /**
+     * Save the frame now if it has been edited, writing only what changed since the last save if it is the same frame. Does not
+     * change when update() next saves, so it can be called at any time (such as when the scenario is paused).
+     */
+    public void save(FrameBuffer frame) throws IOException
+    {
+        if (tracker == null || tracker.getFrameBuffer() != frame)
+        {
+            if (tracker != null)
+                tracker.detach();
+            // A new DirtyTracker starts with every pixel marked, which is not an edit.
+            tracker = frame.track();
+            tracker.clear();
+            wholeFile = true;
+        }
+        if (!tracker.isDirty())
+            return;
+        if (channel == null)
+        {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            // The file may have been changed since it was closed, so write it all again.
+            wholeFile = true;
+        }
+        if (wholeFile || tracker.getDirtyCount() == frame.getWidth() * frame.getHeight())
+        {
+            channel.truncate(0);
+            channel.position(0);
+            BinaryFrameCodec.write(frame, FORMAT, LAYOUT, channel);
+            wholeFile = false;
+        }
+        else
+        {
+            int[] pixels = frame.getPixels();
+            long offset = BinaryFrameCodec.pixelOffset(LAYOUT);
+            int bytes = BinaryFrameCodec.bytesPerPixel(FORMAT);
+            for (int start = tracker.nextDirty(0); start != -1; )
+            {
+                int end = tracker.nextClean(start);
+                if (run.capacity() < (end - start) * bytes)
+                    run = ByteBuffer.allocate(pixels.length * bytes);
+                run.clear();
+                for (int i = start; i < end; i++)
+                    run.put((byte)(pixels[i] >> 16)).put((byte)(pixels[i] >> 8)).put((byte)pixels[i]);
+                run.flip();
+                long position = offset + (long)start * bytes;
+                while (run.hasRemaining())
+                    position += channel.write(run, position);
+                start = tracker.nextDirty(end);
+            }
+        }
+        tracker.clear();
+    }
+
+    /**
+     * Close the file. The next save opens it again and writes it all.
+     */
+    public void close() throws IOException
+    {
+        if (channel != null)
+        {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,406 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * BatchConverter
+ * <p>
+ * Converts whole folders of frame and animation files from one format to another, from the command line and without Greenfoot.<p>
+ * Reads anything AnimationReader.readAnyFile() reads (text files as ExportBtn writes them, .bin/.565 frames and .anim animations), and
+ * images, which are scaled to a given grid size (see ImageFrameCodec.readImageFile()). Writes text, .bin, .565, .anim, PNG, animated GIF or a FastLED .h header. On the way, colors can be gamma corrected and dimmed (see
+ * ColorCorrection), and LEDs put in a different order (see LedLayout) for the formats that are in LED order.<p>
+ * Work is spread over a ForkJoinPool: each file is a task, and each frame of a file is a smaller task forked from it, so a folder
+ * of short files and a single long animation both keep every core busy. A file that can't be converted is reported and skipped.<p>
+ * Formats that hold one frame (text, .bin, .565 and PNG) get one file per frame when the input has more than one, numbered like
+ * "heart_0003.png".<p>
+ * Before anything is converted, the frames of every input are counted (without reading their pixels) to work out every file it
+ * will write. A file is never written over one of the inputs, and when two inputs would write the same file (such as heart.png and
+ * heart.txt in one folder, or a single frame heart_0003.txt next to a multi-frame heart.anim), only the first is converted and the
+ * other is reported as failed.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class BatchConverter
+{
+    /**
+     * The formats that can be written, by file extension.
+     */
+    public static final List<String> FORMATS = Collections.unmodifiableList(Arrays.asList("txt", "bin", "565", "anim", "png", "gif", "h"));
+
+    private final String format;
+    private final LedLayout layout;
+    private final ColorCorrection correction;
+    private final int scale;
+    private final int gap;
+    private final ForkJoinPool pool;
+    private int imageWidth = 16;
+    private int imageHeight = 16;
+    private ImageScaler scaler;
+
+    /**
+     * Create a new BatchConverter.
+     * @param format The format to write, one of FORMATS.
+     * @param layout The order LEDs are written in, for text, .bin, .565 and .h.
+     * @param correction The correction made to every color.
+     * @param scale The width and height in pixels of each LED, for PNG and GIF.
+     * @param gap The space in pixels between LEDs, for PNG and GIF.
+     * @param threads The number of threads to convert with.
+     */
+    public BatchConverter(String format, LedLayout layout, ColorCorrection correction, int scale, int gap, int threads)
+    {
+        if (!FORMATS.contains(format))
+            throw new IllegalArgumentException("Unknown format \"" + format + "\", expected one of " + FORMATS);
+        // Check the sizes now, rather than failing on every file.
+        new FrameRenderer(scale, gap);
+        this.format = format;
+        this.layout = layout;
+        this.correction = correction;
+        this.scale = scale;
+        this.gap = gap;
+        pool = new ForkJoinPool(Math.max(1, threads));
+        scaler = new ImageScaler(ImageScaler.AREA, pool);
+    }
+
+    /**
+     * Set the grid size images are scaled to, and the filter they are scaled with. Images are scaled to 16x16 with ImageScaler.AREA
+     * unless this is called.
+     * @param filter ImageScaler.AREA or ImageScaler.LANCZOS.
+     */
+    public void setImageScaling(int width, int height, int filter)
+    {
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException("Bad grid size " + width + "x" + height);
+        imageWidth = width;
+        imageHeight = height;
+        scaler = new ImageScaler(filter, pool);
+    }
+
+    /**
+     * Convert every file, writing the results into the given folder (made if it doesn't exist), or next to each file if it is null.
+     * @param log Told about each file converted or failed, or null.
+     * @return The number of files that could not be converted.
+     */
+    public int convertAll(List<Path> inputs, Path outputDir, PrintStream log) throws IOException
+    {
+        if (outputDir != null)
+            Files.createDirectories(outputDir);
+        int failures = 0;
+        final List<ConvertFile> tasks = new ArrayList<ConvertFile>();
+        Set<Path> inputPaths = new HashSet<Path>();
+        for (Path input : inputs)
+            inputPaths.add(input.toAbsolutePath().normalize());
+        // Every file written so far, and the input it is written from, so no two inputs write the same file.
+        Map<Path, Path> outputOwners = new HashMap<Path, Path>();
+        for (Path input : inputs)
+        {
+            ConvertFile task = new ConvertFile(input);
+            try {
+                task.outputs = outputPaths(input, outputDir != null ? outputDir : input.toAbsolutePath().getParent(), countFrames(input));
+                for (Path output : task.outputs)
+                {
+                    Path key = output.toAbsolutePath().normalize();
+                    if (inputPaths.contains(key))
+                        throw new IOException("Would write over the input " + output);
+                    Path other = outputOwners.get(key);
+                    if (other != null)
+                        throw new IOException("Would write " + output + ", which " + other + " is written to");
+                }
+                for (Path output : task.outputs)
+                    outputOwners.put(output.toAbsolutePath().normalize(), input);
+            } catch (IOException | RuntimeException e) {
+                task.error = e;
+            }
+            tasks.add(task);
+        }
+        pool.invoke(new RecursiveAction() {
+            protected void compute()
+            {
+                invokeAll(tasks);
+            }
+        });
+        for (ConvertFile task : tasks)
+        {
+            if (task.error != null)
+                failures++;
+            if (log == null)
+                continue;
+            if (task.error != null)
+                log.println("FAILED " + task.input + ": " + task.error.getMessage());
+            else
+                for (Path written : task.getRawResult())
+                    log.println(task.input + " -> " + written);
+        }
+        return failures;
+    }
+
+    /**
+     * Count the frames of a file, without reading their pixels.
+     */
+    private static int countFrames(Path input) throws IOException
+    {
+        return ImageFrameCodec.isImageFile(input) ? ImageFrameCodec.countFrames(input) : AnimationReader.countFrames(input);
+    }
+
+    /**
+     * Get the files written for an input with the given number of frames: one file for the formats that hold every frame, or for a
+     * single frame, and otherwise one numbered file per frame.
+     */
+    private List<Path> outputPaths(Path input, Path outputDir, int frameCount)
+    {
+        String name = baseName(input);
+        List<Path> paths = new ArrayList<Path>();
+        if (format.equals("anim") || format.equals("gif") || format.equals("h") || frameCount == 1)
+            paths.add(outputDir.resolve(name + "." + format));
+        else
+            for (int i = 0; i < frameCount; i++)
+                paths.add(outputDir.resolve(String.format("%s_%04d.%s", name, i, format)));
+        return paths;
+    }
+
+    /**
+     * Convert one file, forking a task for each frame where that helps. Call from within the pool.
+     * @param outputs The files to write, from outputPaths().
+     * @return The files written.
+     */
+    private List<Path> convert(Path input, final List<Path> outputs) throws IOException
+    {
+        final Animation animation = ImageFrameCodec.isImageFile(input) ? ImageFrameCodec.readImageFile(input, imageWidth, imageHeight, scaler)
+                                                                       : AnimationReader.readAnyFile(input);
+        forEachFrame(animation.getFrameCount(), new FrameAction() {
+            public void run(int index)
+            {
+                correction.apply(animation.getFrame(index));
+            }
+        });
+
+        if (format.equals("anim") || format.equals("gif") || format.equals("h"))
+        {
+            Path path = outputs.get(0);
+            if (format.equals("anim"))
+                AnimationWriter.writeFile(animation, path);
+            else if (format.equals("gif"))
+                ImageFrameCodec.writeGif(animation, new FrameRenderer(scale, gap), path, null);
+            else
+                ArduinoHeaderWriter.writeFile(animation, BinaryFrameCodec.RGB888, layout, path);
+            return outputs;
+        }
+        // The files were checked for a count of frames made before reading them.
+        if (animation.getFrameCount() != outputs.size())
+            throw new IOException("Has " + animation.getFrameCount() + " frames, but had " + outputs.size() + " when counted");
+        forEachFrame(animation.getFrameCount(), new FrameAction() {
+            public void run(int index) throws IOException
+            {
+                FrameBuffer frame = animation.getFrame(index);
+                Path path = outputs.get(index);
+                if (format.equals("png"))
+                    ImageFrameCodec.writePng(frame, new FrameRenderer(scale, gap), path);
+                else if (format.equals("txt"))
+                    TextFrameCodec.writeFile(frame, layout, path);
+                else
+                    BinaryFrameCodec.writeFile(frame, format.equals("565") ? BinaryFrameCodec.RGB565 : BinaryFrameCodec.RGB888, layout, path);
+            }
+        });
+        return outputs;
+    }
+
+    /**
+     * Get a file's name without its extension, which the files converted from it are named after.
+     */
+    private static String baseName(Path input)
+    {
+        String name = input.getFileName().toString();
+        return name.lastIndexOf('.') > 0 ? name.substring(0, name.lastIndexOf('.')) : name;
+    }
+
+    /**
+     * Run an action for every frame index, as a task each, waiting for them all.
+     */
+    private static void forEachFrame(int count, final FrameAction action) throws IOException
+    {
+        List<RecursiveAction> tasks = new ArrayList<RecursiveAction>();
+        for (int i = 0; i < count; i++)
+        {
+            final int index = i;
+            tasks.add(new RecursiveAction() {
+                protected void compute()
+                {
+                    try {
+                        action.run(index);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        }
+        try {
+            RecursiveAction.invokeAll(tasks);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Stop the threads once the conversions running are done.
+     */
+    public void shutdown()
+    {
+        pool.shutdown();
+    }
+
+    private interface FrameAction
+    {
+        void run(int index) throws IOException;
+    }
+
+    /**
+     * Converting one file to the outputs worked out for it. A failure is kept in error instead of being thrown, so the other files
+     * carry on. A task that already has an error (see convertAll()) does nothing.
+     */
+    @SuppressWarnings("serial")
+    private class ConvertFile extends RecursiveTask<List<Path>>
+    {
+        private final Path input;
+        private List<Path> outputs;
+        private Exception error;
+
+        ConvertFile(Path input)
+        {
+            this.input = input;
+        }
+
+        protected List<Path> compute()
+        {
+            if (error != null)
+                return Collections.emptyList();
+            try {
+                return convert(input, outputs);
+            } catch (IOException | RuntimeException e) {
+                error = e;
+                return Collections.emptyList();
+            }
+        }
+    }
+
+    /**
+     * Convert files from the command line, headless. Run with no arguments to see the options.
+     */
+    public static void main(String[] args) throws Exception
+    {
+        System.setProperty("java.awt.headless", "true");
+        String format = null;
+        Path outputDir = null;
+        LedLayout layout = LedLayout.COLUMN_MAJOR;
+        double gamma = 1;
+        double brightness = 1;
+        int scale = 1;
+        int gap = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int imageWidth = 16;
+        int imageHeight = 16;
+        int filter = ImageScaler.AREA;
+        List<Path> inputs = new ArrayList<Path>();
+        try {
+            for (int i = 0; i < args.length; i++)
+            {
+                String arg = args[i];
+                if (arg.startsWith("-") && i + 1 == args.length)
+                    throw new IllegalArgumentException(arg + " needs a value");
+                if (arg.equals("-to"))
+                    format = args[++i].toLowerCase();
+                else if (arg.equals("-out"))
+                    outputDir = Paths.get(args[++i]);
+                else if (arg.equals("-layout"))
+                    layout = LedLayout.parse(args[++i]);
+                else if (arg.equals("-gamma"))
+                    gamma = Double.parseDouble(args[++i]);
+                else if (arg.equals("-brightness"))
+                    brightness = Double.parseDouble(args[++i]);
+                else if (arg.equals("-scale"))
+                    scale = Integer.parseInt(args[++i]);
+                else if (arg.equals("-gap"))
+                    gap = Integer.parseInt(args[++i]);
+                else if (arg.equals("-threads"))
+                    threads = Integer.parseInt(args[++i]);
+                else if (arg.equals("-size"))
+                {
+                    String[] values = args[++i].toLowerCase().split("x");
+                    if (values.length != 2)
+                        throw new IllegalArgumentException("Expected a size like 16x16, but found " + args[i]);
+                    imageWidth = Integer.parseInt(values[0].trim());
+                    imageHeight = Integer.parseInt(values[1].trim());
+                }
+                else if (arg.equals("-filter"))
+                    filter = ImageScaler.parseFilter(args[++i]);
+                else if (arg.startsWith("-"))
+                    throw new IllegalArgumentException("Unknown option " + arg);
+                else
+                    addInputs(Paths.get(arg), inputs);
+            }
+            if (format == null || inputs.isEmpty())
+                throw new IllegalArgumentException("A format and at least one input are needed");
+            if (!FORMATS.contains(format))
+                throw new IllegalArgumentException("Unknown format \"" + format + "\"");
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: BatchConverter -to <" + String.join("|", FORMATS) + "> [options] <input file or folder>...");
+            System.err.println("  -out <folder>        where to write (default: next to each input)");
+            System.err.println("  -layout <layout>     LED order for txt, bin, 565 and h (default column)");
+            System.err.println("  -gamma <g>           gamma correction, such as 2.2 (default 1)");
+            System.err.println("  -brightness <b>      brightness from 0 to 1 (default 1)");
+            System.err.println("  -scale <n> -gap <n>  pixels per LED and between LEDs for png and gif (default 1 0)");
+            System.err.println("  -size <w>x<h>        grid size to scale images to (default 16x16)");
+            System.err.println("  -filter <filter>     area or lanczos, for scaling images (default area)");
+            System.err.println("  -threads <n>         (default one per core)");
+            System.exit(2);
+            return;
+        }
+
+        BatchConverter converter = new BatchConverter(format, layout, new ColorCorrection(gamma, brightness), scale, gap, threads);
+        converter.setImageScaling(imageWidth, imageHeight, filter);
+        long start = System.nanoTime();
+        int failures;
+        try {
+            failures = converter.convertAll(inputs, outputDir, System.out);
+        } finally {
+            converter.shutdown();
+        }
+        System.out.printf("Converted %d of %d files in %.2f s on %d threads%n", inputs.size() - failures, inputs.size(), (System.nanoTime() - start) / 1e9, threads);
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Add a file, or every file in a folder (in name order), to the inputs.
+     */
+    private static void addInputs(Path path, List<Path> inputs) throws IOException
+    {
+        if (!Files.isDirectory(path))
+        {
+            inputs.add(path);
+            return;
+        }
+        List<Path> files = new ArrayList<Path>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+            for (Path file : stream)
+                if (Files.isRegularFile(file) && !file.getFileName().toString().startsWith("."))
+                    files.add(file);
+        }
+        Collections.sort(files);
+        inputs.addAll(files);
+    }
+}
@@ -0,0 +1,202 @@
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BatchRenderer
+ * <p>
+ * Renders every frame of animation files to PNG images of the grid as the editor shows it, using all of the machine's cores and no
+ * display, so previews can be made on a build server without Greenfoot.<p>
+ * Each frame is rendered and written on its own, so the frames of one animation (and of every file in a batch) are spread over the
+ * threads. Images are written with ImageFrameCodec, so a failed batch never leaves half written images behind.<p>
+ * Run main() to render files from the command line.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class BatchRenderer
+{
+    private final ExecutorService executor;
+    private final int cellSize;
+    private final int gap;
+
+    /**
+     * Create a new BatchRenderer with one thread per core.
+     * @param cellSize The width and height in pixels of each cell.
+     * @param gap The space in pixels between neighboring cells.
+     */
+    public BatchRenderer(int cellSize, int gap)
+    {
+        this(cellSize, gap, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new BatchRenderer.
+     * @param cellSize The width and height in pixels of each cell.
+     * @param gap The space in pixels between neighboring cells.
+     * @param threads The number of frames to render at once.
+     */
+    public BatchRenderer(int cellSize, int gap, int threads)
+    {
+        // Check the sizes now, rather than failing on every thread.
+        new FrameRenderer(cellSize, gap);
+        this.cellSize = cellSize;
+        this.gap = gap;
+        final AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), new ThreadFactory() {
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = new Thread(runnable, "BatchRenderer-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Render every frame of every file to PNG images named after the file and the frame's index (such as "heart_0003.png").<p>
+     * Files are read one after another while the frames already read are being rendered.
+     * @param inputs Animation or single frame files, in any format AnimationReader.readAnyFile() reads.
+     * @param outputDir The folder to write the images to, which is made if it doesn't exist.
+     * @param listener Told how many frames have been written, from the rendering threads, or null.
+     * @return The images written, in order.
+     */
+    public List<Path> renderFiles(List<Path> inputs, Path outputDir, final ProgressListener listener) throws IOException
+    {
+        Files.createDirectories(outputDir);
+        List<Future<Path>> futures = new ArrayList<Future<Path>>();
+        final AtomicInteger done = new AtomicInteger();
+        // The total isn't known until every file is read, so until then each file counts as one frame.
+        final AtomicInteger total = new AtomicInteger(inputs.size());
+        try {
+            for (Path input : inputs)
+            {
+                Animation animation = AnimationReader.readAnyFile(input);
+                String name = input.getFileName().toString();
+                if (name.lastIndexOf('.') > 0)
+                    name = name.substring(0, name.lastIndexOf('.'));
+                total.addAndGet(animation.getFrameCount() - 1);
+                for (int i = 0; i < animation.getFrameCount(); i++)
+                    futures.add(submit(animation.getFrame(i), outputDir.resolve(String.format("%s_%04d.png", name, i)), done, total, listener));
+            }
+            return waitFor(futures);
+        } finally {
+            for (Future<Path> future : futures)
+                future.cancel(true);
+        }
+    }
+
+    /**
+     * Render every frame of an Animation to PNG images named after the given name and the frame's index.
+     * @param listener Told how many frames have been written, from the rendering threads, or null.
+     * @return The images written, in frame order.
+     */
+    public List<Path> render(Animation animation, String name, Path outputDir, ProgressListener listener) throws IOException
+    {
+        Files.createDirectories(outputDir);
+        List<Future<Path>> futures = new ArrayList<Future<Path>>();
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger total = new AtomicInteger(animation.getFrameCount());
+        try {
+            for (int i = 0; i < animation.getFrameCount(); i++)
+                futures.add(submit(animation.getFrame(i), outputDir.resolve(String.format("%s_%04d.png", name, i)), done, total, listener));
+            return waitFor(futures);
+        } finally {
+            for (Future<Path> future : futures)
+                future.cancel(true);
+        }
+    }
+
+    /**
+     * Stop the rendering threads. Frames still waiting are not rendered.
+     */
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    private Future<Path> submit(final FrameBuffer frame, final Path path, final AtomicInteger done, final AtomicInteger total, final ProgressListener listener)
+    {
+        return executor.submit(new Callable<Path>() {
+            public Path call() throws IOException
+            {
+                ImageFrameCodec.writePng(frame, new FrameRenderer(cellSize, gap), path);
+                if (listener != null)
+                    listener.progress(done.incrementAndGet(), total.get());
+                return path;
+            }
+        });
+    }
+
+    private static List<Path> waitFor(List<Future<Path>> futures) throws IOException
+    {
+        List<Path> written = new ArrayList<Path>();
+        try {
+            for (Future<Path> future : futures)
+                written.add(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException)e.getCause();
+            throw new IOException(e.getCause());
+        }
+        return written;
+    }
+
+    /**
+     * Render files from the command line, headless.
+     * @param args An input file or folder of files, the output folder, and optionally the cell size, gap and number of threads.
+     *             Defaults to 20 1 and one thread per core.
+     */
+    public static void main(String[] args) throws Exception
+    {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 2)
+        {
+            System.err.println("Usage: BatchRenderer <input file or folder> <output folder> [cell size] [gap] [threads]");
+            System.exit(2);
+        }
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        int cellSize = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int gap = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        List<Path> inputs = new ArrayList<Path>();
+        if (Files.isDirectory(input))
+        {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(input)) {
+                for (Path file : files)
+                    if (Files.isRegularFile(file))
+                        inputs.add(file);
+            }
+            Collections.sort(inputs);
+        }
+        else
+            inputs.add(input);
+
+        BatchRenderer renderer = new BatchRenderer(cellSize, gap, threads);
+        long start = System.nanoTime();
+        try {
+            List<Path> written = renderer.renderFiles(inputs, output, null);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d images from %d files in %.2f s on %d threads%n", written.size(), inputs.size(), seconds, threads);
+        } finally {
+            renderer.shutdown();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * BinaryFrameCodec
+ * <p>
+ * Reads and writes a FrameBuffer as a compact binary file, about 3 bytes (or 2 bytes) per pixel instead of the text format's up to 12.<p>
+ * The file is a 12 byte header, the LedLayout the pixels are in (if not the default), then the raw pixels. All multi-byte values are big-endian.<p>
+ * <pre>
+ * offset size
+ *  0     4    magic "LEDF"
+ *  4     1    version (1)
+ *  5     1    pixel format (RGB888 or RGB565)
+ *  6     2    width
+ *  8     2    height
+ * 10     2    length of the layout spec string, 0 for the default column by column layout
+ * 12          the layout spec string, in ASCII
+ * 12 + length pixels, in the layout's order
+ * </pre>
+ * RGB888 pixels are 3 bytes: red, green, blue. RGB565 pixels are one 16 bit value: 5 bits red, 6 bits green, 5 bits blue.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class BinaryFrameCodec
+{
+    public static final int MAGIC = 0x4C454446; // "LEDF"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 12;
+    public static final int RGB888 = 1;
+    public static final int RGB565 = 2;
+
+    private BinaryFrameCodec()
+    {}
+
+    /**
+     * Get the number of bytes each pixel takes up in the given pixel format.
+     */
+    public static int bytesPerPixel(int format)
+    {
+        switch (format) {
+            case RGB888: return 3;
+            case RGB565: return 2;
+            default:     throw new IllegalArgumentException("Unknown pixel format " + format);
+        }
+    }
+
+    /**
+     * Get the pixel format to export a file with, going by its name: ".bin" is RGB888 and ".565" is RGB565.
+     * @return The pixel format, or -1 if the file should be exported as text.
+     */
+    public static int formatForFile(String filename)
+    {
+        String lower = filename.toLowerCase();
+        if (lower.endsWith(".bin"))
+            return RGB888;
+        if (lower.endsWith(".565"))
+            return RGB565;
+        return -1;
+    }
+
+    /**
+     * Get where in a file the pixels start, for a file whose pixels are in the given layout.
+     */
+    public static int pixelOffset(LedLayout layout)
+    {
+        return HEADER_SIZE + (layout == LedLayout.COLUMN_MAJOR ? 0 : layout.toString().length());
+    }
+
+    /**
+     * Check if the file at the given path starts with this format's magic number.
+     */
+    public static boolean isBinaryFile(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining())
+                if (channel.read(magic) == -1)
+                    return false;
+            magic.flip();
+            return magic.getInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Write a FrameBuffer to the file at the given path in the default column by column layout, replacing the file if it exists.
+     */
+    public static void writeFile(FrameBuffer frameBuffer, int format, Path path) throws IOException
+    {
+        writeFile(frameBuffer, format, LedLayout.COLUMN_MAJOR, path);
+    }
+
+    /**
+     * Write a FrameBuffer to the file at the given path with its pixels in the given layout, replacing the file if it exists.
+     * The file is replaced in one step (see AtomicFile), so it is never left half written.
+     */
+    public static void writeFile(FrameBuffer frameBuffer, int format, LedLayout layout, Path path) throws IOException
+    {
+        Path temp = AtomicFile.begin(path);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                write(frameBuffer, format, layout, channel);
+            }
+            AtomicFile.commit(temp, path);
+        } finally {
+            AtomicFile.abort(temp);
+        }
+    }
+
+    /**
+     * Read a FrameBuffer from the file at the given path.
+     */
+    public static FrameBuffer readFile(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel);
+        }
+    }
+
+    /**
+     * Write the header and pixels of a FrameBuffer to a channel, with the pixels in the given layout.
+     */
+    public static void write(FrameBuffer frameBuffer, int format, LedLayout layout, WritableByteChannel channel) throws IOException
+    {
+        int width = frameBuffer.getWidth();
+        int height = frameBuffer.getHeight();
+        if (width > 0xFFFF || height > 0xFFFF)
+            throw new IOException("Frame too large for binary format: " + width + "x" + height);
+        byte[] spec = layout == LedLayout.COLUMN_MAJOR ? new byte[0] : layout.toString().getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + spec.length + width * height * bytesPerPixel(format));
+        buffer.putInt(MAGIC).put((byte)VERSION).put((byte)format).putShort((short)width).putShort((short)height).putShort((short)spec.length).put(spec);
+        encodePixels(frameBuffer, format, TextFrameCodec.getOrder(layout, frameBuffer), buffer);
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    /**
+     * Read the header and pixels of a FrameBuffer from a channel.
+     * @throws IOException If the channel could not be read or does not hold a frame in this format.
+     */
+    public static FrameBuffer read(ReadableByteChannel channel) throws IOException
+    {
+        ByteBuffer header = readFully(channel, ByteBuffer.allocate(HEADER_SIZE));
+        if (header.getInt() != MAGIC)
+            throw new IOException("Not a binary frame file");
+        int version = header.get() & 0xFF;
+        if (version != VERSION)
+            throw new IOException("Unsupported binary frame version " + version);
+        int format = header.get() & 0xFF;
+        int width = header.getShort() & 0xFFFF;
+        int height = header.getShort() & 0xFFFF;
+        int specLength = header.getShort() & 0xFFFF;
+        if (format != RGB888 && format != RGB565)
+            throw new IOException("Unknown pixel format " + format);
+        if (width == 0 || height == 0)
+            throw new IOException("Empty frame in binary frame file");
+        if (width > FrameBuffer.MAX_GRID_SIZE || height > FrameBuffer.MAX_GRID_SIZE)
+            throw new IOException("Frame too large in binary frame file: " + width + "x" + height);
+        LedLayout layout = LedLayout.COLUMN_MAJOR;
+        if (specLength > 0)
+            layout = TextFrameCodec.parseLayout(new String(readFully(channel, ByteBuffer.allocate(specLength)).array(), StandardCharsets.US_ASCII));
+        // Check a file holds all of its pixels before making room for them.
+        long pixelBytes = (long)width * height * bytesPerPixel(format);
+        if (channel instanceof SeekableByteChannel)
+        {
+            SeekableByteChannel file = (SeekableByteChannel)channel;
+            if (file.size() - file.position() < pixelBytes)
+                throw new EOFException("Binary frame file ended early");
+        }
+        FrameBuffer frameBuffer = new FrameBuffer(width, height);
+        int[] order = TextFrameCodec.getOrder(layout, frameBuffer);
+        decodePixels(readFully(channel, ByteBuffer.allocate((int)pixelBytes)), format, order, frameBuffer);
+        return frameBuffer;
+    }
+
+    /**
+     * Put every pixel of a FrameBuffer into a buffer in the given pixel format.
+     * @param order The indexes into the FrameBuffer's pixels in the order they are to be put, from LedLayout.getOrder().
+     */
+    public static void encodePixels(FrameBuffer frameBuffer, int format, int[] order, ByteBuffer buffer)
+    {
+        int[] pixels = frameBuffer.getPixels();
+        for (int index : order)
+        {
+            int argb = pixels[index];
+            if (format == RGB565)
+                buffer.putShort((short)toRGB565(argb));
+            else
+                buffer.put((byte)(argb >> 16)).put((byte)(argb >> 8)).put((byte)argb);
+        }
+    }
+
+    /**
+     * Take every pixel of a FrameBuffer from a buffer in the given pixel format. Pixels are made opaque.
+     * @param order The indexes into the FrameBuffer's pixels in the order they are in the buffer, from LedLayout.getOrder().
+     */
+    public static void decodePixels(ByteBuffer buffer, int format, int[] order, FrameBuffer frameBuffer)
+    {
+        int[] pixels = frameBuffer.getPixels();
+        for (int index : order)
+        {
+            if (format == RGB565)
+                pixels[index] = fromRGB565(buffer.getShort() & 0xFFFF);
+            else
+                pixels[index] = 0xFF000000 | (buffer.get() & 0xFF) << 16 | (buffer.get() & 0xFF) << 8 | (buffer.get() & 0xFF);
+        }
+        frameBuffer.markChanged();
+    }
+
+    /**
+     * Convert a packed ARGB color to RGB565, dropping the alpha and the low bits of each channel.
+     */
+    public static int toRGB565(int argb)
+    {
+        return (argb >> 8 & 0xF800) | (argb >> 5 & 0x07E0) | (argb >> 3 & 0x001F);
+    }
+
+    /**
+     * Convert an RGB565 color to an opaque packed ARGB color, filling the low bits of each channel from the high bits so white stays white.
+     */
+    public static int fromRGB565(int rgb565)
+    {
+        int r = rgb565 >> 11 & 0x1F, g = rgb565 >> 5 & 0x3F, b = rgb565 & 0x1F;
+        return 0xFF000000 | (r << 3 | r >> 2) << 16 | (g << 2 | g >> 4) << 8 | (b << 3 | b >> 2);
+    }
+
+    private static ByteBuffer readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException
+    {
+        while (buffer.hasRemaining())
+            if (channel.read(buffer) == -1)
+                throw new EOFException("Binary frame file ended early");
+        buffer.flip();
+        return buffer;
+    }
+}
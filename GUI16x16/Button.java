@@ -59,29 +59,10 @@ public class Button extends WindowComponent
         if (!enabled)
             return;
         
-        boolean lastHover = hover;
-        boolean lastPressed = pressed;
-        
-        hover = mouseOverThis();
-        
-        if (Greenfoot.mousePressed(this))
-            pressed = true;
-        
-        if (pressed) {
-            if (continuePress && ++pressCount == 5) {
-                clicked = true;
-                pressCount = 0;
-            }
-            if (Greenfoot.mouseClicked(this))
-                clicked = true;
-            if (Greenfoot.mouseClicked(null) || Greenfoot.mouseDragEnded(null))
-            {
-                pressed = false;
-                pressCount = 0;
-            }
+        if (pressed && continuePress && ++pressCount == 5) {
+            clicked = true;
+            pressCount = 0;
         }
-        if (lastHover != hover || lastPressed != pressed)
-            draw();
         
         if (acceptByEnterKey) {
             boolean eKeyDown = Greenfoot.isKeyDown("enter");
@@ -91,6 +72,29 @@ public class Button extends WindowComponent
         }
     }
     
+    /**
+     * Hover, press and click, from the InputDispatcher.
+     */
+    @Override
+    public void handleEvent(InputEvent event)
+    {
+        super.handleEvent(event);
+        if (!enabled)
+            return;
+        
+        boolean lastHover = hover;
+        boolean lastPressed = pressed;
+        switch (event.getType()) {
+            case InputEvent.ENTER:   hover = true; break;
+            case InputEvent.EXIT:    hover = false; break;
+            case InputEvent.PRESS:   pressed = true; break;
+            case InputEvent.CLICK:   if (pressed) clicked = true; break;
+            case InputEvent.RELEASE: pressed = false; pressCount = 0; break;
+        }
+        if (lastHover != hover || lastPressed != pressed)
+            draw();
+    }
+    
     @Override
     protected void redraw()
     {
@@ -108,7 +112,7 @@ public class Button extends WindowComponent
         g.setFont(font);
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g.setColor(enabled ? textColor : disableColor);
-        g.drawString(text, ((int)size.getX() - g.getFontMetrics().stringWidth(text)) / 2 + (int)size.getX() % 2, ((int)size.getY() + image.getFont().getSize()) / 2 - 1);
+        g.drawString(text, ((int)size.getX() - TextMetricsCache.stringWidth(font, text)) / 2 + (int)size.getX() % 2, ((int)size.getY() + image.getFont().getSize()) / 2 - 1);
         g.dispose();
         
         image.setColor(borderColor);
@@ -148,7 +152,7 @@ public class Button extends WindowComponent
     public void setEnable(boolean e)
     {
         if (enabled != e)
-            hover = false;
+            hover = e && mouseOverThis();
         enabled = e;
         draw();
     }
@@ -0,0 +1,162 @@
+import greenfoot.Actor;
+import greenfoot.GreenfootImage;
+import greenfoot.World;
+
+/**
+ * CanvasActor
+ * <p>
+ * Draws every pixel of a FrameBuffer as a square cell within one image (with a FrameRenderer), so the whole grid is a single Actor.<p>
+ * Only the cells the FrameBuffer's DirtyTracker marks as changed are looked at, and of those only the ones whose color differs from
+ * what is drawn are repainted.<p>
+ * Clicking on a cell sets it to the Palette's color. As a ColorSource, the Palette's Find Color reads cells straight from the FrameBuffer.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class CanvasActor extends Actor implements ColorSource, InputListener
+{
+    private FrameBuffer frameBuffer;
+    private FrameRenderer renderer;
+    private GreenfootImage image;
+    private DirtyTracker tracker;
+    private int[] drawn;
+
+    /**
+     * Create a new CanvasActor.
+     * @param frameBuffer The FrameBuffer to draw.
+     * @param cellSize The width and height in pixels of each cell.
+     * @param gap The space in pixels between neighboring cells.
+     */
+    public CanvasActor(FrameBuffer frameBuffer, int cellSize, int gap)
+    {
+        this.frameBuffer = frameBuffer;
+        tracker = frameBuffer.track();
+        renderer = new FrameRenderer(cellSize, gap);
+        image = new GreenfootImage(renderer.getImageWidth(frameBuffer.getWidth()), renderer.getImageHeight(frameBuffer.getHeight()));
+        drawn = new int[frameBuffer.getWidth() * frameBuffer.getHeight()];
+        setImage(image);
+        repaintAll();
+    }
+
+    /**
+     * Put this CanvasActor in the HitIndex, so it can be clicked on.
+     */
+    @Override
+    public void addedToWorld(World world)
+    {
+        HitIndex.getInstance().add(this);
+    }
+
+    /**
+     * Act.
+     */
+    @Override
+    public void act()
+    {
+        if (tracker.isDirty())
+            repaintChanged();
+    }
+
+    /**
+     * Set the clicked cell to the Palette's color.
+     */
+    @Override
+    public void handleEvent(InputEvent event)
+    {
+        if (event.getType() != InputEvent.CLICK)
+            return;
+        int index = indexAt(event.getX(), event.getY());
+        if (index != -1)
+            frameBuffer.set(index % frameBuffer.getWidth(), index / frameBuffer.getWidth(), ((MyWorld)getWorld()).getPalette().getColor().getRGB());
+    }
+
+    /**
+     * Get the index into the FrameBuffer's pixels of the cell at a World position.
+     * @return The index, or -1 if the position is not on a cell.
+     */
+    private int indexAt(int worldX, int worldY)
+    {
+        if (getWorld() == null)
+            return -1;
+        int x = renderer.cellAt(worldX - (getX() - image.getWidth() / 2));
+        int y = renderer.cellAt(worldY - (getY() - image.getHeight() / 2));
+        if (x == -1 || y == -1 || x >= frameBuffer.getWidth() || y >= frameBuffer.getHeight())
+            return -1;
+        return frameBuffer.indexOf(x, y);
+    }
+
+    @Override
+    public boolean hasColorAt(int x, int y)
+    {
+        return indexAt(x, y) != -1;
+    }
+
+    @Override
+    public int getColorAt(int x, int y)
+    {
+        return frameBuffer.getPixels()[indexAt(x, y)];
+    }
+
+    /**
+     * Repaint the cells whose color has changed since they were last drawn.
+     */
+    public void repaintChanged()
+    {
+        int[] pixels = frameBuffer.getPixels();
+        for (int i = tracker.nextDirty(0); i != -1; i = tracker.nextDirty(i + 1))
+            if (pixels[i] != drawn[i])
+                paintCell(i, pixels[i]);
+        tracker.clear();
+    }
+
+    /**
+     * Repaint every cell.
+     */
+    public void repaintAll()
+    {
+        image.clear();
+        int[] pixels = frameBuffer.getPixels();
+        for (int i = 0; i < pixels.length; i++)
+            paintCell(i, pixels[i]);
+        tracker.clear();
+    }
+
+    private void paintCell(int index, int argb)
+    {
+        renderer.paintCell(image.getAwtImage(), frameBuffer.getWidth(), index, argb);
+        drawn[index] = argb;
+    }
+
+    /**
+     * Switch to drawing a different FrameBuffer of the same size (such as another frame of an Animation).
+     * Only the cells that differ from what is currently drawn are repainted.
+     */
+    public void setFrameBuffer(FrameBuffer frameBuffer)
+    {
+        if (frameBuffer.getWidth() != this.frameBuffer.getWidth() || frameBuffer.getHeight() != this.frameBuffer.getHeight())
+            throw new IllegalArgumentException("CanvasActor cannot change the size of its FrameBuffer");
+        if (frameBuffer == this.frameBuffer)
+            return;
+        // Every cell of a different FrameBuffer may differ, so the new tracker starts with them all marked.
+        tracker.detach();
+        this.frameBuffer = frameBuffer;
+        tracker = frameBuffer.track();
+        repaintChanged();
+    }
+
+    /**
+     * Stop tracking changes to the FrameBuffer. Call this when the CanvasActor is removed for good.
+     */
+    public void release()
+    {
+        tracker.detach();
+    }
+
+    /**
+     * Get the FrameBuffer this CanvasActor draws.
+     */
+    public FrameBuffer getFrameBuffer()
+    {
+        return frameBuffer;
+    }
+}
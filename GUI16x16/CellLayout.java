@@ -0,0 +1,209 @@
+/**
+ * CellLayout
+ * <p>
+ * Measures a grid of cells the way Container lays out its WindowComponents: each column is as wide as its widest cell and each row
+ * as tall as its tallest, with spacing between them. Empty rows and columns take no room and add no spacing.<p>
+ * Sizes are kept until invalidate() is called, and when one cell changes size, resized() measures only its row and column again
+ * and moves only the rows and columns after it. align() then gives every cell the rectangle it goes in.<p>
+ * Does not depend on Greenfoot, so it can be measured and benchmarked without a World.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class CellLayout<C extends CellLayout.Cell>
+{
+    /**
+     * Something that takes up room in a cell.
+     */
+    public interface Cell
+    {
+        int getGUIWidth();
+        int getGUIHeight();
+    }
+
+    /**
+     * Told where each cell goes by align().
+     */
+    public interface Placer<C>
+    {
+        /**
+         * Put a cell's contents in the given rectangle.
+         * @param leftSide The x-coordinate of the left side of the cell.
+         * @param xRange The width in pixels of the cell.
+         * @param topSide The y-coordinate of the top side of the cell.
+         * @param yRange The height in pixels of the cell.
+         */
+        void place(C cell, int leftSide, int xRange, int topSide, int yRange);
+    }
+
+    // Rows of cells, null where a cell is empty. Owned by whoever made this CellLayout, which calls invalidate() after changing it.
+    private final C[][] cells;
+    private final int spacing;
+
+    // Largest width of every column, largest height of every row, and the amount of space before each.
+    private int[] columnWidths;
+    private int[] rowHeights;
+    private int[] columnLeads;
+    private int[] rowLeads;
+    private int width;
+    private int height;
+    // Whether the above are up to date with the cells.
+    private boolean measured;
+
+    /**
+     * Create a new CellLayout.
+     * @param cells The rows of cells, all the same length, with null for an empty cell.
+     * @param spacing Number of pixels between adjacent rows and columns.
+     */
+    public CellLayout(C[][] cells, int spacing)
+    {
+        this.cells = cells;
+        this.spacing = spacing;
+        columnWidths = new int[cells[0].length];
+        rowHeights = new int[cells.length];
+        columnLeads = new int[cells[0].length];
+        rowLeads = new int[cells.length];
+    }
+
+    /**
+     * Measure everything again next time it is needed, such as after a cell is filled.
+     */
+    public void invalidate()
+    {
+        measured = false;
+    }
+
+    public boolean isMeasured()
+    {
+        return measured;
+    }
+
+    /**
+     * Measure every row and column, if not done since invalidate().
+     */
+    public void measure()
+    {
+        if (measured)
+            return;
+        for (int c = 0; c < columnWidths.length; c++)
+            measureColumn(c);
+        for (int r = 0; r < rowHeights.length; r++)
+            measureRow(r);
+        measured = true;
+        measureLeads(0, 0);
+    }
+
+    /**
+     * Called when the cell at the given row and column has changed size. Only its row and column are measured again, and only if
+     * everything has been measured already.
+     * @return Whether the row or column changed size, so the cells after it have moved.
+     */
+    public boolean resized(int r, int c)
+    {
+        if (!measured)
+            return false;
+        boolean columnChanged = measureColumn(c);
+        boolean rowChanged = measureRow(r);
+        if (columnChanged || rowChanged)
+            measureLeads(rowChanged ? r : cells.length, columnChanged ? c : cells[0].length);
+        return columnChanged || rowChanged;
+    }
+
+    /**
+     * Give every cell that isn't empty its rectangle, for a layout centered on the given point.
+     */
+    public void align(int x, int y, Placer<? super C> placer)
+    {
+        measure();
+        int left = x - width / 2;
+        int top = y - height / 2;
+        for (int r = 0; r < cells.length; r++)
+            for (int c = 0; c < cells[0].length; c++)
+                if (cells[r][c] != null)
+                    placer.place(cells[r][c], left + columnLeads[c], columnWidths[c], top + rowLeads[r], rowHeights[r]);
+    }
+
+    /**
+     * Give the cell at the given row and column its rectangle, for a layout centered on the given point.
+     */
+    public void align(int r, int c, int x, int y, Placer<? super C> placer)
+    {
+        measure();
+        placer.place(cells[r][c], x - width / 2 + columnLeads[c], columnWidths[c], y - height / 2 + rowLeads[r], rowHeights[r]);
+    }
+
+    /**
+     * Get the width in pixels of every column and the spacing between them.
+     */
+    public int getWidth()
+    {
+        measure();
+        return width;
+    }
+
+    /**
+     * Get the height in pixels of every row and the spacing between them.
+     */
+    public int getHeight()
+    {
+        measure();
+        return height;
+    }
+
+    /**
+     * Find the largest width of a column's cells.
+     * @return Whether the column's width changed.
+     */
+    private boolean measureColumn(int c)
+    {
+        // Remember largest found width.
+        int w = 0;
+        for (int r = 0; r < cells.length; r++)
+            if (cells[r][c] != null) {
+                int l = cells[r][c].getGUIWidth();
+                if (l > w)
+                    w = l;
+            }
+        boolean changed = w != columnWidths[c];
+        columnWidths[c] = w;
+        return changed;
+    }
+
+    /**
+     * Find the largest height of a row's cells.
+     * @return Whether the row's height changed.
+     */
+    private boolean measureRow(int r)
+    {
+        // Remember largest found height.
+        int h = 0;
+        for (int c = 0; c < cells[0].length; c++)
+            if (cells[r][c] != null) {
+                int l = cells[r][c].getGUIHeight();
+                if (l > h)
+                    h = l;
+            }
+        boolean changed = h != rowHeights[r];
+        rowHeights[r] = h;
+        return changed;
+    }
+
+    /**
+     * Recompute the amount of space before each row after the given one and each column after the given one, and the layout's size.
+     */
+    private void measureLeads(int fromRow, int fromColumn)
+    {
+        // Amount of space before a row is the sum of all rows and spacing before it. Empty rows add no spacing.
+        for (int r = Math.max(fromRow + 1, 1); r < rowLeads.length; r++)
+            rowLeads[r] = rowLeads[r - 1] + (rowHeights[r - 1] != 0 ? spacing + rowHeights[r - 1] : 0);
+        // Same for columns.
+        for (int c = Math.max(fromColumn + 1, 1); c < columnLeads.length; c++)
+            columnLeads[c] = columnLeads[c - 1] + (columnWidths[c - 1] != 0 ? spacing + columnWidths[c - 1] : 0);
+
+        // Size is what would lead a row or column after the last, less the spacing before it.
+        int last = rowLeads.length - 1;
+        height = Math.max(0, rowLeads[last] + (rowHeights[last] != 0 ? spacing + rowHeights[last] : 0) - spacing);
+        last = columnLeads.length - 1;
+        width = Math.max(0, columnLeads[last] + (columnWidths[last] != 0 ? spacing + columnWidths[last] : 0) - spacing);
+    }
+}
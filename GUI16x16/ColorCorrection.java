@@ -0,0 +1,79 @@
+/**
+ * ColorCorrection
+ * <p>
+ * Gamma and brightness correction for colors sent to LEDs, which look far brighter at low values than a screen does.<p>
+ * Each of red, green and blue becomes 255 * brightness * (value / 255) ^ gamma, rounded. A gamma above 1 darkens the dim colors
+ * (2.2 to 2.8 suits most LED strips), and a brightness below 1 dims everything. Alpha is left as it is.<p>
+ * The 256 possible results are worked out once, so correcting a pixel is three table lookups. A ColorCorrection never changes,
+ * so one can be shared between threads.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class ColorCorrection
+{
+    /**
+     * Leaves every color as it is.
+     */
+    public static final ColorCorrection NONE = new ColorCorrection(1, 1);
+
+    private final double gamma;
+    private final double brightness;
+    private final int[] table = new int[256];
+
+    /**
+     * Create a new ColorCorrection.
+     * @param gamma The power to raise each of red, green and blue to (as a fraction of 255). Must be more than 0.
+     * @param brightness What to scale each of red, green and blue by afterwards, from 0 to 1.
+     */
+    public ColorCorrection(double gamma, double brightness)
+    {
+        if (!(gamma > 0) || !(brightness >= 0 && brightness <= 1))
+            throw new IllegalArgumentException("Gamma must be more than 0 and brightness from 0 to 1, were " + gamma + " and " + brightness);
+        this.gamma = gamma;
+        this.brightness = brightness;
+        for (int v = 0; v < 256; v++)
+            table[v] = (int)Math.round(255 * brightness * Math.pow(v / 255.0, gamma));
+    }
+
+    public double getGamma()
+    {
+        return gamma;
+    }
+    public double getBrightness()
+    {
+        return brightness;
+    }
+
+    /**
+     * Check if this ColorCorrection leaves every color as it is.
+     */
+    public boolean isIdentity()
+    {
+        for (int v = 0; v < 256; v++)
+            if (table[v] != v)
+                return false;
+        return true;
+    }
+
+    /**
+     * Correct one packed ARGB color.
+     */
+    public int apply(int argb)
+    {
+        return argb & 0xFF000000 | table[argb >>> 16 & 0xFF] << 16 | table[argb >>> 8 & 0xFF] << 8 | table[argb & 0xFF];
+    }
+
+    /**
+     * Correct every pixel of a FrameBuffer in place.
+     */
+    public void apply(FrameBuffer frameBuffer)
+    {
+        if (isIdentity())
+            return;
+        int[] pixels = frameBuffer.getPixels();
+        for (int i = 0; i < pixels.length; i++)
+            pixels[i] = apply(pixels[i]);
+        frameBuffer.markChanged();
+    }
+}
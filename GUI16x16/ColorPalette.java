@@ -0,0 +1,97 @@
+/**
+ * ColorPalette
+ * <p>
+ * The memory slots of the Palette: a fixed number of packed ARGB colors, one of which is selected (the one the Palette's sliders edit
+ * and the grid is drawn with).<p>
+ * Does not depend on Greenfoot, so tools can use the same colors without a World. The Palette is a Window over one of these.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class ColorPalette
+{
+    /**
+     * How many colors a ColorPalette holds.
+     */
+    public static final int SLOTS = 24;
+
+    // The colors the slots start with. The rest start white.
+    private static final int[] DEFAULTS = {
+        0xFFFFFFFF, 0xFF0000FF, 0xFF996633, 0xFF00FFFF, 0xFF00FF00, 0xFFFF00FF,
+        0xFFFFC800, 0xFF7F007F, 0xFFFF0000, 0xFFFFFF00, 0xFF000000
+    };
+
+    private final int[] colors = new int[SLOTS];
+    private int selected;
+
+    /**
+     * Create a new ColorPalette with the default colors stored, and the first slot selected.
+     */
+    public ColorPalette()
+    {
+        for (int i = 0; i < SLOTS; i++)
+            colors[i] = i < DEFAULTS.length ? DEFAULTS[i] : 0xFFFFFFFF;
+    }
+
+    public int getColor(int slot)
+    {
+        return colors[slot];
+    }
+    public void setColor(int slot, int argb)
+    {
+        colors[slot] = argb;
+    }
+    public int getSelected()
+    {
+        return selected;
+    }
+
+    /**
+     * Select the given slot.
+     */
+    public void select(int slot)
+    {
+        if (slot < 0 || slot >= SLOTS)
+            throw new IndexOutOfBoundsException("slot " + slot);
+        selected = slot;
+    }
+
+    /**
+     * Get the color in the selected slot.
+     */
+    public int getSelectedColor()
+    {
+        return colors[selected];
+    }
+
+    /**
+     * Set the color in the selected slot.
+     */
+    public void setSelectedColor(int argb)
+    {
+        colors[selected] = argb;
+    }
+
+    /**
+     * Get the slot whose color is closest to the given one (by the sum of the squared differences of red, green and blue).
+     * The first such slot if more than one is as close.
+     */
+    public int nearestSlot(int argb)
+    {
+        int best = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < SLOTS; i++)
+        {
+            int dr = FrameBuffer.red(colors[i]) - FrameBuffer.red(argb);
+            int dg = FrameBuffer.green(colors[i]) - FrameBuffer.green(argb);
+            int db = FrameBuffer.blue(colors[i]) - FrameBuffer.blue(argb);
+            int distance = dr * dr + dg * dg + db * db;
+            if (distance < bestDistance)
+            {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * ColorSource
+ * <p>
+ * Something on the screen that knows the exact colors it shows, so the Palette's Find Color can read them straight from it instead of
+ * from a snapshot of the World.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public interface ColorSource
+{
+    /**
+     * Check if the World position (x, y) shows one of this source's colors.
+     */
+    boolean hasColorAt(int x, int y);
+
+    /**
+     * Get the packed ARGB color shown at the World position (x, y). Only called when hasColorAt(x, y) is true.
+     */
+    int getColorAt(int x, int y);
+}
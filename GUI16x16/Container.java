@@ -6,7 +6,7 @@ import java.awt.Point;
  * Container
  * <p>
  * Container stores and aligns WindowComponents within "cells" of a grid/table structure.<p>
- * Keeps its WindowComponents in position relative to it within grid/table structure.
+ * Keeps its WindowComponents in position relative to it within grid/table structure. The measuring is done by a CellLayout.
  * 
  * @author Taylor Born
  * @version March 2013 - March 2014
@@ -17,6 +17,13 @@ public class Container extends WindowComponent
     protected WindowComponent[][] components;
     // Number of pixels to pad between row
     protected int spacing;
+    
+    // Sizes and offsets of the rows and columns of components.
+    private CellLayout<WindowComponent> layout;
+    // Whether a WindowComponent has changed size such that all of them need aligning.
+    private boolean needsAlign;
+    // Whether a WindowComponent has been hidden, shown or removed from World.
+    private boolean shownOrHidden = true;
 
     /**
      * New Container with specific capacity and spacing.
@@ -27,6 +34,7 @@ public class Container extends WindowComponent
     {
         components = new WindowComponent[(int)size.getY()][(int)size.getX()];
         this.spacing = spacing;
+        layout = new CellLayout<WindowComponent>(components, spacing);
         setImage(new GreenfootImage(1, 1));
     }
     
@@ -65,7 +73,7 @@ public class Container extends WindowComponent
             for (int c = 0; c < components[0].length; c++)
                 if (components[r][c] == null)
                 {
-                    components[r][c] = wc;
+                    insert(wc, r, c);
                     return;
                 }
     }
@@ -81,46 +89,56 @@ public class Container extends WindowComponent
     {
         if (loc.getY() < 0 || loc.getY() > components.length - 1 || loc.getX() < 0 || loc.getX() > components[0].length - 1)
             return;
-        components[(int)loc.getY()][(int)loc.getX()] = wc;
+        insert(wc, (int)loc.getY(), (int)loc.getX());
+    }
+    
+    private void insert(WindowComponent wc, int r, int c)
+    {
+        if (components[r][c] != null && components[r][c].getContainer() == this)
+            components[r][c].setContainerCell(null, 0, 0);
+        components[r][c] = wc;
+        wc.setContainerCell(this, r, c);
+        layout.invalidate();
+        needsAlign = true;
+        shownOrHidden = true;
+        // This Container's own GUI size may have changed, for the Container holding it.
+        checkGUISize();
     }
     
     /**
      * Act.
-     * Listens for when contained WindowComponents need to be added-to / removed-from World based on their status on being hidden.<p>
-     * Calls to align its WindowComponents in the World when adding one to the World.
+     * Adds-to / removes-from World contained WindowComponents whose status on being hidden has changed.<p>
+     * Aligns its WindowComponents in the World when one was added or a row or column changed size. Does nothing otherwise.
      */
     @Override
     public void act()
     {
         super.act();
         
-        // Remember if added WindowComponent to World.
-        boolean added = false;
-        
-        boolean guiSizeChanged = false;
-        
-        // Iterate over all WindowComponents of this Container.
-        for (int r = 0; r < components.length; r++)
-            for (int c = 0; c < components[0].length; c++)
-                if (components[r][c] != null) {
-                    // If WindowComponent is set to be hidden and yet is in the World, remove it from World.
-                    if (components[r][c].isHidden()) {
-                        if (components[r][c].inWorld())
-                            components[r][c].removeFromWorld();
-                    }
-                    // If WindowComponent is not set to be hidden and yet is not in the World, add it to World.
-                    else if (!components[r][c].inWorld()) {
-                        getWorld().addObject(components[r][c], 0, 0);
-                        // We added a WindowComponent to World.
-                        added = true;
+        if (shownOrHidden) {
+            shownOrHidden = false;
+            
+            // Iterate over all WindowComponents of this Container.
+            for (int r = 0; r < components.length; r++)
+                for (int c = 0; c < components[0].length; c++)
+                    if (components[r][c] != null) {
+                        // If WindowComponent is set to be hidden and yet is in the World, remove it from World.
+                        if (components[r][c].isHidden()) {
+                            if (components[r][c].inWorld())
+                                components[r][c].removeFromWorld();
+                        }
+                        // If WindowComponent is not set to be hidden and yet is not in the World, add it to World.
+                        else if (!components[r][c].inWorld()) {
+                            getWorld().addObject(components[r][c], 0, 0);
+                            // We added a WindowComponent to World, so it needs aligning.
+                            needsAlign = true;
+                        }
                     }
-                    
-                    if (components[r][c].hasChangedGUISize())
-                        guiSizeChanged = true;
-                }
+            // Removing WindowComponents above told this Container about it again.
+            shownOrHidden = false;
+        }
         
-        // If added WindowComponent to World, align it in grid/table structure.
-        if (added || guiSizeChanged)
+        if (needsAlign)
             alignComponents(false);
     }
 
@@ -132,168 +150,88 @@ public class Container extends WindowComponent
     @Override
     public void setLocation(int x, int y)
     {
+        if (inWorld() && x == getX() && y == getY() && !needsAlign)
+            return;
         super.setLocation(x, y);
         alignComponents(false);
     }
     
+    /**
+     * Called by a contained WindowComponent when it has been set to be hidden or shown, or removed from the World.
+     */
+    void componentShownOrHidden()
+    {
+        shownOrHidden = true;
+    }
+    
+    /**
+     * Called by a contained WindowComponent when its GUI width or height has changed.<p>
+     * Only its row and column are measured again. If neither changed size, only that WindowComponent is moved within its cell;
+     * otherwise the offsets of the rows and columns after it are recomputed and every WindowComponent is aligned next act.
+     */
+    void componentResized(WindowComponent wc)
+    {
+        if (!layout.isMeasured())
+            return;
+        if (layout.resized(wc.getContainerRow(), wc.getContainerColumn())) {
+            needsAlign = true;
+            // This Container's own GUI size may have changed, for the Container holding it.
+            checkGUISize();
+        }
+        else if (inWorld() && wc.inWorld())
+            layout.align(wc.getContainerRow(), wc.getContainerColumn(), getX(), getY(), mover);
+    }
+    
     /**
      * Set locations in World, or add into World, - this Container's WindowComponents to locations relative to this Container's location and the grid/table structure.
      * @param addToWorld Whether or not the WindowComponents are to added to World.
      */
     private void alignComponents(boolean addToWorld)
     {
-        // Store largest width of every column.
-        int[] columnWidths = new int[components[0].length];
-        // Store largest height of every row.
-        int[] rowHeights = new int[components.length];
-        
-        // Store amount of space before each row. (sum of all rows and spacing before a particular row).
-        int[] rowLeads = new int[components.length];
-        
-        for (int r = 0; r < components.length; r++) {
-            
-            for (int c = 0; c < components[0].length; c++)
-                if (components[r][c] != null) {
-                    
-                    if (components[r][c].hasChangedGUISize()) // Burn listener
-                    {}
-                    
-                    // Width.
-                    int l = components[r][c].getGUIWidth();
-                    // If found bigger width.
-                    if (l > columnWidths[c])
-                        columnWidths[c] = l;
-                    // Height.
-                    l = components[r][c].getGUIHeight();
-                    // If found bigger height.
-                    if (l > rowHeights[r])
-                        rowHeights[r] = l;
-                }
-            
-            // If not first row, store amount of space before this row.
-            if (r != 0) {
-                
-                // Spacing before previous row.
-                rowLeads[r] = rowLeads[r - 1];
-                // Height of previous row.
-                int rh = rowHeights[r - 1];
-                // If previous row was not empty, add its height and spacing to its leading spacing for this current row's leading spacing.
-                if (rh != 0)
-                    rowLeads[r] += spacing + rh;
-            }
+        needsAlign = false;
+        layout.align(getX(), getY(), addToWorld ? adder : mover);
+    }
+    
+    // Tells a WindowComponent in World to set its location given leftside and width of cell it is asigned to.
+    private final CellLayout.Placer<WindowComponent> mover = new CellLayout.Placer<WindowComponent>() {
+        public void place(WindowComponent wc, int leftSide, int xRange, int topSide, int yRange)
+        {
+            if (wc.inWorld())
+                wc.setLocationInContainerCell(leftSide, xRange, topSide, yRange);
         }
-        
-        // Store amount of space before each column. (sum of all columns and spacing before a particular column).
-        int[] columnLeads = new int[components[0].length];
-        for (int c = 1; c < columnWidths.length; c++)
+    };
+    
+    // Tells a WindowComponent not set to hide to add itself to World given World and leftside and width of cell it is asigned to.
+    private final CellLayout.Placer<WindowComponent> adder = new CellLayout.Placer<WindowComponent>() {
+        public void place(WindowComponent wc, int leftSide, int xRange, int topSide, int yRange)
         {
-            // Spacing before previous column.
-            columnLeads[c] = columnLeads[c - 1];
-            // Width of previous column.
-            int cw = columnWidths[c - 1];
-            // If previous column was not empty, add its width and spacing to its leading spacing for this current column's leading spacing.
-            if (cw != 0)
-                columnLeads[c] += spacing + cw;
+            if (!wc.isHidden())
+                wc.addToWorldInContainerCell(getWorld(), leftSide, xRange, topSide, yRange);
         }
-        
-        // Size of this Container.
-        int w = getGUIWidth();
-        int h = getGUIHeight();
-        
-        // Iterate over WindowComponents and set their location or add them to World at appropriate locations.
-        for (int r = 0; r < components.length; r++)
-            for (int c = 0; c < components[0].length; c++)
-                if (components[r][c] != null)
-                    // Adding to World.
-                    if (addToWorld) {
-                        // If the WindowComponent is not set to hide.
-                        if (!components[r][c].isHidden())
-                            // Tell WindowComponent to add itself to World given World and leftside and width of cell it is asigned to.
-                            components[r][c].addToWorldInContainerCell(getWorld(), getX() - w / 2 + columnLeads[c], columnWidths[c], getY() - h / 2 + rowLeads[r], rowHeights[r]);
-                    }
-                    // Setting location. If in World.
-                    else if (components[r][c].inWorld())
-                        // Tell WindowComponent to set its location given leftside and width of cell it is asigned to.
-                        components[r][c].setLocationInContainerCell(getX() - w / 2 + columnLeads[c], columnWidths[c], getY() - h / 2 + rowLeads[r], rowHeights[r]);
-    }
+    };
     
     /**
      * Get the width in pixels, this Container occupies.<p>
-     * Calculated by summing each largest-width-WindowComponent's width of every column, and the spacing between each column.
+     * The sum of each largest-width-WindowComponent's width of every column, and the spacing between each column. Kept up to date as
+     * WindowComponents change size.
      * @return Width in pixels, this Container occupies.
      */
     @Override
     public int getGUIWidth()
     {
-        // Resulting sum.
-        int totalW = 0;
-        
-        // Visit each column.
-        for (int c = 0; c < components[0].length; c++) {
-            
-            // Remember largest found width.
-            int w = 0;
-            
-            // Visit each row.
-            for (int r = 0; r < components.length; r++)
-                if (components[r][c] != null) {
-                    // Get WindowComponent's width and record it if is largest found so far.
-                    int l = components[r][c].getGUIWidth();
-                    if (l > w)
-                        w = l;
-                }
-            
-            // If column not empty.
-            if (w != 0)
-                // If previous columns are empty, sum is just this column's width.
-                if (totalW == 0)
-                    totalW = w;
-                else
-                    // There is column before this one, add spacing and this column's width.
-                    totalW += spacing + w;
-        }
-        
-        return totalW;// < minWidth ? minWidth : totalW;
+        return layout.getWidth();
     }
     
     /**
      * Get the height in pixels, this Container occupies.<p>
-     * Calculated by summing each largest-height-WindowComponent's height of every row, and the spacing between each row.
+     * The sum of each largest-height-WindowComponent's height of every row, and the spacing between each row. Kept up to date as
+     * WindowComponents change size.
      * @return Height in pixels, this Container occupies.
      */
     @Override
     public int getGUIHeight()
     {
-        // Resulting sum.
-        int totalH = 0;
-        
-        // Visit each row.
-        for (int r = 0; r < components.length; r++)
-        {
-            // Remember largest found height.
-            int h = 0;
-            
-            // Visit each column.
-            for (int c = 0; c < components[0].length; c++)
-                if (components[r][c] != null)
-                {
-                    // Get WindowComponent's height and record it if is largest found so far.
-                    int l = components[r][c].getGUIHeight();
-                    if (l > h)
-                        h = l;
-                }
-            
-            // If row not empty.
-            if (h != 0)
-                // If previous rows are empty, sum is just this row's width.
-                if (totalH == 0)
-                    totalH = h;
-                else
-                    // There is row before this one, add spacing and this row's height.
-                    totalH += spacing + h;
-        }
-        
-        return totalH;// < minHeight ? minHeight : totalH;
+        return layout.getHeight();
     }
     
     /**
@@ -344,6 +282,9 @@ public class Container extends WindowComponent
     @Override
     public boolean mousePressedOnThisOrComponents()
     {
+        // Nothing was pressed this act cycle, so no need to look through every cell.
+        if (InputDispatcher.getInstance().getPressed() == null)
+            return false;
         for (int r = 0; r < components.length; r++)
             for (int c = 0; c < components[0].length; c++)
                 if (components[r][c] != null && components[r][c].mousePressedOnThisOrComponents())
@@ -0,0 +1,103 @@
+import java.util.BitSet;
+
+/**
+ * DirtyTracker
+ * <p>
+ * Records which pixels of a FrameBuffer have changed, so something that mirrors the FrameBuffer (the screen, the serial stream, the
+ * autosave file) only has to update those pixels.<p>
+ * Get one with FrameBuffer.track(). Every consumer gets its own DirtyTracker: walk the dirty pixels with nextDirty(), bring the copy up
+ * to date, then clear(). A new DirtyTracker starts with every pixel dirty. Call detach() when it is no longer needed, or the
+ * FrameBuffer keeps on updating it.<p>
+ * Pixels are numbered the same way as FrameBuffer.getPixels().
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class DirtyTracker
+{
+    private final FrameBuffer frameBuffer;
+    private final BitSet dirty;
+
+    DirtyTracker(FrameBuffer frameBuffer)
+    {
+        this.frameBuffer = frameBuffer;
+        dirty = new BitSet(frameBuffer.getWidth() * frameBuffer.getHeight());
+        markAll();
+    }
+
+    /**
+     * Get the FrameBuffer whose changes are being recorded.
+     */
+    public FrameBuffer getFrameBuffer()
+    {
+        return frameBuffer;
+    }
+
+    /**
+     * Check if any pixel has changed since the last clear().
+     */
+    public boolean isDirty()
+    {
+        return !dirty.isEmpty();
+    }
+
+    /**
+     * Get the number of pixels that have changed since the last clear().
+     */
+    public int getDirtyCount()
+    {
+        return dirty.cardinality();
+    }
+
+    /**
+     * Get the index of the first changed pixel at or after the given index.
+     * @return The index, or -1 if there are none.
+     */
+    public int nextDirty(int from)
+    {
+        return dirty.nextSetBit(from);
+    }
+
+    /**
+     * Get the index of the first unchanged pixel at or after the given index, for finding the end of a run of changed pixels.
+     * @return The index, which is the pixel count if every pixel from there on has changed.
+     */
+    public int nextClean(int from)
+    {
+        return Math.min(dirty.nextClearBit(from), frameBuffer.getWidth() * frameBuffer.getHeight());
+    }
+
+    /**
+     * Forget every change, once the copy is up to date.
+     */
+    public void clear()
+    {
+        dirty.clear();
+    }
+
+    /**
+     * Record every pixel as changed, such as when the copy has to be rebuilt from scratch.
+     */
+    public void markAll()
+    {
+        dirty.set(0, frameBuffer.getWidth() * frameBuffer.getHeight());
+    }
+
+    /**
+     * Stop recording changes.
+     */
+    public void detach()
+    {
+        frameBuffer.untrack(this);
+    }
+
+    void mark(int index)
+    {
+        dirty.set(index);
+    }
+
+    void mark(int from, int to)
+    {
+        dirty.set(from, to);
+    }
+}
@@ -1,15 +1,15 @@
 import greenfoot.*;  // (World, Actor, GreenfootImage, Greenfoot and MouseInfo)
 import java.awt.Point;
-import java.io.*;
 import java.io.IOException;
+import java.nio.file.Path;
 
 /**
- * When this button is clicked, the rgb data of the pixels will be exported to a .txt file
+ * When this button is clicked, the rgb data of the pixels will be exported to a .txt file (or a binary .bin/.565 file)
  * 
  * @author Karaleemota
  * @version (a version number or a date)
  */
-public class ExportBtn extends Button
+public class ExportBtn extends FileTaskBtn
 {
     /**
      * Act - do whatever the ExportBtn wants to do. This method is called whenever
@@ -17,7 +17,7 @@ public class ExportBtn extends Button
      */
     public void act() 
     {
-        super.act();//call the Button class act
+        super.act();//call the FileTaskBtn class act
         export(((MyWorld)getWorld()).getOutputFile());//export the pixel to the filename given in the text box
     }
     public ExportBtn(String text, Point size)
@@ -29,31 +29,43 @@ public class ExportBtn extends Button
      */
     public void export(String filename)
     {
-        if(wasClicked())//the button was clicked
+        if(wasClicked() && !isBusy())//the button was clicked, and the last export is done
         {
-            //export to the txt file
-            try 
+            //export to the file in the background. ".anim" files get every frame of the animation, ".bin" and ".565" files are written in the binary format, anything else as text
+            //the frames are copied now, so drawing on the grid while the file is written doesn't change what is written
+            MyWorld world = (MyWorld)getWorld();
+            final Path path = MyWorld.scenarioFile(filename);
+            final LedLayout layout = world.getLedLayout();//the order the leds are wired in
+            final int binaryFormat = BinaryFrameCodec.formatForFile(filename);
+            if(filename.toLowerCase().endsWith(".anim"))
             {
-                FileWriter writer = new FileWriter(filename, false);
-                Pixel[][] tempPixels = ((MyWorld)getWorld()).getPixels();//get the array of pixels from the world class
-                //iterate through all the pixels to read their info
-                for(int i = 0; i < 16; i++)
-                {
-                    for(int j = 0; j < 16; j++)
+                final Animation animation = world.getAnimation().copy();
+                start(new FileTask<Void>() {
+                    protected Void call() throws IOException
                     {
-                        //get the string data to be written to txt.
-                        Pixel tempPixel = tempPixels[i][j];//the current pixel we are currently on in the iteration
-                        writer.write(tempPixel.getStringValue());
-                        if(!(i == 15 && j == 15))
+                        AnimationWriter.writeFile(animation, path, this);
+                        return null;
+                    }
+                });
+            }
+            else
+            {
+                final FrameBuffer frameBuffer = world.getFrameBuffer().copy();//get the pixel colors from the world class
+                start(new FileTask<Void>() {
+                    protected Void call() throws IOException
+                    {
+                        if(binaryFormat != -1)
                         {
-                            writer.write("\n");
+                            BinaryFrameCodec.writeFile(frameBuffer, binaryFormat, layout, path);
                         }
+                        else
+                        {
+                            //write the grid size and layout, then every pixel's "r g b" line in led order
+                            TextFrameCodec.writeFile(frameBuffer, layout, path);
+                        }
+                        return null;
                     }
-                }
-                writer.close();
-            } catch (IOException e) 
-            {
-               e.printStackTrace();
+                });
             }
         }
     }
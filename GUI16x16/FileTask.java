@@ -0,0 +1,97 @@
+import java.io.IOException;
+
+/**
+ * FileTask
+ * <p>
+ * Reading or writing a file on a FileTaskRunner's background thread, so the act thread never waits on the disk.<p>
+ * call() runs on the background thread and must only use data nobody else changes while it runs, such as a copy of the frame
+ * taken when the task was made. succeeded() or failed() is then called on the act thread, from FileTaskRunner.deliverFinished(),
+ * so they can safely change the World.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public abstract class FileTask<T> implements ProgressListener
+{
+    private volatile int done;
+    private volatile int total = 1;
+    private volatile boolean finished;
+    private T result;
+    private IOException error;
+
+    /**
+     * Do the reading or writing. Runs on the background thread. Call progress() along the way for long jobs.
+     * @return The result to hand to succeeded().
+     */
+    protected abstract T call() throws IOException;
+
+    /**
+     * Called on the act thread when call() has returned.
+     */
+    protected void succeeded(T result)
+    {}
+
+    /**
+     * Called on the act thread when call() has thrown. Prints the error by default.
+     */
+    protected void failed(IOException error)
+    {
+        error.printStackTrace();
+    }
+
+    @Override
+    public void progress(int done, int total)
+    {
+        this.total = Math.max(total, 1);
+        this.done = done;
+    }
+
+    /**
+     * Get how far along the task is, from 0 to 1.
+     */
+    public double getProgress()
+    {
+        return finished ? 1 : Math.min((double)done / total, 1);
+    }
+
+    /**
+     * Check if failed() has been called.
+     */
+    public boolean hasFailed()
+    {
+        return finished && error != null;
+    }
+
+    /**
+     * Check if succeeded() or failed() has been called.
+     */
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    void runInBackground()
+    {
+        try {
+            result = call();
+        } catch (IOException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            // Such as a layout that does not fit the frame: report it the same way as a file error.
+            error = new IOException(e.getMessage(), e);
+        } catch (Throwable e) {
+            // Such as running out of memory on a huge file. The task must still finish, or its button stays busy forever.
+            result = null;
+            error = new IOException(e.toString(), e);
+        }
+    }
+
+    void deliver()
+    {
+        finished = true;
+        if (error != null)
+            failed(error);
+        else
+            succeeded(result);
+    }
+}
@@ -0,0 +1,59 @@
+import greenfoot.*;  // (World, Actor, GreenfootImage, Greenfoot and MouseInfo)
+import java.awt.Point;
+
+/**
+ * A button that reads or writes a file in the background when clicked, so the grid keeps working while the file is read or written.
+ * While the file task is running the button shows how far along it is, and if it fails the button says so until it is clicked again.
+ * 
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class FileTaskBtn extends Button
+{
+    private String idleText;//the text to show when no file task is running
+    private FileTask<?> task;//the file task this button started, null when none is running
+    /**
+     * Act - do whatever the FileTaskBtn wants to do. This method is called whenever
+     * the 'Act' or 'Run' button gets pressed in the environment.
+     */
+    public void act() 
+    {
+        super.act();//call the Button class act
+        if(task != null)
+        {
+            String text = task.isFinished() ? idleText : idleText + " " + (int)(task.getProgress() * 100) + "%";
+            if(task.hasFailed())
+            {
+                text = idleText + " failed";//such as a file that can't be read, or a clip too long to import
+            }
+            if(!text.equals(getText()))//only redraw the button when the text changes
+            {
+                setText(text);
+            }
+            if(task.isFinished())
+            {
+                task = null;
+            }
+        }
+    }
+    public FileTaskBtn(String text, Point size)
+    {
+        super(text,size);
+        idleText = text;
+    }
+    /**
+     * Start running the given file task in the background. Its succeeded() or failed() is called during a later act
+     */
+    protected void start(FileTask<?> fileTask)
+    {
+        task = fileTask;
+        ((MyWorld)getWorld()).getFileTasks().submit(fileTask);
+    }
+    /**
+     * Check if a file task started by this button is still running
+     */
+    public boolean isBusy()
+    {
+        return task != null;
+    }
+}
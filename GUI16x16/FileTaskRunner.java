@@ -0,0 +1,64 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * FileTaskRunner
+ * <p>
+ * Runs FileTasks one at a time, in the order they are submitted, on a background thread. Running them in order means exporting a file
+ * and then importing it gives back what was exported.<p>
+ * Call deliverFinished() from act() to have the finished tasks' succeeded() or failed() called on the act thread, and shutdown() once
+ * the World is done with it, so its thread goes away.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class FileTaskRunner
+{
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, "FileTaskRunner");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private final ConcurrentLinkedQueue<FileTask<?>> finished = new ConcurrentLinkedQueue<FileTask<?>>();
+
+    /**
+     * Start running a task once the tasks before it are done.
+     */
+    public void submit(final FileTask<?> task)
+    {
+        executor.execute(new Runnable() {
+            public void run()
+            {
+                try {
+                    task.runInBackground();
+                } finally {
+                    finished.add(task);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stop the background thread once the tasks already submitted are done, so a file being written is still finished. Their
+     * succeeded() or failed() is not called unless deliverFinished() is. No more tasks can be submitted.
+     */
+    public void shutdown()
+    {
+        executor.shutdown();
+    }
+
+    /**
+     * Call succeeded() or failed() on every task that has finished since the last call. Call this from the act thread.
+     */
+    public void deliverFinished()
+    {
+        FileTask<?> task;
+        while ((task = finished.poll()) != null)
+            task.deliver();
+    }
+}
@@ -0,0 +1,275 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * FrameBuffer
+ * <p>
+ * The image being edited, held as one packed ARGB int per pixel (0xAARRGGBB) in a single array.<p>
+ * Pixels are stored row by row, so the pixel at (x, y) lives at index y * width + x.<p>
+ * Changes are recorded in every DirtyTracker made with track(), so whatever mirrors this FrameBuffer only has to update the pixels
+ * that changed. Setting a pixel to the color it already has is not a change.<p>
+ * This class does not depend on Greenfoot, so it can be used by the exporters and importers (or any other tool) without a World.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class FrameBuffer
+{
+    public static final int BLACK = 0xFF000000;
+    /**
+     * The largest number of pixels across or down the grid. Files that say they hold larger frames are refused.
+     */
+    public static final int MAX_GRID_SIZE = 256;
+
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+    private int modCount;
+    private final ArrayList<DirtyTracker> trackers = new ArrayList<DirtyTracker>();
+
+    /**
+     * Create a new FrameBuffer with every pixel set to opaque black.
+     * @param width The number of pixels across.
+     * @param height The number of pixels down.
+     */
+    public FrameBuffer(int width, int height)
+    {
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException("FrameBuffer must be at least 1x1, was " + width + "x" + height);
+        this.width = width;
+        this.height = height;
+        pixels = new int[width * height];
+        fill(BLACK);
+    }
+
+    /**
+     * Create a new FrameBuffer that is a copy of another.
+     * @param other The FrameBuffer to copy.
+     */
+    public FrameBuffer(FrameBuffer other)
+    {
+        width = other.width;
+        height = other.height;
+        pixels = other.pixels.clone();
+    }
+
+    /**
+     * Pack the given color channels into a single ARGB int.
+     */
+    public static int pack(int r, int g, int b, int a)
+    {
+        return (a & 0xFF) << 24 | (r & 0xFF) << 16 | (g & 0xFF) << 8 | (b & 0xFF);
+    }
+    public static int red(int argb)
+    {
+        return argb >>> 16 & 0xFF;
+    }
+    public static int green(int argb)
+    {
+        return argb >>> 8 & 0xFF;
+    }
+    public static int blue(int argb)
+    {
+        return argb & 0xFF;
+    }
+    public static int alpha(int argb)
+    {
+        return argb >>> 24;
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+    public int getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Get the index into getPixels() of the pixel at (x, y).
+     */
+    public int indexOf(int x, int y)
+    {
+        return y * width + x;
+    }
+
+    /**
+     * Get the backing array of this FrameBuffer for bulk reads. Pixels are stored row by row.<p>
+     * Writing into the array directly is allowed, but call markChanged() afterwards so anything drawing this FrameBuffer notices.
+     * Calling markChanged(from, to) for just the pixels written saves whatever mirrors this FrameBuffer from updating every pixel.
+     * @return The backing array of packed ARGB pixels.
+     */
+    public int[] getPixels()
+    {
+        return pixels;
+    }
+
+    /**
+     * Get a count that goes up every time pixels of this FrameBuffer are changed.<p>
+     * Compare against a previously seen value to cheaply tell whether anything needs to be redrawn.
+     */
+    public int getModCount()
+    {
+        return modCount;
+    }
+
+    /**
+     * Record that pixels have been changed by writing into getPixels() directly.
+     */
+    public void markChanged()
+    {
+        markChanged(0, pixels.length);
+    }
+
+    /**
+     * Record that the pixels from index from (inclusive) to index to (exclusive) of getPixels() have been changed by writing into
+     * the array directly.
+     */
+    public void markChanged(int from, int to)
+    {
+        for (int t = 0; t < trackers.size(); t++)
+            trackers.get(t).mark(from, to);
+        modCount++;
+    }
+
+    /**
+     * Start recording which pixels change. See DirtyTracker.
+     * @return A new DirtyTracker, with every pixel marked as changed.
+     */
+    public DirtyTracker track()
+    {
+        DirtyTracker tracker = new DirtyTracker(this);
+        trackers.add(tracker);
+        return tracker;
+    }
+
+    void untrack(DirtyTracker tracker)
+    {
+        trackers.remove(tracker);
+    }
+
+    /**
+     * Get the packed ARGB color of the pixel at (x, y).
+     */
+    public int get(int x, int y)
+    {
+        return pixels[y * width + x];
+    }
+
+    /**
+     * Set the packed ARGB color of the pixel at (x, y).
+     */
+    public void set(int x, int y, int argb)
+    {
+        int index = y * width + x;
+        if (pixels[index] == argb)
+            return;
+        pixels[index] = argb;
+        for (int t = 0; t < trackers.size(); t++)
+            trackers.get(t).mark(index);
+        modCount++;
+    }
+
+    /**
+     * Set the color of the pixel at (x, y) from its rgba values.
+     */
+    public void set(int x, int y, int r, int g, int b, int a)
+    {
+        set(x, y, pack(r, g, b, a));
+    }
+
+    /**
+     * Set every pixel to the given packed ARGB color.
+     */
+    public void fill(int argb)
+    {
+        Arrays.fill(pixels, argb);
+        markChanged();
+    }
+
+    /**
+     * Set every pixel within the given rectangle to the given packed ARGB color. The rectangle is clipped to this FrameBuffer.
+     */
+    public void fillRect(int x, int y, int w, int h, int argb)
+    {
+        int x0 = Math.max(x, 0), y0 = Math.max(y, 0);
+        int x1 = Math.min(x + w, width), y1 = Math.min(y + h, height);
+        if (x0 >= x1)
+            return;
+        for (int row = y0; row < y1; row++)
+        {
+            Arrays.fill(pixels, row * width + x0, row * width + x1, argb);
+            for (int t = 0; t < trackers.size(); t++)
+                trackers.get(t).mark(row * width + x0, row * width + x1);
+        }
+        modCount++;
+    }
+
+    /**
+     * Copy a rectangle of pixels from another FrameBuffer into this one. The rectangle is clipped to both FrameBuffers.
+     * @param src The FrameBuffer to copy from (may be this FrameBuffer).
+     * @param sx The x-coordinate of the left side of the rectangle within src.
+     * @param sy The y-coordinate of the top side of the rectangle within src.
+     * @param dx The x-coordinate the left side of the rectangle will go to within this FrameBuffer.
+     * @param dy The y-coordinate the top side of the rectangle will go to within this FrameBuffer.
+     * @param w The width of the rectangle.
+     * @param h The height of the rectangle.
+     */
+    public void blit(FrameBuffer src, int sx, int sy, int dx, int dy, int w, int h)
+    {
+        if (sx < 0) { dx -= sx; w += sx; sx = 0; }
+        if (sy < 0) { dy -= sy; h += sy; sy = 0; }
+        if (dx < 0) { sx -= dx; w += dx; dx = 0; }
+        if (dy < 0) { sy -= dy; h += dy; dy = 0; }
+        w = Math.min(w, Math.min(src.width - sx, width - dx));
+        h = Math.min(h, Math.min(src.height - sy, height - dy));
+        if (w <= 0 || h <= 0)
+            return;
+        // Walk backwards when copying down within the same array so rows are not overwritten before being read.
+        if (src == this && dy > sy)
+            for (int row = h - 1; row >= 0; row--)
+                System.arraycopy(src.pixels, (sy + row) * src.width + sx, pixels, (dy + row) * width + dx, w);
+        else
+            for (int row = 0; row < h; row++)
+                System.arraycopy(src.pixels, (sy + row) * src.width + sx, pixels, (dy + row) * width + dx, w);
+        for (int row = 0; row < h; row++)
+            for (int t = 0; t < trackers.size(); t++)
+                trackers.get(t).mark((dy + row) * width + dx, (dy + row) * width + dx + w);
+        modCount++;
+    }
+
+    /**
+     * Copy every pixel of another FrameBuffer of the same size into this one. Only pixels whose color differs are recorded as changed.
+     */
+    public void copyFrom(FrameBuffer other)
+    {
+        if (other.width != width || other.height != height)
+            throw new IllegalArgumentException("Cannot copy a " + other.width + "x" + other.height + " FrameBuffer into a " + width + "x" + height + " one");
+        if (trackers.isEmpty())
+        {
+            System.arraycopy(other.pixels, 0, pixels, 0, pixels.length);
+            modCount++;
+            return;
+        }
+        boolean changed = false;
+        for (int i = 0; i < pixels.length; i++)
+            if (pixels[i] != other.pixels[i])
+            {
+                pixels[i] = other.pixels[i];
+                for (int t = 0; t < trackers.size(); t++)
+                    trackers.get(t).mark(i);
+                changed = true;
+            }
+        if (changed)
+            modCount++;
+    }
+
+    /**
+     * Create a copy of this FrameBuffer.
+     */
+    public FrameBuffer copy()
+    {
+        return new FrameBuffer(this);
+    }
+}
@@ -0,0 +1,124 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * FrameRenderer
+ * <p>
+ * Draws every pixel of a FrameBuffer as a square cell, with a gap between neighboring cells, the way the grid is shown on screen.<p>
+ * Does not depend on Greenfoot, so previews can be rendered without a display (see BatchRenderer). CanvasActor draws the grid with one.<p>
+ * A FrameRenderer keeps a row buffer for drawing onto images it did not make, so each thread should use its own.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class FrameRenderer
+{
+    private final int cellSize;
+    private final int gap;
+    private final int pitch;
+    private final int[] rowFill;
+
+    /**
+     * Create a new FrameRenderer.
+     * @param cellSize The width and height in pixels of each cell.
+     * @param gap The space in pixels between neighboring cells.
+     */
+    public FrameRenderer(int cellSize, int gap)
+    {
+        if (cellSize < 1 || gap < 0)
+            throw new IllegalArgumentException("Bad cell size " + cellSize + " or gap " + gap);
+        this.cellSize = cellSize;
+        this.gap = gap;
+        pitch = cellSize + gap;
+        rowFill = new int[cellSize];
+    }
+
+    public int getCellSize()
+    {
+        return cellSize;
+    }
+    public int getGap()
+    {
+        return gap;
+    }
+
+    /**
+     * Get the width in pixels of the image of a grid the given number of cells across.
+     */
+    public int getImageWidth(int gridWidth)
+    {
+        return gridWidth * pitch - gap;
+    }
+
+    /**
+     * Get the height in pixels of the image of a grid the given number of cells down.
+     */
+    public int getImageHeight(int gridHeight)
+    {
+        return gridHeight * pitch - gap;
+    }
+
+    /**
+     * Get which cell a position within the image falls in along one axis.
+     * @return The cell index, or -1 if the position is in the gap between cells or before the first one.
+     */
+    public int cellAt(int pos)
+    {
+        if (pos < 0 || pos % pitch >= cellSize)
+            return -1;
+        return pos / pitch;
+    }
+
+    /**
+     * Render a FrameBuffer into a new image, with the gaps left clear.
+     */
+    public BufferedImage render(FrameBuffer frameBuffer)
+    {
+        int width = getImageWidth(frameBuffer.getWidth());
+        BufferedImage image = new BufferedImage(width, getImageHeight(frameBuffer.getHeight()), BufferedImage.TYPE_INT_ARGB);
+        render(frameBuffer, ((DataBufferInt)image.getRaster().getDataBuffer()).getData(), width);
+        return image;
+    }
+
+    /**
+     * Render every cell of a FrameBuffer into an array of packed ARGB pixels, row by row. The gaps are not touched.
+     * @param argb The pixels, which must hold the whole image.
+     * @param stride The number of pixels from the start of one row of argb to the next.
+     */
+    public void render(FrameBuffer frameBuffer, int[] argb, int stride)
+    {
+        int[] pixels = frameBuffer.getPixels();
+        int width = frameBuffer.getWidth();
+        for (int y = 0; y < frameBuffer.getHeight(); y++)
+        {
+            int top = y * pitch * stride;
+            // Fill the first row of each cell, then copy it down the rest of the cell.
+            for (int x = 0; x < width; x++)
+                Arrays.fill(argb, top + x * pitch, top + x * pitch + cellSize, pixels[y * width + x]);
+            // Without gaps the cells make one unbroken span; with them, copy each cell's span so the gaps between are left alone.
+            for (int row = 1; row < cellSize; row++)
+                if (gap == 0)
+                    System.arraycopy(argb, top, argb, top + row * stride, width * cellSize);
+                else
+                    for (int x = 0; x < width; x++)
+                        System.arraycopy(argb, top + x * pitch, argb, top + row * stride + x * pitch, cellSize);
+        }
+    }
+
+    /**
+     * Paint one cell onto an image.
+     * @param image The image, at least as big as the image of the grid.
+     * @param gridWidth The number of cells across the grid.
+     * @param index The index of the cell's pixel in its FrameBuffer.
+     * @param argb The packed ARGB color to paint it.
+     */
+    public void paintCell(BufferedImage image, int gridWidth, int index, int argb)
+    {
+        int left = index % gridWidth * pitch;
+        int top = index / gridWidth * pitch;
+        Arrays.fill(rowFill, argb);
+        for (int row = 0; row < cellSize; row++)
+            image.setRGB(left, top + row, cellSize, 1, rowFill, 0, cellSize);
+    }
+}
@@ -0,0 +1,245 @@
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * FrameStreamer
+ * <p>
+ * Streams frames to an LED controller (or the LedEmulator) as LedPackets.<p>
+ * Frames are handed over with offer() from the act thread and written by a background thread, so a slow serial link never stalls the GUI.
+ * If frames are offered faster than the link can carry them, only the newest waiting frame is sent. Packets are double buffered, so
+ * nothing is allocated per frame.<p>
+ * A frame is only sent when it has changed since the last one offered. The packet for the last frame is kept, and only the LEDs its
+ * DirtyTracker marks as changed are encoded again. Pixels go out in the order of the LedLayout set with setLayout().
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class FrameStreamer
+{
+    private OutputStream out;
+    private Thread thread;
+    private volatile boolean running;
+    private volatile IOException error;
+
+    // The packet waiting to be sent and the one being written, swapped by the sending thread.
+    private byte[] pending = new byte[0];
+    private byte[] sending = new byte[0];
+    private int pendingSize;
+    private boolean hasPending;
+    private long pendingSince;
+
+    // Changes to the last frame offered, and the packet for it as it is now.
+    private DirtyTracker tracker;
+    private byte[] encoded = new byte[0];
+    private LedLayout layout = LedLayout.COLUMN_MAJOR;
+    private int[] order = new int[0];
+    private int[] ledFor = new int[0]; // The LED each pixel is shown on, the reverse of order.
+
+    private volatile long framesSent;
+    private volatile long bytesSent;
+    private volatile long totalLatencyNanos;
+
+    /**
+     * Create a new FrameStreamer.
+     * @param out Where packets are written, such as a SerialPortOutput or an LedEmulator. Is closed when this FrameStreamer is stopped.
+     */
+    public FrameStreamer(OutputStream out)
+    {
+        this.out = out;
+    }
+
+    /**
+     * Start the background thread that writes packets.
+     */
+    public synchronized void start()
+    {
+        if (running)
+            return;
+        running = true;
+        thread = new Thread(new Runnable() {
+            public void run()
+            {
+                sendLoop();
+            }
+        }, "FrameStreamer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop the background thread, waiting for the packet being written to finish, and close the output.
+     */
+    public void stop()
+    {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+            if (tracker != null)
+                tracker.detach();
+            tracker = null;
+        }
+        try {
+            if (thread != null)
+                thread.join(1000);
+            out.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            if (error == null)
+                error = e;
+        }
+    }
+
+    public boolean isRunning()
+    {
+        return running;
+    }
+
+    /**
+     * Get the error that stopped the stream, if any.
+     */
+    public IOException getError()
+    {
+        return error;
+    }
+
+    /**
+     * Set how the LEDs are wired. The next frame offered is sent even if it has not changed.
+     */
+    public synchronized void setLayout(LedLayout layout)
+    {
+        this.layout = layout;
+    }
+
+    public synchronized LedLayout getLayout()
+    {
+        return layout;
+    }
+
+    /**
+     * Queue a frame to be sent, replacing any frame still waiting. Does nothing if the frame has not changed since it was last offered.
+     * @return Whether the frame was queued.
+     */
+    public synchronized boolean offer(FrameBuffer frame)
+    {
+        if (!running)
+            return false;
+        if (tracker == null || tracker.getFrameBuffer() != frame)
+        {
+            // A different frame may differ anywhere, and its new tracker has every pixel marked.
+            if (tracker != null)
+                tracker.detach();
+            tracker = frame.track();
+        }
+        updateOrder(frame);
+        if (!tracker.isDirty())
+            return false;
+        int[] pixels = frame.getPixels();
+        for (int i = tracker.nextDirty(0); i != -1; i = tracker.nextDirty(i + 1))
+            LedPacket.putPixel(encoded, ledFor[i], pixels[i]);
+        tracker.clear();
+        pendingSize = LedPacket.packetSize(order.length);
+        if (pending.length < pendingSize)
+            pending = new byte[pendingSize];
+        System.arraycopy(encoded, 0, pending, 0, pendingSize);
+        if (!hasPending)
+            pendingSince = System.nanoTime();
+        hasPending = true;
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Send a frame right away on the calling thread, whether or not it has changed. For when there is no background thread, such as
+     * when measuring throughput against the LedEmulator.
+     */
+    public void sendNow(FrameBuffer frame) throws IOException
+    {
+        int[] order = layout.getOrder(frame.getWidth(), frame.getHeight());
+        int size = LedPacket.packetSize(order.length);
+        if (sending.length < size)
+            sending = new byte[size];
+        long start = System.nanoTime();
+        LedPacket.encode(frame, order, sending);
+        out.write(sending, 0, size);
+        out.flush();
+        record(size, System.nanoTime() - start);
+    }
+
+    /**
+     * Get the order pixels go out in for the offered frame. If it is not the order the kept packet was encoded in (the layout or the
+     * frame size changed), start the packet again and mark every pixel to be encoded.
+     */
+    private void updateOrder(FrameBuffer frame)
+    {
+        int[] next = layout.getOrder(frame.getWidth(), frame.getHeight());
+        if (next == order)
+            return;
+        order = next;
+        if (ledFor.length != order.length)
+            ledFor = new int[order.length];
+        for (int led = 0; led < order.length; led++)
+            ledFor[order[led]] = led;
+        int size = LedPacket.packetSize(order.length);
+        if (encoded.length < size)
+            encoded = new byte[size];
+        LedPacket.writeHeader(encoded, order.length);
+        tracker.markAll();
+    }
+
+    private void sendLoop()
+    {
+        try {
+            while (true)
+            {
+                int size;
+                long since;
+                synchronized (this) {
+                    while (running && !hasPending)
+                        wait();
+                    if (!running)
+                        return;
+                    byte[] swap = sending;
+                    sending = pending;
+                    pending = swap;
+                    size = pendingSize;
+                    since = pendingSince;
+                    hasPending = false;
+                }
+                out.write(sending, 0, size);
+                out.flush();
+                record(size, System.nanoTime() - since);
+            }
+        } catch (IOException e) {
+            error = e;
+        } catch (InterruptedException e) {
+            // Stopped.
+        } finally {
+            running = false;
+        }
+    }
+
+    private void record(int size, long latencyNanos)
+    {
+        framesSent++;
+        bytesSent += size;
+        totalLatencyNanos += latencyNanos;
+    }
+
+    public long getFramesSent()
+    {
+        return framesSent;
+    }
+    public long getBytesSent()
+    {
+        return bytesSent;
+    }
+
+    /**
+     * Get the average time in milliseconds from a frame being offered to it being fully written.
+     */
+    public double getAverageLatencyMillis()
+    {
+        return framesSent == 0 ? 0 : totalLatencyNanos / 1e6 / framesSent;
+    }
+}
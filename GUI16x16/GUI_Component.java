@@ -1,5 +1,5 @@
 import greenfoot.Actor;
-import greenfoot.Greenfoot;
+import greenfoot.GreenfootImage;
 import greenfoot.World;
 import greenfoot.core.WorldHandler;
 import java.awt.event.MouseWheelListener;
@@ -15,18 +15,18 @@ import java.awt.Color;
 import java.awt.Font;
 import java.io.IOException;
 import java.security.AccessControlException;
-import java.util.List;
 
 /**
  * GUI_Component
  * <p>
  * A component to be used in GUI system.<p>
- * Handles listening for mouse hover, and statuses for being hidden, will show, and focus.
+ * Handles statuses for being hidden, will show, mouse hover and focus. Mouse hover and focus are kept by the InputDispatcher, which
+ * also hands each GUI_Component the mouse events that happen to it through handleEvent().
  * 
  * @author Taylor Born
  * @version March 2013 - April 2014
  */
-public abstract class GUI_Component extends Actor
+public abstract class GUI_Component extends Actor implements InputListener
 {
     protected final static TextTransfer textTransfer = new TextTransfer();
 
@@ -131,8 +131,6 @@ public abstract class GUI_Component extends Actor
     protected void redraw()
     {}
 
-    private boolean overThis;
-    private boolean focus;
     private boolean hiding;
     private boolean show;
 
@@ -144,28 +142,22 @@ public abstract class GUI_Component extends Actor
     }
     
     /**
-     * Listens for:<p>
-     * Status for if the mouse is directly over this Actor. (Not over an Actor that is on top of this one).<p>
-     * Status for if this GUI_Component was last pressed on by the mouse. (Has focus).
+     * Act. Mouse hover and focus no longer need polling here, as the InputDispatcher keeps them.
      */
     @Override
     public void act()
+    {}
+    
+    /**
+     * Called by the InputDispatcher for each mouse event that happens to this GUI_Component.<p>
+     * Calls gainedFocus() when this GUI_Component gains focus. Overwrite to react to events, calling super.handleEvent() first.
+     * @param event The event.
+     */
+    @Override
+    public void handleEvent(InputEvent event)
     {
-        if (overThis) {
-            if (Greenfoot.mouseMoved(null) && !Greenfoot.mouseMoved(this))
-                overThis = false;
-        }
-        else if (Greenfoot.mouseMoved(this))
-            overThis = true;
-        
-        if (Greenfoot.mousePressed(this)) {
-            if (!focus) {
-                focus = true;
-                gainedFocus();
-            }
-        }
-        else if (Greenfoot.mousePressed(null))
-            focus = false;
+        if (event.getType() == InputEvent.FOCUS_GAINED)
+            gainedFocus();
     }
     
     /**
@@ -174,7 +166,7 @@ public abstract class GUI_Component extends Actor
      */
     protected boolean mouseOverThis()
     {
-        return overThis;
+        return InputDispatcher.getInstance().getHovered() == this;
     }
     
     /**
@@ -190,7 +182,7 @@ public abstract class GUI_Component extends Actor
      */
     public boolean hasFocus()
     {
-        return focus;
+        return InputDispatcher.getInstance().getFocused() == this;
     }
     
     /**
@@ -200,12 +192,7 @@ public abstract class GUI_Component extends Actor
     {
         if (getWorld() == null)
             return;
-        for (GUI_Component component : (List<GUI_Component>)getWorld().getObjects(GUI_Component.class))
-            component.removeFocus();
-        if (!focus) {
-            focus = true;
-            gainedFocus();
-        }
+        InputDispatcher.getInstance().setFocus(this);
     }
     
     /**
@@ -213,7 +200,8 @@ public abstract class GUI_Component extends Actor
      */
     public void removeFocus()
     {
-        focus = false;
+        if (hasFocus())
+            InputDispatcher.getInstance().setFocus(null);
     }
     
     /**
@@ -265,12 +253,12 @@ public abstract class GUI_Component extends Actor
      */
     public boolean mousePressedOnThisOrComponents()
     {
-        return Greenfoot.mousePressed(this);
+        return InputDispatcher.getInstance().getPressed() == this;
     }
     
     /**
      * Inherited from Actor, is called when this Window is added to the World.<p>
-     * Sets status to show to be true.
+     * Sets status to show to be true, and puts this GUI_Component on top in the HitIndex.
      * @param world World to be added to.
      * @see willShow()
      */
@@ -278,6 +266,27 @@ public abstract class GUI_Component extends Actor
     public void addedToWorld(World world)
     {
         show = true;
+        HitIndex.getInstance().add(this);
+    }
+    
+    /**
+     * Inherited from Actor, set the location of this GUI_Component within the World, keeping the HitIndex up to date.
+     */
+    @Override
+    public void setLocation(int x, int y)
+    {
+        super.setLocation(x, y);
+        HitIndex.getInstance().update(this);
+    }
+    
+    /**
+     * Inherited from Actor, set the image of this GUI_Component, keeping the HitIndex up to date.
+     */
+    @Override
+    public void setImage(GreenfootImage image)
+    {
+        super.setImage(image);
+        HitIndex.getInstance().update(this);
     }
     
     /**
@@ -285,11 +294,9 @@ public abstract class GUI_Component extends Actor
      */
     public void removeFromWorld()
     {
-        if (getWorld() != null) {
+        // The InputDispatcher lets go of it the next act cycle if it is still out of the World, so a Window being brought to front keeps its hover and focus.
+        if (getWorld() != null)
             getWorld().removeObject(this);
-            overThis = false;
-            focus = false;
-        }
     }
     
     /**
@@ -0,0 +1,117 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * GlyphAtlas
+ * <p>
+ * The printable ASCII characters of one Font, rendered once (antialiased, as coverage only) so text can be drawn by copying pixels
+ * instead of laying out glyphs with a new Graphics2D each time. Get one from TextMetricsCache.getGlyphAtlas().<p>
+ * Characters are placed by their advance widths, so text drawn here lines up with FontMetrics.stringWidth(). Text with any other
+ * character can't be drawn here (see canDraw()) and must be drawn with Graphics2D as usual.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class GlyphAtlas
+{
+    private static final char FIRST = 32;
+    private static final char LAST = 126;
+
+    private final int ascent;
+    private final int height;
+    // Extra room either side of each glyph's advance, for glyphs that reach past it.
+    private final int pad;
+    private final int[] cellX = new int[LAST - FIRST + 1];
+    private final int[] advance = new int[LAST - FIRST + 1];
+    private final int atlasWidth;
+    // Coverage (0 - 255) of every pixel of the atlas, row by row.
+    private final byte[] coverage;
+
+    GlyphAtlas(Font font, FontMetrics fm)
+    {
+        ascent = fm.getAscent();
+        height = fm.getAscent() + fm.getDescent();
+        pad = font.getSize() / 4 + 1;
+        int x = 0;
+        for (char ch = FIRST; ch <= LAST; ch++)
+        {
+            cellX[ch - FIRST] = x;
+            advance[ch - FIRST] = fm.charWidth(ch);
+            x += advance[ch - FIRST] + pad * 2;
+        }
+        atlasWidth = x;
+
+        BufferedImage strip = new BufferedImage(Math.max(1, atlasWidth), Math.max(1, height), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = strip.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setFont(font);
+        g.setColor(Color.WHITE);
+        for (char ch = FIRST; ch <= LAST; ch++)
+            g.drawString(String.valueOf(ch), cellX[ch - FIRST] + pad, ascent);
+        g.dispose();
+
+        int[] argb = strip.getRGB(0, 0, strip.getWidth(), strip.getHeight(), null, 0, strip.getWidth());
+        coverage = new byte[atlasWidth * height];
+        for (int i = 0; i < coverage.length; i++)
+            coverage[i] = (byte)(argb[i] >>> 24);
+    }
+
+    /**
+     * Check if every character of a String is in this GlyphAtlas.
+     */
+    public boolean canDraw(String text)
+    {
+        for (int i = 0; i < text.length(); i++)
+        {
+            char ch = text.charAt(i);
+            if (ch < FIRST || ch > LAST)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Draw a String onto an image whose pixels under the text are clear (such as a Label's freshly cleared image).<p>
+     * Where glyphs overlap, the stronger coverage wins.
+     * @param target The image to draw on.
+     * @param text The text, which canDraw() must accept.
+     * @param x The x-coordinate of the start of the text.
+     * @param baseline The y-coordinate of the text's baseline.
+     * @param color The color of the text, whose alpha scales the glyphs' coverage.
+     */
+    public void drawString(BufferedImage target, String text, int x, int baseline, Color color)
+    {
+        int rgb = color.getRGB() & 0xFFFFFF;
+        int alpha = color.getAlpha();
+        int top = baseline - ascent;
+        for (int i = 0; i < text.length(); i++)
+        {
+            int g = text.charAt(i) - FIRST;
+            int left = x - pad;
+            int cellWidth = advance[g] + pad * 2;
+            for (int row = Math.max(0, -top); row < height && top + row < target.getHeight(); row++)
+                for (int col = Math.max(0, -left); col < cellWidth && left + col < target.getWidth(); col++)
+                {
+                    int a = (coverage[row * atlasWidth + cellX[g] + col] & 0xFF) * alpha / 255;
+                    if (a != 0 && a > target.getRGB(left + col, top + row) >>> 24)
+                        target.setRGB(left + col, top + row, a << 24 | rgb);
+                }
+            x += advance[g];
+        }
+    }
+
+    /**
+     * Get the width in pixels of a String drawn by this GlyphAtlas, which canDraw() must accept.
+     */
+    public int stringWidth(String text)
+    {
+        int w = 0;
+        for (int i = 0; i < text.length(); i++)
+            w += advance[text.charAt(i) - FIRST];
+        return w;
+    }
+}
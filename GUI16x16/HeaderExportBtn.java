@@ -0,0 +1,56 @@
+import greenfoot.*;  // (World, Actor, GreenfootImage, Greenfoot and MouseInfo)
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * When this button is clicked, every frame of the animation is exported to a .h file that can be included in a FastLED sketch.
+ * The file has the same name as the export file name, with ".h" as its extension. LEDs are in the order of the layout text box.
+ * 
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class HeaderExportBtn extends FileTaskBtn
+{
+    /**
+     * Act - do whatever the HeaderExportBtn wants to do. This method is called whenever
+     * the 'Act' or 'Run' button gets pressed in the environment.
+     */
+    public void act() 
+    {
+        super.act();//call the FileTaskBtn class act
+        export(((MyWorld)getWorld()).getOutputFile());//export to the filename given in the text box, as a .h file
+    }
+    public HeaderExportBtn(String text, Point size)
+    {
+        super(text,size);
+    }
+    /**
+     * Check if the button was clicked. If it was, export the frames to a .h file named like the given file
+     */
+    public void export(String filename)
+    {
+        if(wasClicked() && !isBusy())//the button was clicked, and the last export is done
+        {
+            //swap the extension for .h
+            int dot = filename.lastIndexOf('.');
+            if(dot > Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')))
+            {
+                filename = filename.substring(0, dot);
+            }
+            filename += ".h";
+            //write it in the background, from a copy of the frames taken now
+            MyWorld world = (MyWorld)getWorld();
+            final Animation animation = world.getAnimation().copy();
+            final LedLayout layout = world.getLedLayout();
+            final Path path = MyWorld.scenarioFile(filename);
+            start(new FileTask<Void>() {
+                protected Void call() throws IOException
+                {
+                    ArduinoHeaderWriter.writeFile(animation, BinaryFrameCodec.RGB888, layout, path);
+                    return null;
+                }
+            });
+        }
+    }
+}
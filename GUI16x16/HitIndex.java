@@ -0,0 +1,180 @@
+import greenfoot.Actor;
+import greenfoot.GreenfootImage;
+import greenfoot.World;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * HitIndex
+ * <p>
+ * Keeps the bounds of every InputListener Actor in a uniform grid of square cells, so finding what is under the mouse only looks at
+ * the few Actors whose bounds overlap the mouse's cell, rather than every Actor in the World.<p>
+ * An Actor is added with add() when it is added to the World, which also puts it on top of the others (as Greenfoot paints it on top).
+ * Call update() whenever it moves or its image changes size; GUI_Component does both from addedToWorld(), setLocation() and
+ * setImage(), so Containers laying out their components and Windows being dragged keep the index up to date.<p>
+ * Actors taken out of the World (or left in a World that is no longer shown) are dropped the next time a lookup comes across them.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class HitIndex
+{
+    private static final int CELL_SIZE = 64;
+
+    private static HitIndex instance = new HitIndex();
+
+    private HashMap<Actor, Entry> entries = new HashMap<Actor, Entry>();
+    private HashMap<Integer, ArrayList<Entry>> cells = new HashMap<Integer, ArrayList<Entry>>();
+    private long nextZ;
+
+    /**
+     * Get the HitIndex shared by every World.
+     */
+    public static HitIndex getInstance()
+    {
+        return instance;
+    }
+
+    /**
+     * Index an Actor that has just been added to the World, on top of every Actor already indexed.
+     * @param actor The Actor, which must be an InputListener to ever be found.
+     */
+    public void add(Actor actor)
+    {
+        if (!(actor instanceof InputListener))
+            return;
+        Entry entry = entries.get(actor);
+        if (entry == null)
+        {
+            entry = new Entry(actor);
+            entries.put(actor, entry);
+        }
+        entry.z = ++nextZ;
+        update(actor);
+    }
+
+    /**
+     * Bring an Actor's bounds up to date after it has moved or its image has changed size. Does nothing for Actors that were never added.
+     */
+    public void update(Actor actor)
+    {
+        Entry entry = entries.get(actor);
+        if (entry == null)
+            return;
+        GreenfootImage image = actor.getImage();
+        if (actor.getWorld() == null || image == null)
+        {
+            remove(actor);
+            return;
+        }
+        int left = actor.getX() - image.getWidth() / 2;
+        int top = actor.getY() - image.getHeight() / 2;
+        int right = left + image.getWidth();
+        int bottom = top + image.getHeight();
+        if (entry.indexed && left == entry.left && top == entry.top && right == entry.right && bottom == entry.bottom)
+            return;
+        unlink(entry);
+        entry.left = left;
+        entry.top = top;
+        entry.right = right;
+        entry.bottom = bottom;
+        link(entry);
+    }
+
+    /**
+     * Stop indexing an Actor.
+     */
+    public void remove(Actor actor)
+    {
+        Entry entry = entries.remove(actor);
+        if (entry != null)
+            unlink(entry);
+    }
+
+    /**
+     * Find the topmost InputListener in the given World whose bounds contain a point.
+     * @return The InputListener, or null if there is none there.
+     */
+    public InputListener listenerAt(World world, int x, int y)
+    {
+        ArrayList<Entry> cell = cells.get(key(cellOf(x), cellOf(y)));
+        if (cell == null)
+            return null;
+        Entry top = null;
+        ArrayList<Entry> stale = null;
+        for (Entry entry : cell)
+            if (entry.actor.getWorld() != world)
+            {
+                if (stale == null)
+                    stale = new ArrayList<Entry>();
+                stale.add(entry);
+            }
+            else if (x >= entry.left && x < entry.right && y >= entry.top && y < entry.bottom && (top == null || entry.z > top.z))
+                top = entry;
+        if (stale != null)
+            for (Entry entry : stale)
+                remove(entry.actor);
+        return top == null ? null : (InputListener)top.actor;
+    }
+
+    private void link(Entry entry)
+    {
+        entry.cellLeft = cellOf(entry.left);
+        entry.cellTop = cellOf(entry.top);
+        entry.cellRight = cellOf(entry.right - 1);
+        entry.cellBottom = cellOf(entry.bottom - 1);
+        for (int cy = entry.cellTop; cy <= entry.cellBottom; cy++)
+            for (int cx = entry.cellLeft; cx <= entry.cellRight; cx++)
+            {
+                ArrayList<Entry> cell = cells.get(key(cx, cy));
+                if (cell == null)
+                {
+                    cell = new ArrayList<Entry>();
+                    cells.put(key(cx, cy), cell);
+                }
+                cell.add(entry);
+            }
+        entry.indexed = true;
+    }
+
+    private void unlink(Entry entry)
+    {
+        if (!entry.indexed)
+            return;
+        for (int cy = entry.cellTop; cy <= entry.cellBottom; cy++)
+            for (int cx = entry.cellLeft; cx <= entry.cellRight; cx++)
+            {
+                ArrayList<Entry> cell = cells.get(key(cx, cy));
+                if (cell != null)
+                    cell.remove(entry);
+            }
+        entry.indexed = false;
+    }
+
+    /**
+     * Get which cell a coordinate falls in. Anything off the top or left of the World shares the first cell.
+     */
+    private static int cellOf(int pos)
+    {
+        return Math.max(0, Math.min(pos / CELL_SIZE, 0xFFFF));
+    }
+
+    private static Integer key(int cx, int cy)
+    {
+        return cy << 16 | cx;
+    }
+
+    private static class Entry
+    {
+        private final Actor actor;
+        private long z;
+        private boolean indexed;
+        private int left, top, right, bottom;
+        private int cellLeft, cellTop, cellRight, cellBottom;
+
+        Entry(Actor actor)
+        {
+            this.actor = actor;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * ImageFrameCodec
+ * <p>
+ * Writes frames as ordinary images: a single frame as a PNG, or every frame of an Animation as an animated GIF that loops forever
+ * and shows each frame for its duration (to the nearest 10 milliseconds, as GIF delays are in hundredths of a second).<p>
+ * Also reads PNG, JPEG, GIF and BMP images of any size, scaled to the grid with an ImageScaler. Every frame of an animated GIF is
+ * read, drawn over the frames before it as the GIF says to. Images of more than MAX_READ_PIXELS pixels are not read.<p>
+ * Frames are drawn with a FrameRenderer, so each LED can be a block of pixels with gaps between, like the editor's grid. GIF
+ * frames are opaque, with black gaps; PNG gaps are left clear.<p>
+ * Files are replaced in one step (see AtomicFile), so they are never left half written.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class ImageFrameCodec
+{
+    private static final String GIF_METADATA = "javax_imageio_gif_image_1.0";
+    private static final String GIF_STREAM_METADATA = "javax_imageio_gif_stream_1.0";
+    // How long a GIF frame with no delay is shown for, as web browsers do.
+    private static final int GIF_DEFAULT_DURATION = 100;
+    /**
+     * The most pixels an image read by readImageFile() can have, 256MB of them, the same as VideoImporter.MAX_READ_PIXELS. Larger
+     * images (or GIFs whose whole image is larger) fail before anything is decoded.
+     */
+    public static final int MAX_READ_PIXELS = 1 << 26;
+
+    private ImageFrameCodec()
+    {}
+
+    /**
+     * Write a FrameBuffer to a PNG file.
+     * @param renderer Draws each pixel of the frame. new FrameRenderer(1, 0) gives one image pixel per LED.
+     */
+    public static void writePng(FrameBuffer frameBuffer, FrameRenderer renderer, Path path) throws IOException
+    {
+        Path temp = AtomicFile.begin(path);
+        try {
+            if (!ImageIO.write(renderer.render(frameBuffer), "png", temp.toFile()))
+                throw new IOException("No PNG writer available");
+            AtomicFile.commit(temp, path);
+        } finally {
+            AtomicFile.abort(temp);
+        }
+    }
+
+    /**
+     * Write every frame of an Animation to an animated GIF file, telling the listener after each frame.
+     * @param renderer Draws each pixel of the frames. new FrameRenderer(1, 0) gives one image pixel per LED.
+     * @param listener Told how many frames have been written, or null.
+     */
+    public static void writeGif(Animation animation, FrameRenderer renderer, Path path, ProgressListener listener) throws IOException
+    {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("gif");
+        if (!writers.hasNext())
+            throw new IOException("No GIF writer available");
+        ImageWriter writer = writers.next();
+        Path temp = AtomicFile.begin(path);
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                writer.prepareWriteSequence(null);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                int width = renderer.getImageWidth(animation.getWidth());
+                int height = renderer.getImageHeight(animation.getHeight());
+                for (int i = 0; i < animation.getFrameCount(); i++)
+                {
+                    // Without alpha, so the GIF writer makes an opaque palette of at most 256 colors.
+                    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                    renderer.render(animation.getFrame(i), ((DataBufferInt)image.getRaster().getDataBuffer()).getData(), width);
+                    IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), param);
+                    setGifFrameMetadata(metadata, animation.getDuration(i), i == 0);
+                    writer.writeToSequence(new IIOImage(image, null, metadata), param);
+                    if (listener != null)
+                        listener.progress(i + 1, animation.getFrameCount());
+                }
+                writer.endWriteSequence();
+            }
+            AtomicFile.commit(temp, path);
+        } finally {
+            writer.dispose();
+            AtomicFile.abort(temp);
+        }
+    }
+
+    /**
+     * Check if the file at the given path is named like an image that can be read, such as "photo.jpg".
+     */
+    public static boolean isImageFile(Path path)
+    {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".png") || name.endsWith(".gif") || name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".bmp");
+    }
+
+    /**
+     * Count the frames of the image at the given path, without decoding them: every frame of a GIF, or 1 for anything else.
+     */
+    public static int countFrames(Path path) throws IOException
+    {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            ImageReader reader = openReader(in, path);
+            try {
+                return reader.getFormatName().equalsIgnoreCase("gif") ? reader.getNumImages(true) : 1;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Read the image at the given path, scaled to the given grid size. A GIF gives every one of its frames, anything else one frame.
+     */
+    public static Animation readImageFile(Path path, int width, int height, ImageScaler scaler) throws IOException
+    {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            ImageReader reader = openReader(in, path);
+            try {
+                if (reader.getFormatName().equalsIgnoreCase("gif"))
+                    return readGif(reader, width, height, scaler);
+                // Have the JPEG reader decode straight into packed int pixels, so ImageScaler doesn't have to convert them. (The PNG
+                // reader is slower at this than ImageScaler.)
+                ImageReadParam param = reader.getDefaultReadParam();
+                for (Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0); reader.getFormatName().equalsIgnoreCase("jpeg") && types.hasNext(); )
+                {
+                    ImageTypeSpecifier type = types.next();
+                    if (type.getBufferedImageType() == BufferedImage.TYPE_INT_RGB || type.getBufferedImageType() == BufferedImage.TYPE_INT_ARGB)
+                    {
+                        param.setDestinationType(type);
+                        break;
+                    }
+                }
+                checkSize(reader.getWidth(0), reader.getHeight(0));
+                FrameBuffer frame = new FrameBuffer(width, height);
+                scaler.scale(reader.read(0, param), frame);
+                return new Animation(frame, Animation.DEFAULT_DURATION);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Get a reader for the image in the given stream, reading from it.
+     */
+    private static ImageReader openReader(ImageInputStream in, Path path) throws IOException
+    {
+        if (in == null)
+            throw new IOException("Can't read " + path);
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+        if (!readers.hasNext())
+            throw new IOException(path + " is not an image that can be read");
+        ImageReader reader = readers.next();
+        reader.setInput(in, false, false);
+        return reader;
+    }
+
+    /**
+     * Read every frame of a GIF. Frames can cover only part of the image and be drawn over what came before, so each is drawn
+     * onto a canvas the size of the whole GIF, which is then scaled.
+     */
+    private static Animation readGif(ImageReader reader, int width, int height, ImageScaler scaler) throws IOException
+    {
+        int count = reader.getNumImages(true);
+        if (count < 1)
+            throw new IOException("GIF has no frames");
+        int canvasWidth = reader.getWidth(0);
+        int canvasHeight = reader.getHeight(0);
+        IIOMetadata stream = reader.getStreamMetadata();
+        if (stream != null)
+        {
+            IIOMetadataNode screen = child((IIOMetadataNode)stream.getAsTree(GIF_STREAM_METADATA), "LogicalScreenDescriptor");
+            canvasWidth = Math.max(canvasWidth, intAttribute(screen, "logicalScreenWidth", 0));
+            canvasHeight = Math.max(canvasHeight, intAttribute(screen, "logicalScreenHeight", 0));
+        }
+        checkSize(canvasWidth, canvasHeight);
+        BufferedImage canvas = new BufferedImage(canvasWidth, canvasHeight, BufferedImage.TYPE_INT_ARGB);
+        int[] canvasPixels = ((DataBufferInt)canvas.getRaster().getDataBuffer()).getData();
+        int[] previous = null;
+        Graphics2D g = canvas.createGraphics();
+        g.setBackground(new Color(0, 0, 0, 0));
+        Animation animation = null;
+        try {
+            for (int i = 0; i < count; i++)
+            {
+                // Each frame is decoded to its own image before it is drawn, and can be larger than the canvas.
+                checkSize(reader.getWidth(i), reader.getHeight(i));
+                BufferedImage image = reader.read(i);
+                IIOMetadataNode root = (IIOMetadataNode)reader.getImageMetadata(i).getAsTree(GIF_METADATA);
+                IIOMetadataNode descriptor = child(root, "ImageDescriptor");
+                IIOMetadataNode control = child(root, "GraphicControlExtension");
+                int left = intAttribute(descriptor, "imageLeftPosition", 0);
+                int top = intAttribute(descriptor, "imageTopPosition", 0);
+                int delay = intAttribute(control, "delayTime", 0);
+                String disposal = control.getAttribute("disposalMethod");
+
+                if (disposal.equals("restoreToPrevious"))
+                    previous = canvasPixels.clone();
+                g.drawImage(image, left, top, null);
+                FrameBuffer frame = new FrameBuffer(width, height);
+                scaler.scale(canvas, frame);
+                int duration = delay > 0 ? delay * 10 : GIF_DEFAULT_DURATION;
+                if (animation == null)
+                    animation = new Animation(frame, duration);
+                else
+                    animation.addFrame(frame, duration);
+
+                // Get the canvas ready for the next frame.
+                if (disposal.equals("restoreToBackgroundColor"))
+                    g.clearRect(left, top, image.getWidth(), image.getHeight());
+                else if (disposal.equals("restoreToPrevious"))
+                    System.arraycopy(previous, 0, canvasPixels, 0, canvasPixels.length);
+            }
+        } finally {
+            g.dispose();
+        }
+        return animation;
+    }
+
+    /**
+     * Check that an image of the given size can be read, from its header, before it is decoded or anything that size is made.
+     */
+    private static void checkSize(int width, int height) throws IOException
+    {
+        if (width <= 0 || height <= 0)
+            throw new IOException("Image is " + width + "x" + height);
+        if ((long)width * height > MAX_READ_PIXELS)
+            throw new IOException("Image is " + width + "x" + height + ", more than " + MAX_READ_PIXELS + " pixels");
+    }
+
+    private static int intAttribute(IIOMetadataNode node, String name, int otherwise)
+    {
+        String value = node.getAttribute(name);
+        try {
+            return value.isEmpty() ? otherwise : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return otherwise;
+        }
+    }
+
+    /**
+     * Set how long a GIF frame is shown for, and on the first frame, that the GIF loops forever.
+     */
+    private static void setGifFrameMetadata(IIOMetadata metadata, int duration, boolean first) throws IOException
+    {
+        IIOMetadataNode root = (IIOMetadataNode)metadata.getAsTree(GIF_METADATA);
+        IIOMetadataNode control = child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", String.valueOf(Math.max(1, (duration + 5) / 10)));
+        control.setAttribute("transparentColorIndex", "0");
+        if (first)
+        {
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            // Sub-block 1, then the number of times to repeat (0 for forever) as a little endian short.
+            loop.setUserObject(new byte[] { 1, 0, 0 });
+            child(root, "ApplicationExtensions").appendChild(loop);
+        }
+        metadata.setFromTree(GIF_METADATA, root);
+    }
+
+    /**
+     * Get the child of a metadata node with the given name, adding it if there isn't one.
+     */
+    private static IIOMetadataNode child(IIOMetadataNode node, String name)
+    {
+        for (int i = 0; i < node.getLength(); i++)
+            if (node.item(i).getNodeName().equals(name))
+                return (IIOMetadataNode)node.item(i);
+        IIOMetadataNode child = new IIOMetadataNode(name);
+        node.appendChild(child);
+        return child;
+    }
+}
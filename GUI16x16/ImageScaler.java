@@ -0,0 +1,341 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ImageScaler
+ * <p>
+ * Scales images (usually far bigger than the grid, such as photos) to the size of a FrameBuffer, with either of two filters:<p>
+ * AREA averages every image pixel each LED covers, weighted by how much of it is covered. Fast, and never rings.<p>
+ * LANCZOS uses a 3 lobed Lanczos filter, which keeps edges sharper but can overshoot slightly around them. Images more than 3 times
+ * the size of the result are first averaged down to 3 times its size, which looks the same and saves most of the work.<p>
+ * The filter is applied across then down (it is separable), reading straight from the packed ARGB array behind the image. Both steps
+ * are split into tiles that run in parallel on a ForkJoinPool, so a 4K image scales in a few milliseconds.<p>
+ * Colors are weighted by their alpha, and transparent parts of the image come out black, as an LED that is off. Every pixel of
+ * the result is opaque. An ImageScaler never changes, so one can be shared between threads.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class ImageScaler
+{
+    public static final int AREA = 0;
+    public static final int LANCZOS = 1;
+
+    private static final int LANCZOS_LOBES = 3;
+    // How many times bigger than the result an image can be before LANCZOS averages it down first.
+    private static final int LANCZOS_REDUCE = 3;
+    // Roughly how many pixel-weight products a tile is worth splitting at. Smaller tiles cost more to hand out than they save.
+    private static final int TILE_WORK = 1 << 16;
+
+    private final int filter;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a new ImageScaler that runs on the common ForkJoinPool.
+     * @param filter AREA or LANCZOS.
+     */
+    public ImageScaler(int filter)
+    {
+        this(filter, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new ImageScaler.
+     * @param filter AREA or LANCZOS.
+     * @param pool The pool to run tiles on, when not already called from within a ForkJoinPool (the tiles then run in that pool).
+     */
+    public ImageScaler(int filter, ForkJoinPool pool)
+    {
+        if (filter != AREA && filter != LANCZOS)
+            throw new IllegalArgumentException("Unknown filter " + filter);
+        this.filter = filter;
+        this.pool = pool;
+    }
+
+    /**
+     * Get the filter named by a string, "area" or "lanczos".
+     */
+    public static int parseFilter(String name)
+    {
+        if (name.equalsIgnoreCase("area"))
+            return AREA;
+        if (name.equalsIgnoreCase("lanczos"))
+            return LANCZOS;
+        throw new IllegalArgumentException("Unknown filter \"" + name + "\", expected area or lanczos");
+    }
+
+    /**
+     * Scale an image to the size of a FrameBuffer, replacing every pixel of it.
+     */
+    public void scale(BufferedImage image, FrameBuffer into)
+    {
+        int type = image.getType();
+        if ((type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB) && image.getRaster().getParent() == null
+            && ((SinglePixelPackedSampleModel)image.getSampleModel()).getScanlineStride() == image.getWidth()
+            && image.getRaster().getDataBuffer().getOffset() == 0)
+        {
+            int[] argb = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+            scale(argb, image.getWidth(), image.getHeight(), type == BufferedImage.TYPE_INT_RGB, into);
+            return;
+        }
+        // Any other kind of image is converted in one go, rather than read a pixel at a time.
+        boolean opaque = !image.getColorModel().hasAlpha();
+        BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = converted.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        scale(((DataBufferInt)converted.getRaster().getDataBuffer()).getData(), image.getWidth(), image.getHeight(), opaque, into);
+    }
+
+    /**
+     * Scale packed ARGB pixels to the size of a FrameBuffer, replacing every pixel of it.
+     * @param argb The pixels, row by row.
+     * @param opaque Whether to ignore the pixels' alpha (as for TYPE_INT_RGB images, whose alpha bits mean nothing).
+     */
+    public void scale(int[] argb, int width, int height, boolean opaque, FrameBuffer into)
+    {
+        if (argb.length < width * height)
+            throw new IllegalArgumentException("Only " + argb.length + " pixels for a " + width + "x" + height + " image");
+        if (filter == LANCZOS && (width > into.getWidth() * LANCZOS_REDUCE || height > into.getHeight() * LANCZOS_REDUCE))
+        {
+            FrameBuffer reduced = new FrameBuffer(Math.min(width, into.getWidth() * LANCZOS_REDUCE), Math.min(height, into.getHeight() * LANCZOS_REDUCE));
+            new ImageScaler(AREA, pool).scale(argb, width, height, opaque, reduced);
+            argb = reduced.getPixels();
+            width = reduced.getWidth();
+            height = reduced.getHeight();
+            opaque = true;
+        }
+        Weights across = new Weights(width, into.getWidth());
+        Weights down = new Weights(height, into.getHeight());
+        // Red, green and blue (multiplied by alpha) for every image row, already scaled across.
+        float[] rows = new float[height * into.getWidth() * 3];
+        run(new ScaleAcross(argb, width, opaque, across, rows, 0, height));
+        run(new ScaleDown(rows, down, into, 0, into.getHeight()));
+        into.markChanged();
+    }
+
+    private void run(RecursiveAction task)
+    {
+        if (ForkJoinTask.inForkJoinPool())
+            task.invoke();
+        else
+            pool.invoke(task);
+    }
+
+    private static double lanczos(double x)
+    {
+        if (x == 0)
+            return 1;
+        if (x <= -LANCZOS_LOBES || x >= LANCZOS_LOBES)
+            return 0;
+        double px = Math.PI * x;
+        return LANCZOS_LOBES * Math.sin(px) * Math.sin(px / LANCZOS_LOBES) / (px * px);
+    }
+
+    /**
+     * For each pixel along one axis of the result, the image pixels it is made from and how much each counts (adding up to 1).
+     */
+    private class Weights
+    {
+        // Whether every weight but the first and last of each result pixel is the same, as for AREA.
+        private final boolean box;
+        private final int[] first;
+        private final int[] count;
+        private final int taps;
+        // taps weights for each pixel of the result, the first for image pixel first[i]. Only the first count[i] are used.
+        private final float[] weights;
+
+        Weights(int from, int to)
+        {
+            box = filter == AREA;
+            double ratio = (double)from / to;
+            // Shrinking spreads the filter over ratio image pixels, but enlarging still needs at least one.
+            double spread = Math.max(ratio, 1);
+            double radius = filter == AREA ? spread / 2 : LANCZOS_LOBES * spread;
+            taps = (int)Math.ceil(radius * 2) + 2;
+            first = new int[to];
+            count = new int[to];
+            weights = new float[to * taps];
+            double[] w = new double[taps];
+            for (int i = 0; i < to; i++)
+            {
+                double center = (i + 0.5) * ratio;
+                int start = Math.max(0, (int)Math.floor(center - radius));
+                int end = Math.min(from, (int)Math.ceil(center + radius));
+                double sum = 0;
+                for (int k = start; k < end; k++)
+                {
+                    if (filter == AREA)
+                        // How much of image pixel k (from k to k + 1) lies within the result pixel's span.
+                        w[k - start] = Math.max(0, Math.min(k + 1, center + radius) - Math.max(k, center - radius));
+                    else
+                        w[k - start] = lanczos((k + 0.5 - center) / spread);
+                    sum += w[k - start];
+                }
+                first[i] = start;
+                count[i] = end - start;
+                for (int k = start; k < end; k++)
+                    weights[i * taps + k - start] = (float)(w[k - start] / sum);
+            }
+        }
+    }
+
+    /**
+     * Scale image rows from first to last across, into rows.
+     */
+    @SuppressWarnings("serial")
+    private static class ScaleAcross extends RecursiveAction
+    {
+        private final int[] argb;
+        private final int width;
+        private final boolean opaque;
+        private final Weights across;
+        private final float[] rows;
+        private final int first;
+        private final int last;
+
+        ScaleAcross(int[] argb, int width, boolean opaque, Weights across, float[] rows, int first, int last)
+        {
+            this.argb = argb;
+            this.width = width;
+            this.opaque = opaque;
+            this.across = across;
+            this.rows = rows;
+            this.first = first;
+            this.last = last;
+        }
+
+        protected void compute()
+        {
+            int outWidth = across.first.length;
+            if (last - first > 1 && (long)(last - first) * Math.max(width, outWidth * across.taps) > TILE_WORK)
+            {
+                int middle = (first + last) >>> 1;
+                invokeAll(new ScaleAcross(argb, width, opaque, across, rows, first, middle),
+                          new ScaleAcross(argb, width, opaque, across, rows, middle, last));
+                return;
+            }
+            for (int y = first; y < last; y++)
+            {
+                int rowStart = y * width;
+                int out = y * outWidth * 3;
+                for (int x = 0; x < outWidth; x++, out += 3)
+                {
+                    float r = 0, g = 0, b = 0;
+                    int in = rowStart + across.first[x];
+                    int end = in + across.count[x];
+                    int w = x * across.taps;
+                    if (opaque && across.box && end - in > 2)
+                    {
+                        // Add up the pixels in between as whole numbers (red in the top half of rb, blue in the bottom), then weight them once.
+                        int p = argb[in];
+                        float weight = across.weights[w];
+                        r = weight * (p >> 16 & 0xFF);
+                        g = weight * (p >> 8 & 0xFF);
+                        b = weight * (p & 0xFF);
+                        long rb = 0;
+                        long gs = 0;
+                        for (int k = in + 1; k < end - 1; k++)
+                        {
+                            p = argb[k];
+                            rb += (long)(p & 0xFF0000) << 16 | p & 0xFF;
+                            gs += p & 0xFF00;
+                        }
+                        weight = across.weights[w + 1];
+                        r += weight * (rb >>> 32);
+                        g += weight * (gs >>> 8);
+                        b += weight * (rb & 0xFFFFFFFFL);
+                        p = argb[end - 1];
+                        weight = across.weights[w + end - 1 - in];
+                        r += weight * (p >> 16 & 0xFF);
+                        g += weight * (p >> 8 & 0xFF);
+                        b += weight * (p & 0xFF);
+                    }
+                    else if (opaque)
+                        for (; in < end; in++, w++)
+                        {
+                            float weight = across.weights[w];
+                            int p = argb[in];
+                            r += weight * (p >> 16 & 0xFF);
+                            g += weight * (p >> 8 & 0xFF);
+                            b += weight * (p & 0xFF);
+                        }
+                    else
+                        for (; in < end; in++, w++)
+                        {
+                            int p = argb[in];
+                            float weight = across.weights[w] * (p >>> 24) * (1 / 255f);
+                            r += weight * (p >> 16 & 0xFF);
+                            g += weight * (p >> 8 & 0xFF);
+                            b += weight * (p & 0xFF);
+                        }
+                    rows[out] = r;
+                    rows[out + 1] = g;
+                    rows[out + 2] = b;
+                }
+            }
+        }
+    }
+
+    /**
+     * Scale the rows down, into the FrameBuffer's rows from first to last.
+     */
+    @SuppressWarnings("serial")
+    private static class ScaleDown extends RecursiveAction
+    {
+        private final float[] rows;
+        private final Weights down;
+        private final FrameBuffer into;
+        private final int first;
+        private final int last;
+
+        ScaleDown(float[] rows, Weights down, FrameBuffer into, int first, int last)
+        {
+            this.rows = rows;
+            this.down = down;
+            this.into = into;
+            this.first = first;
+            this.last = last;
+        }
+
+        protected void compute()
+        {
+            int outWidth = into.getWidth();
+            if (last - first > 1 && (long)(last - first) * outWidth * down.taps * 3 > TILE_WORK)
+            {
+                int middle = (first + last) >>> 1;
+                invokeAll(new ScaleDown(rows, down, into, first, middle), new ScaleDown(rows, down, into, middle, last));
+                return;
+            }
+            int[] pixels = into.getPixels();
+            for (int y = first; y < last; y++)
+            {
+                int start = down.first[y];
+                int end = start + down.count[y];
+                for (int x = 0; x < outWidth; x++)
+                {
+                    float r = 0, g = 0, b = 0;
+                    int w = y * down.taps;
+                    for (int k = start, in = (start * outWidth + x) * 3; k < end; k++, w++, in += outWidth * 3)
+                    {
+                        float weight = down.weights[w];
+                        r += weight * rows[in];
+                        g += weight * rows[in + 1];
+                        b += weight * rows[in + 2];
+                    }
+                    pixels[y * outWidth + x] = FrameBuffer.pack(clamp(r), clamp(g), clamp(b), 255);
+                }
+            }
+        }
+
+        private static int clamp(float value)
+        {
+            return value <= 0 ? 0 : value >= 255 ? 255 : (int)(value + 0.5f);
+        }
+    }
+}
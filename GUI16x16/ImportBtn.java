@@ -1,16 +1,18 @@
 import greenfoot.*;  // (World, Actor, GreenfootImage, Greenfoot and MouseInfo)
 import java.awt.Point;
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
  
 /**
  * When this button is clicked, the rgb data of the pixels will be exported to a .txt file
+ * Images (.png, .jpg, .gif and .bmp) are scaled down to the grid's size, and every frame of an animated gif becomes a frame of the animation
+ * Video clips (a .mjpeg file, or a folder of images with one image per frame) are scaled down the same way, a frame at a time
+ * Every frame of a clip is kept in memory, so clips longer than VideoImporter.MAX_READ_PIXELS allows fail (import those with VideoImporter)
  * 
  * @author Karaleemota
  * @version (a version number or a date)
  */
-public class ImportBtn extends Button
+public class ImportBtn extends FileTaskBtn
 {
     /**
      * Act - do whatever the ExportBtn wants to do. This method is called whenever
@@ -18,7 +20,7 @@ public class ImportBtn extends Button
      */
     public void act() 
     {
-        super.act();//call the Button class act
+        super.act();//call the FileTaskBtn class act
         importFile(((MyWorld)getWorld()).getInputFile());//import pixel data from the .txt file specified in the import text field
     }
     public ImportBtn(String text, Point size)
@@ -30,35 +32,49 @@ public class ImportBtn extends Button
      */
     public void importFile(String filename)
     {
-        if(wasClicked())//the button was clicked
+        if(wasClicked() && !isBusy())//the button was clicked, and the last import is done
         {
-            //imprt from a .txt file with the filename
-            try 
-            {
-                FileReader reader = new FileReader(filename);
-                BufferedReader bufferedReader = new BufferedReader(reader);
-                String line;
-                int lineCnt = 0;//count which line we are currently looking at
-                Pixel[][] currPixels = ((MyWorld)getWorld()).getPixels();//hold all the pixels in the gui in this variable
-                //while there are lines to read, read each line
-                while ((line = bufferedReader.readLine()) != null)
+            //imprt from a .txt file (or a binary, animation or image file) with the filename, in the background
+            final Path path = MyWorld.scenarioFile(filename);
+            //images are scaled to the size the grid is now
+            final int gridWidth = ((MyWorld)getWorld()).getAnimation().getWidth();
+            final int gridHeight = ((MyWorld)getWorld()).getAnimation().getHeight();
+            start(new FileTask<Animation>() {
+                private boolean wholeAnimation;//animation files (and animated gifs) replace the whole animation
+                protected Animation call() throws IOException
                 {
-                    //line contains the current line we are looking at
-                    String[] rgbValues = line.split(" ");//seperate line by spaces
-                    int red = Integer.valueOf(rgbValues[0]);//red should be the first value in the split string
-                    int green = Integer.valueOf(rgbValues[1]);//green should be the 2nd value in the split string
-                    int blue = Integer.valueOf(rgbValues[2]);//blue should be the 3rd value in the split string
-                    //now assign the rgb values to the correct pixel in the GUI
-                    int row = (int)(lineCnt/16);//row value of pixel in the pixel array
-                    int col = lineCnt % 16;//column value of the pixel in the pixel array
-                    //now that we know which pixel we are on, change the color of that pixel
-                    currPixels[row][col].setColor(red, green, blue, 255);
-                    lineCnt++;//increment the line count
+                    if(VideoImporter.isVideo(path))
+                    {
+                        wholeAnimation = true;
+                        return new VideoImporter(gridWidth, gridHeight, ImageScaler.AREA).read(path, this);//show how much of the clip is read on the button
+                    }
+                    if(ImageFrameCodec.isImageFile(path))
+                    {
+                        Animation animation = ImageFrameCodec.readImageFile(path, gridWidth, gridHeight, new ImageScaler(ImageScaler.AREA));
+                        wholeAnimation = animation.getFrameCount() > 1;
+                        return animation;
+                    }
+                    //read the grid size and pixels
+                    wholeAnimation = AnimationReader.isAnimationFile(path);
+                    return AnimationReader.readAnyFile(path);
                 }
-                reader.close();
-            } catch (IOException e) {
-               // e.printStackTrace();
-            }
+                protected void succeeded(Animation animation)
+                {
+                    //show them in the world (resizing the grid if the file is a different size)
+                    if(wholeAnimation)
+                    {
+                        ((MyWorld)getWorld()).setAnimation(animation);
+                    }
+                    else
+                    {
+                        ((MyWorld)getWorld()).setFrameBuffer(animation.getFrame(0));
+                    }
+                }
+                protected void failed(IOException e)
+                {
+                    // e.printStackTrace();
+                }
+            });
         }
     }
 }
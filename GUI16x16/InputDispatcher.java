@@ -0,0 +1,200 @@
+import greenfoot.Actor;
+import greenfoot.Greenfoot;
+import greenfoot.MouseInfo;
+import greenfoot.World;
+
+/**
+ * InputDispatcher
+ * <p>
+ * Reads the mouse and keyboard once per act cycle and hands InputEvents to just the InputListeners they happened to, so components
+ * don't each poll Greenfoot for the mouse every act.<p>
+ * Keeps track of which listener the mouse is over (hover), which one was last pressed on (focus), and which one is being held down
+ * (it gets the DRAG and RELEASE events wherever the mouse goes).<p>
+ * The World must call dispatch() at the start of its act(), which Greenfoot calls before any Actor's act().
+ * 
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class InputDispatcher
+{
+    private static InputDispatcher instance = new InputDispatcher();
+
+    private InputListener hovered;
+    private InputListener focused;
+    private InputListener held;
+    private InputListener pressedThisAct;
+    private boolean clickedThisAct;
+    private boolean releasedThisAct;
+    private boolean draggedThisAct;
+    private boolean movedThisAct;
+    private int mouseX = -25;
+    private int mouseY = -25;
+    private String key;
+
+    /**
+     * Get the InputDispatcher of the World being shown.
+     */
+    public static InputDispatcher getInstance()
+    {
+        return instance;
+    }
+
+    /**
+     * Read this act cycle's mouse and keyboard input and hand out the events.
+     * @param world The World being shown, whose InputListeners (as found by the HitIndex) get the events.
+     */
+    public void dispatch(World world)
+    {
+        pressedThisAct = null;
+        clickedThisAct = releasedThisAct = draggedThisAct = movedThisAct = false;
+        key = Greenfoot.getKey();
+        forgetRemoved();
+
+        MouseInfo mouse = Greenfoot.getMouseInfo();
+        if (mouse == null)
+            return;
+        mouseX = mouse.getX();
+        mouseY = mouse.getY();
+        InputListener target = HitIndex.getInstance().listenerAt(world, mouseX, mouseY);
+
+        if (Greenfoot.mouseMoved(null))
+        {
+            movedThisAct = true;
+            if (target != hovered)
+            {
+                InputListener old = hovered;
+                hovered = target;
+                send(old, InputEvent.EXIT, 0);
+                send(target, InputEvent.ENTER, 0);
+            }
+        }
+        if (Greenfoot.mousePressed(null))
+        {
+            held = target;
+            pressedThisAct = target;
+            setFocus(target);
+            send(target, InputEvent.PRESS, 0);
+        }
+        if (Greenfoot.mouseDragged(null))
+        {
+            draggedThisAct = true;
+            send(held, InputEvent.DRAG, 0);
+        }
+        boolean clicked = Greenfoot.mouseClicked(null);
+        if (clicked || Greenfoot.mouseDragEnded(null))
+        {
+            clickedThisAct = clicked;
+            releasedThisAct = true;
+            if (clicked)
+                send(target, InputEvent.CLICK, mouse.getClickCount());
+            InputListener released = held;
+            held = null;
+            send(released, InputEvent.RELEASE, 0);
+        }
+    }
+
+    private void send(InputListener listener, int type, int clickCount)
+    {
+        if (listener != null)
+            listener.handleEvent(new InputEvent(type, mouseX, mouseY, clickCount));
+    }
+
+    /**
+     * Drop any listener that has been taken out of the World (and not put back since the last act cycle).
+     */
+    private void forgetRemoved()
+    {
+        if (hovered instanceof Actor && ((Actor)hovered).getWorld() == null)
+            hovered = null;
+        if (focused instanceof Actor && ((Actor)focused).getWorld() == null)
+            focused = null;
+        if (held instanceof Actor && ((Actor)held).getWorld() == null)
+            held = null;
+    }
+
+    /**
+     * Give the focus to a listener, taking it from the one that had it. Any key typed this act cycle is dropped, so it doesn't go to
+     * the newly focused listener.
+     * @param listener The listener to focus, or null for none.
+     */
+    public void setFocus(InputListener listener)
+    {
+        if (listener == focused)
+            return;
+        InputListener old = focused;
+        focused = listener;
+        key = null;
+        send(old, InputEvent.FOCUS_LOST, 0);
+        send(listener, InputEvent.FOCUS_GAINED, 0);
+    }
+
+    public InputListener getHovered()
+    {
+        return hovered;
+    }
+    public InputListener getFocused()
+    {
+        return focused;
+    }
+
+    /**
+     * Get the listener the mouse was pressed on this act cycle, if any.
+     */
+    public InputListener getPressed()
+    {
+        return pressedThisAct;
+    }
+
+    /**
+     * Check if the mouse was pressed and let go (anywhere) this act cycle.
+     */
+    public boolean wasClicked()
+    {
+        return clickedThisAct;
+    }
+
+    /**
+     * Check if the mouse was let go (anywhere, whether clicked or at the end of a drag) this act cycle.
+     */
+    public boolean wasReleased()
+    {
+        return releasedThisAct;
+    }
+
+    /**
+     * Check if the mouse moved while held down this act cycle.
+     */
+    public boolean wasDragged()
+    {
+        return draggedThisAct;
+    }
+
+    /**
+     * Check if the mouse moved (not held down) this act cycle.
+     */
+    public boolean wasMoved()
+    {
+        return movedThisAct;
+    }
+
+    /**
+     * Get the x-coordinate of where the mouse was last seen within the World.
+     */
+    public int getMouseX()
+    {
+        return mouseX;
+    }
+    public int getMouseY()
+    {
+        return mouseY;
+    }
+
+    /**
+     * Get the key typed this act cycle (see Greenfoot.getKey()), if the given listener has the focus.
+     * @return The key, or null if none was typed or the listener doesn't have the focus.
+     */
+    public String getKey(InputListener listener)
+    {
+        return listener == focused ? key : null;
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * InputEvent
+ * <p>
+ * Something the mouse did to an InputListener, handed to it by the InputDispatcher.<p>
+ * Types:<p>
+ * PRESS: the mouse was pressed on the listener.<p>
+ * DRAG: the mouse moved while held down, after being pressed on the listener (wherever the mouse is now).<p>
+ * RELEASE: the mouse was let go, after being pressed on the listener (wherever the mouse is now).<p>
+ * CLICK: the mouse was pressed and let go on the listener. Comes before the RELEASE.<p>
+ * ENTER and EXIT: the mouse moved onto or off of the listener.<p>
+ * FOCUS_GAINED and FOCUS_LOST: the listener became or stopped being the one last pressed on.
+ * 
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class InputEvent
+{
+    public static final int PRESS = 0, DRAG = 1, RELEASE = 2, CLICK = 3, ENTER = 4, EXIT = 5, FOCUS_GAINED = 6, FOCUS_LOST = 7;
+
+    private final int type;
+    private final int x;
+    private final int y;
+    private final int clickCount;
+
+    /**
+     * Create a new InputEvent.
+     * @param type One of the type constants.
+     * @param x The x-coordinate of the mouse within the World.
+     * @param y The y-coordinate of the mouse within the World.
+     * @param clickCount The number of clicks in a row, for CLICK events.
+     */
+    public InputEvent(int type, int x, int y, int clickCount)
+    {
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        this.clickCount = clickCount;
+    }
+
+    public int getType()
+    {
+        return type;
+    }
+    public int getX()
+    {
+        return x;
+    }
+    public int getY()
+    {
+        return y;
+    }
+    public int getClickCount()
+    {
+        return clickCount;
+    }
+}
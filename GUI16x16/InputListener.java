@@ -0,0 +1,15 @@
+/**
+ * InputListener
+ * <p>
+ * An Actor that the InputDispatcher hands mouse events to. Every GUI_Component is one.
+ * 
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public interface InputListener
+{
+    /**
+     * Called by the InputDispatcher, during the World's act(), for each event that happened to this listener.
+     */
+    void handleEvent(InputEvent event);
+}
@@ -1,6 +1,5 @@
 import greenfoot.GreenfootImage;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.Color;
@@ -8,7 +7,9 @@ import java.awt.Color;
 /**
  * Label
  * <p>
- * Used to display a String.
+ * Used to display a String.<p>
+ * Text is measured with the TextMetricsCache and drawn from its GlyphAtlas where it can be, and the image is reused while the text
+ * stays the same size, so a Label updated every act (a counter, coordinates) doesn't allocate.
  * 
  * @author Taylor Born
  * @version November 2010 - March 2014
@@ -16,6 +17,8 @@ import java.awt.Color;
 public class Label extends WindowComponent
 {
     protected String text;
+    private GreenfootImage drawn;
+    private int[] atts = new int[3];
 
     public Label(String text, Font font, Color color)
     {
@@ -48,30 +51,34 @@ public class Label extends WindowComponent
     protected GreenfootImage draw()
     {
         int[] atts = getTextAttributes();
-        GreenfootImage image = new GreenfootImage(1 + atts[0], 1 + atts[1] + atts[2]);
-        Graphics2D g = image.getAwtImage().createGraphics();
-        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g.setFont(font);
-        g.setColor(textColor);
-        g.drawString(text, 0, atts[1]);
-        g.dispose();
-        return image;
+        if (drawn == null || drawn.getWidth() != 1 + atts[0] || drawn.getHeight() != 1 + atts[1] + atts[2])
+            drawn = new GreenfootImage(1 + atts[0], 1 + atts[1] + atts[2]);
+        else
+            drawn.clear();
+        GlyphAtlas atlas = TextMetricsCache.getGlyphAtlas(font);
+        if (atlas.canDraw(text))
+            atlas.drawString(drawn.getAwtImage(), text, 0, atts[1], textColor);
+        else
+        {
+            Graphics2D g = drawn.getAwtImage().createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setFont(font);
+            g.setColor(textColor);
+            g.drawString(text, 0, atts[1]);
+            g.dispose();
+        }
+        return drawn;
     }
     
+    /**
+     * Get the width, ascent and descent of the text.
+     * @return The same array each time, so don't hold on to it.
+     */
     protected int[] getTextAttributes()
     {
-        int[] atts = new int[3];
-        
-        Graphics2D g = (new GreenfootImage(1, 1)).getAwtImage().createGraphics();
-        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g.setFont(font);
-        FontMetrics fm = g.getFontMetrics();
-        
-        atts[0] = fm.stringWidth(text);
-        atts[1] = fm.getAscent();
-        atts[2] = fm.getDescent();
-        
-        g.dispose();
+        atts[0] = TextMetricsCache.stringWidth(font, text);
+        atts[1] = TextMetricsCache.getAscent(font);
+        atts[2] = TextMetricsCache.getDescent(font);
         return atts;
     }
     
@@ -0,0 +1,162 @@
+import java.io.OutputStream;
+
+/**
+ * LedEmulator
+ * <p>
+ * Stands in for the LED controller running Arduino_Code/ledStream.ino, so streaming can be tested without hardware.<p>
+ * Bytes written to it are read the same way the sketch reads them from the serial port: wait for an Adalight header with a good checksum,
+ * then take 3 bytes per LED. The LEDs' colors, and counts of good packets and bad headers, can then be checked.<p>
+ * Optionally writes take as long as they would over a serial link at a given baud rate (10 bits per byte), to test throughput and latency.<p>
+ * Run main() to measure how many frames per second reach the emulator.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class LedEmulator extends OutputStream
+{
+    private static final byte[] MAGIC = { 'A', 'd', 'a' };
+
+    private int[] leds = new int[0];
+    private byte[] header = new byte[LedPacket.HEADER_SIZE];
+    private int headerPos;
+    private int ledCount;
+    private int dataPos;
+    private byte[] data = new byte[0];
+
+    private long baudRate;
+    private long framesReceived;
+    private long badHeaders;
+    private long bytesReceived;
+
+    /**
+     * Create a new LedEmulator that takes bytes as fast as they are written.
+     */
+    public LedEmulator()
+    {}
+
+    /**
+     * Create a new LedEmulator that takes bytes as fast as a serial link at the given baud rate could.
+     */
+    public LedEmulator(long baudRate)
+    {
+        this.baudRate = baudRate;
+    }
+
+    @Override
+    public synchronized void write(int b)
+    {
+        receive((byte)b);
+        throttle(1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len)
+    {
+        for (int i = off; i < off + len; i++)
+            receive(b[i]);
+        throttle(len);
+    }
+
+    private void receive(byte b)
+    {
+        bytesReceived++;
+        if (ledCount == 0)
+        {
+            // Looking for the header. On a bad magic byte or checksum, start looking again from this byte.
+            if (headerPos < MAGIC.length && b != MAGIC[headerPos])
+            {
+                if (headerPos > 0)
+                    badHeaders++;
+                headerPos = b == MAGIC[0] ? 1 : 0;
+                return;
+            }
+            header[headerPos++] = b;
+            if (headerPos < LedPacket.HEADER_SIZE)
+                return;
+            headerPos = 0;
+            int count = ((header[3] & 0xFF) << 8 | (header[4] & 0xFF)) + 1;
+            if ((header[5] & 0xFF) != LedPacket.checksum(count))
+            {
+                badHeaders++;
+                return;
+            }
+            ledCount = count;
+            dataPos = 0;
+            if (data.length < count * 3)
+                data = new byte[count * 3];
+            return;
+        }
+        data[dataPos++] = b;
+        if (dataPos == ledCount * 3)
+        {
+            if (leds.length != ledCount)
+                leds = new int[ledCount];
+            for (int i = 0, p = 0; i < ledCount; i++, p += 3)
+                leds[i] = 0xFF000000 | (data[p] & 0xFF) << 16 | (data[p + 1] & 0xFF) << 8 | (data[p + 2] & 0xFF);
+            framesReceived++;
+            ledCount = 0;
+        }
+    }
+
+    /**
+     * Sleep for as long as the given number of bytes would take to go over the serial link.
+     */
+    private void throttle(int bytes)
+    {
+        if (baudRate <= 0)
+            return;
+        long nanos = bytes * 10L * 1000000000L / baudRate;
+        try {
+            Thread.sleep(nanos / 1000000, (int)(nanos % 1000000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get a copy of the LEDs' colors (as opaque packed ARGB) from the last full packet, in strip order.
+     */
+    public synchronized int[] getLeds()
+    {
+        return leds.clone();
+    }
+    public synchronized long getFramesReceived()
+    {
+        return framesReceived;
+    }
+    public synchronized long getBadHeaders()
+    {
+        return badHeaders;
+    }
+    public synchronized long getBytesReceived()
+    {
+        return bytesReceived;
+    }
+
+    /**
+     * Measure streaming throughput and latency into an emulator.
+     * @param args Optional grid width, grid height, baud rate (0 for unthrottled) and number of frames. Defaults to 16 16 500000 200.
+     */
+    public static void main(String[] args) throws Exception
+    {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        long baud = args.length > 2 ? Long.parseLong(args[2]) : 500000;
+        int frames = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+
+        LedEmulator emulator = new LedEmulator(baud);
+        FrameStreamer streamer = new FrameStreamer(emulator);
+        FrameBuffer frame = new FrameBuffer(width, height);
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++)
+        {
+            frame.fill(0xFF000000 | i * 0x010305);
+            streamer.sendNow(frame);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(width + "x" + height + " at " + (baud > 0 ? baud + " baud" : "unthrottled") + ": "
+                           + emulator.getFramesReceived() + "/" + frames + " frames, " + emulator.getBadHeaders() + " bad headers");
+        System.out.printf("%.1f frames/s, %.1f KB/s, %.3f ms average latency%n",
+                          frames / seconds, streamer.getBytesSent() / 1024.0 / seconds, streamer.getAverageLatencyMillis());
+    }
+}
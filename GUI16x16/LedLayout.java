@@ -0,0 +1,200 @@
+/**
+ * LedLayout
+ * <p>
+ * How the LEDs of a matrix are wired: which pixel of a FrameBuffer the first LED on the strip shows, which the second shows, and so on.<p>
+ * A layout is turned into an index lookup table once per frame size by getOrder(), so encoders just walk the table and write bytes in
+ * strip order. The microcontroller can then copy them straight into its LED buffer without remapping.<p>
+ * Layouts can be named by a spec string (see parse()), which is how they are typed into the GUI and stored in files:
+ * <pre>
+ * column                      every pixel of x = 0 top to bottom, then x = 1, ... (the original export order, and the default)
+ * row                         every pixel of y = 0 left to right, then y = 1, ...
+ * serpentine                  rows, with every other row running right to left
+ * serpentine-column           columns, with every other column running bottom to top
+ * tiled:WxH:inner:rotation    panels of WxH pixels chained left to right, top to bottom. Each panel is wired with the inner layout
+ *                             (column, row, serpentine or serpentine-column) and rotated clockwise by 0, 90, 180 or 270 degrees.
+ *                             Add ":snake" to chain every other row of panels right to left.
+ * </pre>
+ * Extend this class and override buildOrder() for other wirings.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public abstract class LedLayout
+{
+    public static final LedLayout COLUMN_MAJOR = new Simple("column", false, false);
+    public static final LedLayout ROW_MAJOR = new Simple("row", true, false);
+    public static final LedLayout SERPENTINE = new Simple("serpentine", true, true);
+    public static final LedLayout SERPENTINE_COLUMN = new Simple("serpentine-column", false, true);
+
+    private int orderWidth;
+    private int orderHeight;
+    private int[] order;
+
+    /**
+     * Get the layout named by a spec string. See the class description for the spec strings.
+     * @throws IllegalArgumentException If the spec string does not name a layout.
+     */
+    public static LedLayout parse(String spec)
+    {
+        String s = spec.trim().toLowerCase();
+        for (LedLayout simple : new LedLayout[] { COLUMN_MAJOR, ROW_MAJOR, SERPENTINE, SERPENTINE_COLUMN })
+            if (s.equals(simple.toString()))
+                return simple;
+        String[] parts = s.split(":");
+        if (parts[0].equals("tiled") && (parts.length == 4 || parts.length == 5 && parts[4].equals("snake")))
+        {
+            String[] size = parts[1].split("x");
+            try {
+                if (size.length == 2)
+                {
+                    LedLayout inner = parse(parts[2]);
+                    if (inner instanceof Simple)
+                        return new Tiled(Integer.parseInt(size[0]), Integer.parseInt(size[1]), (Simple)inner, Integer.parseInt(parts[3]), parts.length == 5);
+                }
+            } catch (NumberFormatException e) {
+                // Falls through to the error below.
+            }
+        }
+        throw new IllegalArgumentException("Unknown LED layout \"" + spec + "\"");
+    }
+
+    /**
+     * Get the lookup table for frames of the given size: entry i is the index into FrameBuffer.getPixels() of the pixel LED i shows.<p>
+     * The table is built the first time and reused while the size stays the same. It must not be changed.
+     */
+    public synchronized int[] getOrder(int width, int height)
+    {
+        if (order == null || width != orderWidth || height != orderHeight)
+        {
+            int[] built = buildOrder(width, height);
+            if (built.length != width * height)
+                throw new IllegalStateException(this + " gave " + built.length + " LEDs for a " + width + "x" + height + " frame");
+            order = built;
+            orderWidth = width;
+            orderHeight = height;
+        }
+        return order;
+    }
+
+    /**
+     * Build the lookup table for frames of the given size. See getOrder().
+     */
+    protected abstract int[] buildOrder(int width, int height);
+
+    /**
+     * Get the spec string naming this layout.
+     */
+    @Override
+    public abstract String toString();
+
+    /**
+     * Rows or columns, straight or serpentine.
+     */
+    private static class Simple extends LedLayout
+    {
+        private String name;
+        private boolean rows;
+        private boolean serpentine;
+
+        public Simple(String name, boolean rows, boolean serpentine)
+        {
+            this.name = name;
+            this.rows = rows;
+            this.serpentine = serpentine;
+        }
+
+        /**
+         * Get the (x, y) of the given LED, for a grid of the given size, packed as x * 65536 + y.
+         */
+        public int position(int led, int width, int height)
+        {
+            int line = rows ? led / width : led / height;
+            int along = rows ? led % width : led % height;
+            if (serpentine && line % 2 == 1)
+                along = (rows ? width : height) - 1 - along;
+            return rows ? along << 16 | line : line << 16 | along;
+        }
+
+        @Override
+        protected int[] buildOrder(int width, int height)
+        {
+            int[] order = new int[width * height];
+            for (int led = 0; led < order.length; led++)
+            {
+                int p = position(led, width, height);
+                order[led] = (p & 0xFFFF) * width + (p >>> 16);
+            }
+            return order;
+        }
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+    }
+
+    /**
+     * Panels of the same size chained together, each wired with a simple layout and rotated.
+     */
+    private static class Tiled extends LedLayout
+    {
+        private int panelWidth;
+        private int panelHeight;
+        private Simple inner;
+        private int rotation;
+        private boolean snake;
+
+        public Tiled(int panelWidth, int panelHeight, Simple inner, int rotation, boolean snake)
+        {
+            if (panelWidth < 1 || panelHeight < 1)
+                throw new IllegalArgumentException("Panels must be at least 1x1");
+            if (rotation != 0 && rotation != 90 && rotation != 180 && rotation != 270)
+                throw new IllegalArgumentException("Panel rotation must be 0, 90, 180 or 270, not " + rotation);
+            this.panelWidth = panelWidth;
+            this.panelHeight = panelHeight;
+            this.inner = inner;
+            this.rotation = rotation;
+            this.snake = snake;
+        }
+
+        @Override
+        protected int[] buildOrder(int width, int height)
+        {
+            if (width % panelWidth != 0 || height % panelHeight != 0)
+                throw new IllegalArgumentException("A " + width + "x" + height + " frame is not made of whole " + panelWidth + "x" + panelHeight + " panels");
+            int across = width / panelWidth;
+            int perPanel = panelWidth * panelHeight;
+            // The panel as wired is turned on its side when rotated 90 or 270 degrees.
+            boolean sideways = rotation == 90 || rotation == 270;
+            int wiredWidth = sideways ? panelHeight : panelWidth;
+            int wiredHeight = sideways ? panelWidth : panelHeight;
+            int[] order = new int[width * height];
+            for (int led = 0; led < order.length; led++)
+            {
+                int panel = led / perPanel;
+                int panelRow = panel / across;
+                int panelCol = panel % across;
+                if (snake && panelRow % 2 == 1)
+                    panelCol = across - 1 - panelCol;
+                int p = inner.position(led % perPanel, wiredWidth, wiredHeight);
+                int u = p >>> 16, v = p & 0xFFFF;
+                int x, y;
+                switch (rotation) {
+                    case 90:  x = panelWidth - 1 - v; y = u; break;
+                    case 180: x = panelWidth - 1 - u; y = panelHeight - 1 - v; break;
+                    case 270: x = v; y = panelHeight - 1 - u; break;
+                    default:  x = u; y = v; break;
+                }
+                order[led] = (panelRow * panelHeight + y) * width + panelCol * panelWidth + x;
+            }
+            return order;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "tiled:" + panelWidth + "x" + panelHeight + ":" + inner + ":" + rotation + (snake ? ":snake" : "");
+        }
+    }
+}
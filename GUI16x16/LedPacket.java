@@ -0,0 +1,83 @@
+/**
+ * LedPacket
+ * <p>
+ * Builds the packets frames are streamed to the LED controller in. Packets follow the Adalight protocol so the receiving sketch
+ * (Arduino_Code/ledStream.ino) or any other Adalight receiver can read them:<p>
+ * <pre>
+ * 'A' 'd' 'a'            magic
+ * count high, count low  number of LEDs minus one, big-endian
+ * checksum               count high ^ count low ^ 0x55
+ * r g b ...              3 bytes per LED, in strip order
+ * </pre>
+ * Pixels go out in the order of the LedLayout the stream is set to. The protocol has no way to send part of a frame, so every packet
+ * holds every LED; putPixel() lets a kept packet be brought up to date by rewriting only the LEDs that changed.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class LedPacket
+{
+    public static final int HEADER_SIZE = 6;
+    public static final int MAX_LEDS = 0x10000;
+
+    private LedPacket()
+    {}
+
+    /**
+     * Get the size in bytes of a packet for the given number of LEDs.
+     */
+    public static int packetSize(int ledCount)
+    {
+        return HEADER_SIZE + ledCount * 3;
+    }
+
+    /**
+     * Get the checksum byte for a packet of the given number of LEDs.
+     */
+    public static int checksum(int ledCount)
+    {
+        int n = ledCount - 1;
+        return (n >> 8 ^ n ^ 0x55) & 0xFF;
+    }
+
+    /**
+     * Write the header for the given number of LEDs to the start of a packet.
+     */
+    public static void writeHeader(byte[] packet, int ledCount)
+    {
+        if (ledCount < 1 || ledCount > MAX_LEDS)
+            throw new IllegalArgumentException("Adalight packets hold 1 to " + MAX_LEDS + " LEDs, not " + ledCount);
+        int n = ledCount - 1;
+        packet[0] = 'A';
+        packet[1] = 'd';
+        packet[2] = 'a';
+        packet[3] = (byte)(n >> 8);
+        packet[4] = (byte)n;
+        packet[5] = (byte)checksum(ledCount);
+    }
+
+    /**
+     * Fill a packet with the header and every pixel of a FrameBuffer.
+     * @param packet Must be at least packetSize() of the FrameBuffer's pixel count.
+     * @param order The indexes into the FrameBuffer's pixels, in the order the LEDs are wired.
+     */
+    public static void encode(FrameBuffer frame, int[] order, byte[] packet)
+    {
+        writeHeader(packet, order.length);
+        int[] pixels = frame.getPixels();
+        for (int i = 0; i < order.length; i++)
+            putPixel(packet, i, pixels[order[i]]);
+    }
+
+    /**
+     * Put the color of one LED into a packet.
+     * @param led The LED's position on the strip.
+     */
+    public static void putPixel(byte[] packet, int led, int argb)
+    {
+        int p = HEADER_SIZE + led * 3;
+        packet[p] = (byte)(argb >> 16);
+        packet[p + 1] = (byte)(argb >> 8);
+        packet[p + 2] = (byte)argb;
+    }
+}
@@ -0,0 +1,302 @@
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.util.Arrays;
+
+/**
+ * LineWrapper
+ * <p>
+ * Breaks text into lines that fit within a width, the way TextBox shows it, keeping each line as a start and end offset into
+ * one char array rather than as its own String.<p>
+ * The width of any run of characters is the difference of two entries in a running total of character widths, and where an
+ * over-long word has to be broken is found by binary search on it.<p>
+ * When told which part of the text changed since it was last wrapped, only the lines that can be affected are wrapped again.
+ * Does not depend on Greenfoot.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class LineWrapper
+{
+    // What is wrapped into lines: the text with new lines turned to spaces, and a space added to the end, the same as the
+    // paragraphs it is broken into. Lines are kept as offsets into this.
+    private char[] source = new char[64];
+    private int sourceLength;
+    // Width in pixels of the first i characters of source, for any i. Widths of a line or part of it are the difference of two.
+    private int[] prefix = new int[65];
+
+    // Start and end in source of each line. Every line is drawn, except the last one when lastLineShown is false.
+    private int[] lineStart = new int[16];
+    private int[] lineEnd = new int[16];
+    private int lines;
+    private boolean lastLineShown;
+    // Lines being built by wrap(), swapped with the above when done.
+    private int[] newStart = new int[16];
+    private int[] newEnd = new int[16];
+    private int newLines;
+
+    // What the lines were last wrapped from, to tell what has changed.
+    private CharSequence wrapped;
+    private int wrappedLength;
+    private Font wrappedFont;
+    private int wrappedLimit;
+    private boolean wrappedParagraphs;
+
+    /**
+     * Get the number of lines, counting a last line that isn't drawn.
+     */
+    public int getLineCount()
+    {
+        return lines;
+    }
+
+    /**
+     * Get the number of lines drawn: all but the last line when it is only the space added to the end.
+     */
+    public int getShownLineCount()
+    {
+        return lastLineShown ? lines : lines - 1;
+    }
+
+    public int lineStart(int line)
+    {
+        return lineStart[line];
+    }
+
+    public int lineEnd(int line)
+    {
+        return lineEnd[line];
+    }
+
+    /**
+     * Get the wrapped text, with new lines turned to spaces. Lines are ranges within it.
+     */
+    public char[] getSource()
+    {
+        return source;
+    }
+
+    /**
+     * Get the number of characters in a line, counting the space the line ends with.
+     */
+    public int lineLength(int line)
+    {
+        return lineEnd[line] - lineStart[line];
+    }
+
+    /**
+     * Get the width in pixels of the first given number of characters of a line.
+     */
+    public int lineWidth(int line, int chars)
+    {
+        return prefix[lineStart[line] + chars] - prefix[lineStart[line]];
+    }
+
+    /**
+     * Break text into lines that fit within a width.<p>
+     * Text is broken into paragraphs at new lines, then each paragraph into words (each with the spaces after it). Words are put on
+     * a line while they fit, and a word too wide for a line of its own is broken where it reaches the edge.<p>
+     * Only what changed since last time is wrapped again: from the line before the first changed character (that line can take a word
+     * back), to the end of the paragraph where the changes end. Later paragraphs keep their lines, moved by the change in length.
+     * @param s The text to wrap.
+     * @param from Index of the first character changed since the last time s was wrapped.
+     * @param sameEnd How many characters at the end of s have not changed since the last time it was wrapped.
+     * @param font The Font the text is drawn in.
+     * @param limit The width in pixels lines must fit within.
+     */
+    public void wrap(CharSequence s, int from, int sameEnd, Font font, int limit)
+    {
+        if (s == wrapped && s.length() == wrappedLength && from >= s.length() && font == wrappedFont && limit == wrappedLimit)
+            return;
+        boolean paragraphs = s instanceof TextDocument ? ((TextDocument)s).hasNewLines() : indexOfNewLine(s, 0) != -1;
+
+        // How much from the start and end is the same as last time.
+        boolean rewrapAll = s != wrapped || !font.equals(wrappedFont) || limit != wrappedLimit || paragraphs != wrappedParagraphs;
+        if (rewrapAll)
+        {
+            from = 0;
+            sameEnd = 0;
+        }
+        else
+        {
+            from = Math.min(from, Math.min(s.length(), wrappedLength));
+            sameEnd = Math.min(sameEnd, Math.min(s.length(), wrappedLength) - from);
+        }
+        int shift = s.length() - (wrapped == null ? 0 : wrappedLength);
+
+        // Put the changed part of the text into source, move the unchanged end to where it now is, and bring the widths up to date.
+        sourceLength = s.length() + (paragraphs ? 2 : 1);
+        if (source.length < sourceLength)
+        {
+            source = Arrays.copyOf(source, sourceLength * 2);
+            prefix = Arrays.copyOf(prefix, sourceLength * 2 + 1);
+        }
+        System.arraycopy(source, s.length() - shift - sameEnd, source, s.length() - sameEnd, sameEnd);
+        int changeEnd = s.length() - sameEnd;
+        FontMetrics fm = TextMetricsCache.getFontMetrics(font);
+        if (s instanceof TextDocument)
+            ((TextDocument)s).getChars(from, changeEnd, source, from);
+        else
+            for (int i = from; i < changeEnd; i++)
+                source[i] = s.charAt(i);
+        for (int i = from; i < changeEnd; i++)
+            if (source[i] == '\n')
+                source[i] = ' ';
+        for (int i = s.length(); i < sourceLength; i++)
+            source[i] = ' ';
+        for (int i = from; i < sourceLength; i++)
+            prefix[i + 1] = prefix[i] + fm.charWidth(source[i]);
+
+        newLines = 0;
+        int restart = 0;
+        if (!rewrapAll)
+        {
+            // Paragraph the first change is in.
+            int paragraphStart = from;
+            while (paragraphStart > 0 && s.charAt(paragraphStart - 1) != '\n')
+                paragraphStart--;
+            // Line the first change is in, then back to a line whose first word is before the change (so the line before it is
+            // not affected), or the start of the paragraph.
+            int line = lines - 1;
+            while (line > 0 && lineStart[line] > from)
+                line--;
+            while (line > 0 && lineStart[line] > paragraphStart && endOfWord(lineStart[line]) >= from)
+                line--;
+            restart = Math.max(lineStart[line], paragraphStart);
+            while (newLines < lines && lineStart[newLines] < restart)
+                addLine(lineStart[newLines], lineEnd[newLines]);
+        }
+
+        // Wrap paragraph by paragraph, until one starts after the changes, from where the old lines can be kept.
+        int oldChangeEnd = rewrapAll ? Integer.MAX_VALUE : wrappedLength - sameEnd;
+        int start = restart;
+        boolean lastShown = true;
+        while (start < sourceLength)
+        {
+            int end = paragraphs ? indexOfNewLine(s, start) + 1 : 0;
+            boolean last = end == 0;
+            if (last)
+                end = sourceLength;
+            lastShown = wrapParagraph(start, end, last, limit);
+            start = end;
+            if (!last && start - shift - 1 >= oldChangeEnd)
+            {
+                // The new line before this paragraph is one that was there before, so the rest of the old lines still fit.
+                int line = 0;
+                while (line < lines && lineStart[line] < start - shift)
+                    line++;
+                for (; line < lines; line++)
+                    addLine(lineStart[line] + shift, lineEnd[line] + shift);
+                lastShown = lastLineShown;
+                break;
+            }
+        }
+
+        int[] t = lineStart;
+        lineStart = newStart;
+        newStart = t;
+        t = lineEnd;
+        lineEnd = newEnd;
+        newEnd = t;
+        lines = newLines;
+        lastLineShown = lastShown;
+
+        wrapped = s;
+        wrappedLength = s.length();
+        wrappedFont = font;
+        wrappedLimit = limit;
+        wrappedParagraphs = paragraphs;
+    }
+
+    private int indexOfNewLine(CharSequence s, int from)
+    {
+        for (int i = from; i < s.length(); i++)
+            if (s.charAt(i) == '\n')
+                return i;
+        return -1;
+    }
+
+    /**
+     * Wrap one paragraph of source, from a point that starts a line.
+     * @param from Where the paragraph starts, or a line within it that the lines before are known for.
+     * @param end Where the paragraph ends, after the space that ends it.
+     * @param last Whether it is the last paragraph.
+     * @return Whether its last line is to be drawn (only a last paragraph's last line of one space isn't).
+     */
+    private boolean wrapParagraph(int from, int end, boolean last, int limit)
+    {
+        // Current line is from lineBegin to pos.
+        int lineBegin = from;
+        int pos = from;
+        while (pos < end)
+        {
+            // The next word to try to add to the line, with the space after it.
+            int next = endOfWord(pos) + 1;
+            int lineWidth = prefix[pos] - prefix[lineBegin];
+            int nextWidth = prefix[next] - prefix[pos];
+
+            if (lineWidth + nextWidth > limit)
+            {
+                // A word too wide for any line, at the start of one: break it where it reaches the edge.
+                if (pos == lineBegin)
+                {
+                    pos = lastFitting(pos, next, limit);
+                    addLine(lineBegin, pos);
+                    lineBegin = pos;
+                    continue;
+                }
+                addLine(lineBegin, pos);
+                lineBegin = pos;
+                if (nextWidth > limit)
+                {
+                    pos = lastFitting(pos, next, limit);
+                    continue;
+                }
+            }
+            pos = next;
+        }
+        boolean shown = !last || pos - lineBegin > 1 || source[lineBegin] != ' ';
+        addLine(lineBegin, pos);
+        return shown;
+    }
+
+    /**
+     * Get the index of the space ending the word at the given index.
+     */
+    private int endOfWord(int index)
+    {
+        while (source[index] != ' ')
+            index++;
+        return index;
+    }
+
+    /**
+     * Find how far from start text fits within the limit, searching the widths between start and end. Always at least one character.
+     */
+    private int lastFitting(int start, int end, int limit)
+    {
+        int low = start + 1;
+        int high = end;
+        // Find the first index whose width from start is over the limit.
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (prefix[mid] - prefix[start] > limit)
+                high = mid;
+            else
+                low = mid + 1;
+        }
+        return Math.max(start + 1, low - 1);
+    }
+
+    private void addLine(int start, int end)
+    {
+        if (newLines == newStart.length)
+        {
+            newStart = Arrays.copyOf(newStart, newLines * 2);
+            newEnd = Arrays.copyOf(newEnd, newLines * 2);
+        }
+        newStart[newLines] = start;
+        newEnd[newLines] = end;
+        newLines++;
+    }
+}
@@ -1,6 +1,5 @@
 import greenfoot.GreenfootImage;
 import greenfoot.Greenfoot;
-import greenfoot.MouseInfo;
 import greenfoot.World;
 import java.util.ArrayList;
 import java.awt.Font;
@@ -15,6 +14,8 @@ import java.awt.Point;
  * A GUI component that displays navigable items in a menu fashion. In that items can contain list of items.<p>
  * Implements key combination shortcuts, enable/disable, checked status among individual item or groups of items.<p>
  * Upper left corner can be pinned to a Point.<p>
+ * Items are kept as a tree of MenuNodes, each finding its items by name, so an address like "Insert/Shape/Arrow" is followed one name
+ * at a time without cutting it into Strings.<p>
  * <p>
  * Action listener: getItemPressed()
  * 
@@ -27,9 +28,16 @@ public class Menu extends WindowComponent
 
     private Point home = new Point(0, 0);
     private Point lastMouse = new Point(-25, -25);
-    private ArrayList<MenuItem> items = new ArrayList<MenuItem>();
+    private boolean clickedNow;
+    // Holds the top bar MenuItems as its items.
+    private final MenuItem root = new MenuItem("");
+    private ArrayList<MenuItem> items = root.getItems();
     private ArrayList<MenuSet> sets = new ArrayList<MenuSet>();
-    private String active = "";
+    // The path of MenuItems open, starting with a top MenuItem. Empty if the Menu isn't being navigated.
+    private ArrayList<MenuItem> active = new ArrayList<MenuItem>();
+    // The active path as it was when drawing began, and the MenuItems drawn so far along it.
+    private ArrayList<MenuItem> path = new ArrayList<MenuItem>();
+    private ArrayList<MenuItem> address = new ArrayList<MenuItem>();
     private String itemPressed = null;
     private Point origin;
     private String keysPressed = "";
@@ -43,7 +51,7 @@ public class Menu extends WindowComponent
     public Menu(ArrayList<String> menuItems)
     {
         for (String s : menuItems)
-            items.add(new MenuItem(s));
+            root.add(new MenuItem(s));
     }
     
     /**
@@ -71,9 +79,9 @@ public class Menu extends WindowComponent
     @Override
     public void act() 
     {
-        MouseInfo mouse = Greenfoot.getMouseInfo();
-        if (Greenfoot.mouseMoved(null) || Greenfoot.mouseDragged(null))
-            lastMouse.setLocation(mouse.getX(), mouse.getY());
+        InputDispatcher dispatcher = InputDispatcher.getInstance();
+        if (dispatcher.wasMoved() || dispatcher.wasDragged())
+            lastMouse.setLocation(dispatcher.getMouseX(), dispatcher.getMouseY());
         
         int height = font.getSize();
         
@@ -88,10 +96,18 @@ public class Menu extends WindowComponent
         else
         {
             for (int i = 0; i < items.size(); i++)
-                if (active.startsWith(items.get(i).getName() + "/"))
+                if (items.get(i) == active.get(0))
                 {
-                    width += items.get(i).getRunningWidth(active.substring(active.indexOf("/") + 1), true);
-                    height += font.getSize() + items.get(i).getRunningHeight(active.substring(active.indexOf("/") + 1));
+                    // The list of each MenuItem along the active path is open.
+                    height += font.getSize();
+                    for (int d = 0; d < active.size(); d++)
+                    {
+                        MenuItem mi = active.get(d);
+                        width += mi.getLargestChild();
+                        if (mi.getItems().isEmpty())
+                            break;
+                        height += (mi.getItems().size() - 1) * font.getSize();
+                    }
                     break;
                 }
                 else
@@ -114,9 +130,10 @@ public class Menu extends WindowComponent
         // Location of mouse relative to the Menu's image's top left corner.
         Point offsetMouse = new Point((int)lastMouse.getX() - (getX() - (width / 2)), (int)lastMouse.getY() - (getY() - (height / 2)));
         
-        boolean clicked = Greenfoot.mouseClicked(this);
-        if (!clicked && Greenfoot.mouseClicked(null))
-            active = "";
+        boolean clicked = clickedNow;
+        clickedNow = false;
+        if (!clicked && dispatcher.wasClicked())
+            active.clear();
         
         // Check if clicked on top MenuItems.
         if (clicked && offsetMouse.getY() < font.getSize())//offsetMouse.getX() > 0 && offsetMouse.getX() < width && offsetMouse.getY() > 0 && offsetMouse.getY() < font.getSize())
@@ -132,10 +149,10 @@ public class Menu extends WindowComponent
                         World w = getWorld();
                         removeFromWorld();
                         w.addObject(this, x, y);
-                        active = mi.getName() + "/";
+                        active.add(mi);
                     }
                     else
-                        active = "";
+                        active.clear();
                     clicked = false;
                     break;
                 }
@@ -143,7 +160,7 @@ public class Menu extends WindowComponent
                     runX += mi.getWidth();
             if (clicked)
             {
-                active = "";
+                active.clear();
                 clicked = false;
             }
         }
@@ -167,16 +184,20 @@ public class Menu extends WindowComponent
             // Check if mouse moved over this top MenuItem, which case update to be the active path.
             if (!active.isEmpty() && offsetMouse.getX() > runWidth && offsetMouse.getX() <= runWidth + barItem.getWidth() && offsetMouse.getY() > 0 && offsetMouse.getY() <= font.getSize())
             {
-                active = barItem.getName() + "/";
+                active.clear();
+                active.add(barItem);
                 if (clicked)
-                    itemPressed = active;
+                    itemPressed = barItem.getAddress();
             }
             
             // If this top MenuItem is beginning of active path.
-            if (active.startsWith(barItem.getName() + "/"))
+            if (!active.isEmpty() && active.get(0) == barItem)
             {
-                // Active path past top MenuItem
-                String s = active.substring(active.indexOf("/") + 1);
+                // Active path past top MenuItem (from depth on), as it is now.
+                path.clear();
+                for (int d = 0; d < active.size(); d++)
+                    path.add(active.get(d));
+                int depth = 1;
                 
                 // Keep track of extending lengths.
                 int runningX = runWidth;
@@ -186,13 +207,14 @@ public class Menu extends WindowComponent
                 MenuItem item = barItem;
                 
                 // If active path stops with top MenuItem, and it has list of MenuItems to show.
-                boolean sneakpeek = s.isEmpty() && item.isEnabled() && !item.getItems().isEmpty();
+                boolean sneakpeek = depth == path.size() && item.isEnabled() && !item.getItems().isEmpty();
                 
                 // Keep track of running path.
-                String address = item.getName() + "/";
+                address.clear();
+                address.add(item);
                 
                 // Keep going while there is more still to active path or current MenuItem has list of MenuItems to show.
-                while (!s.isEmpty() || sneakpeek)
+                while (depth < path.size() || sneakpeek)
                 {
                     int indexOfNext = -1;
                     
@@ -201,7 +223,7 @@ public class Menu extends WindowComponent
                     {
                         image.setColor(backColor);
                         if (item.getItems().get(i).isEnabled())
-                            if (!sneakpeek && item.getItems().get(i).getName().equals(s.substring(0, s.indexOf("/"))))
+                            if (!sneakpeek && item.getItems().get(i) == path.get(depth))
                             {
                                 indexOfNext = i;
                                 image.setColor(hoverColor);
@@ -211,12 +233,15 @@ public class Menu extends WindowComponent
                         // Check if mouse moved over this MenuItem, which case update to be the active path.
                         if (offsetMouse.getX() > runningX && offsetMouse.getX() <= runningX + w && offsetMouse.getY() > runningY + i * font.getSize() && offsetMouse.getY() <= runningY + i * font.getSize() + font.getSize())
                         {
-                            active = address + item.getItems().get(i).getName() + "/";
+                            active.clear();
+                            for (int d = 0; d < address.size(); d++)
+                                active.add(address.get(d));
+                            active.add(item.getItems().get(i));
                             if (item.getItems().get(i).isEnabled())
                             {
                                 if (clicked)
                                 {
-                                    itemPressed = active;
+                                    itemPressed = item.getItems().get(i).getAddress();
                                     checkSets(item.getItems().get(i));
                                 }
                                 image.setColor(hoverColor);
@@ -291,20 +316,20 @@ public class Menu extends WindowComponent
                     
                     if (!sneakpeek)
                     {
-                        s = s.substring(s.indexOf("/") + 1);
+                        depth++;
                         if (indexOfNext != -1)
                         {
                             runningX += item.getLargestChild();
                             runningY += indexOfNext * font.getSize();
                             item = item.getItems().get(indexOfNext);
-                            address += item.getName() + "/";
-                            if (s.isEmpty() && !item.getItems().isEmpty())
+                            address.add(item);
+                            if (depth == path.size() && !item.getItems().isEmpty())
                                 sneakpeek = true;
                         }
                     }
                     else
                     {
-                        s = "";
+                        depth = path.size();
                         sneakpeek = false;
                     }
                 }
@@ -330,14 +355,14 @@ public class Menu extends WindowComponent
         
         // If clicked and didn't find any MenuItem that was what mouse clicked on, clear active path.
         if (clicked)
-            active = "";
+            active.clear();
         
         scMI = null;
         scCount = 0;
         
         // Check MenuItems to find one that is
         for (MenuItem mi : items)
-            checkForShortCuts(mi, "");
+            checkForShortCuts(mi);
         // If found MenuItem with shortcut that has been completed.
         if (scMI != null)
         {
@@ -349,7 +374,7 @@ public class Menu extends WindowComponent
     private MenuItem scMI;
     private int scCount;
     
-    private void checkForShortCuts(MenuItem mi, String s)
+    private void checkForShortCuts(MenuItem mi)
     {
         if (!mi.isEnabled())
             return;
@@ -358,26 +383,20 @@ public class Menu extends WindowComponent
             if (!keysPressed.contains(" " + mi.getShortCut() + " "))
             {
                 // Number of keys within shortcut combination.
-                int c = 0;
-                for (String ss = mi.getShortCut().replace("ctrl", "control"); true; ss = ss.substring(ss.indexOf("+") + 1))
-                {
-                    c++;
-                    if (ss.indexOf("+") == -1)
-                        break;
-                }
+                int c = mi.getShortCutKeyCount();
                 // If number of keys within shortcut combination for this MenuItem is greater than previously found MenuItem.
                 if (c > scCount)
                 {
                     scCount = c;
                     scMI = mi;
-                    itemPressed = s + mi.getName() + "/";
+                    itemPressed = mi.getAddress();
                 }
             }
         }
-        else
+        else if (mi.getShortCut() != null && !keysPressed.isEmpty())
             keysPressed = keysPressed.replace(" " + mi.getShortCut() + " ", "");
         for (MenuItem m : mi.getItems())
-            checkForShortCuts(m, s + mi.getName() + "/");
+            checkForShortCuts(m);
     }
     
     /**
@@ -413,27 +432,22 @@ public class Menu extends WindowComponent
      */
     public void addItem(String address)
     {
-        if (!address.contains("/"))
-            items.add(new MenuItem(address));
-        else
-        {
-            for (MenuItem mi : items)
-                if (mi.getName().equals(address.substring(0, address.indexOf("/"))))
-                {
-                    mi.add(address.substring(address.indexOf("/") + 1));
-                    break;
-                }
-        }
+        int last = address.lastIndexOf('/');
+        MenuItem parent = last == -1 ? root : getItem(address, last);
+        if (parent != null)
+            parent.add(new MenuItem(address.substring(last + 1)));
     }
     
+    /**
+     * Remove all the Menu items within a Menu item.
+     * @param address The location of the Menu item, ending with "/". For example, "Insert/Shape/" will remove everything under "Shape".
+     */
     public void clearBranch(String address)
     {
-        for (MenuItem mi : items)
-            if (mi.getName().equals(address.substring(0, address.indexOf("/"))))
-            {
-                mi.clearBranch(address.substring(address.indexOf("/") + 1));
-                break;
-            }
+        int last = address.lastIndexOf('/');
+        MenuItem m = last == -1 ? null : getItem(address, last);
+        if (m != null && m != root)
+            m.clear();
     }
     
     /**
@@ -446,9 +460,7 @@ public class Menu extends WindowComponent
      */
     public void addToggleItem(String address, boolean checked)
     {
-        String n = address;
-        while (n.contains("/"))
-            n = n.substring(n.indexOf("/") + 1);
+        String n = address.substring(address.lastIndexOf('/') + 1);
         String s = address.substring(0, address.length() - n.length());
         ArrayList<String> list = new ArrayList<String>();
         list.add(n);
@@ -485,32 +497,9 @@ public class Menu extends WindowComponent
         addItems(address, items);
         if (address == null || address.length() == 0 || address.charAt(address.length() - 1) != '/' || items == null || items.isEmpty())
             return;
-        MenuItem m = null; //getItem(address.substring(0, address.length() - 1));//null;
-        for (MenuItem mi : this.items)
-            if (mi.getName().equals(address.substring(0, address.indexOf("/"))))
-            {
-                m = mi;
-                address = address.substring(address.indexOf("/") + 1);
-                break;
-            }
-        if (m == null)
+        MenuItem m = getItem(address, address.length() - 1);
+        if (m == null || m == root)
             return;
-        while (address.length() > 0)
-        {
-            boolean found = false;
-            for (MenuItem mi : m.getItems())
-            {
-                if (mi.getName().equals(address.substring(0, address.indexOf("/"))))
-                {
-                    m = mi;
-                    address = address.substring(address.indexOf("/") + 1);
-                    found = true;
-                    break;
-                }
-            }
-            if (!found)
-                return;
-        }
         ArrayList<MenuItem> setItems = new ArrayList<MenuItem>();
         MenuItem st = null;
         for (MenuItem mi : m.getItems())
@@ -591,40 +580,25 @@ public class Menu extends WindowComponent
     }
     
     /**
-     * 
+     * Find the MenuItem at an address, such as "File/Print".
+     * @return The MenuItem, or null if there is none there.
      */
     private MenuItem getItem(String address)
     {
         // Check if address is bogus.
         if (address == null || address.isEmpty() || address.charAt(address.length() - 1) == '/')
             return null;
-        MenuItem m = null;
-        for (MenuItem mi : items)
-        {
-            if (mi.getName().equals(address.contains("/") ? address.substring(0, address.indexOf("/")) : address))
-                m = mi;
-        }
-        if (m == null || !address.contains("/"))
-            return m;
-        address = address.substring(address.indexOf("/") + 1);
-        while (address.length() > 0)
-        {
-            for (MenuItem mi : m.getItems())
-            {
-                if (!address.contains("/"))
-                {
-                    if (mi.getName().equals(address))
-                        return mi;
-                }
-                else if (mi.getName().equals(address.substring(0, address.indexOf("/"))))
-                {
-                    m = mi;
-                    address = address.substring(address.indexOf("/") + 1);
-                    break;
-                }
-            }
-        }
-        return null;
+        return getItem(address, address.length());
+    }
+    
+    /**
+     * Find the MenuItem at the start of an address, following it one name at a time.
+     * @param end How much of the address to follow.
+     * @return The MenuItem, the root (holding the top MenuItems) if end is 0, or null if there is none there.
+     */
+    private MenuItem getItem(String address, int end)
+    {
+        return root.find(address, end);
     }
     
     /**
@@ -633,7 +607,18 @@ public class Menu extends WindowComponent
      */
     public boolean isActive()
     {
-        return active.length() != 0;
+        return !active.isEmpty();
+    }
+    
+    /**
+     * Note a click on the Menu for the next act.
+     */
+    @Override
+    public void handleEvent(InputEvent event)
+    {
+        super.handleEvent(event);
+        if (event.getType() == InputEvent.CLICK)
+            clickedNow = true;
     }
     
     /**
@@ -655,73 +640,58 @@ public class Menu extends WindowComponent
             home.setLocation(getX(), getY());
     }
 
-    private class MenuItem
+    private class MenuItem extends MenuNode<MenuItem>
     {
-        private ArrayList<MenuItem> items = new ArrayList<MenuItem>();
-        private String name;
         private boolean checked;
         private boolean memberOfSet;
         private String shortCut;
+        private String[] shortCutKeys;
         private boolean enabled = true;
+        // Widths as measured in widthFont. -1 when they need measuring again.
+        private Font widthFont;
+        private int width = -1;
+        private int largestChild = -1;
         
         public MenuItem(String n)
         {
-            name = n;
+            super(n);
         }
         
-        public void add(String s)
+        // This MenuItem's items, or how it is drawn among its parent's, has changed.
+        @Override
+        protected void changed()
         {
-            if (!s.contains("/"))
-                items.add(new MenuItem(s));
-            else
-            {
-                for (MenuItem mi : items)
-                    if (mi.getName().equals(s.substring(0, s.indexOf("/"))))
-                    {
-                        mi.add(s.substring(s.indexOf("/") + 1));
-                        break;
-                    }
-            }
+            largestChild = -1;
+            if (getParent() != null)
+                getParent().largestChild = -1;
         }
-        public void clearBranch(String s)
+        private void checkFont()
         {
-            if (!s.contains("/"))
-                items.clear();
-            else
+            if (widthFont != font)
             {
-                for (MenuItem mi : items)
-                    if (mi.getName().equals(s.substring(0, s.indexOf("/"))))
-                    {
-                        mi.clearBranch(s.substring(s.indexOf("/") + 1));
-                        break;
-                    }
+                widthFont = font;
+                width = -1;
+                largestChild = -1;
             }
         }
+        
         public int getWidth()
         {
-            return getWidthOf(name) + 4;
+            checkFont();
+            if (width == -1)
+                width = getWidthOf(getName()) + 4;
+            return width;
         }
         public int getWidthOf(String s)
         {
-            Graphics2D g = (new GreenfootImage(1, 1)).getAwtImage().createGraphics();
-            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g.setFont(font);
-            int w = g.getFontMetrics().stringWidth(s);
-            g.dispose();
-            return w;
+            return TextMetricsCache.stringWidth(font, s);
         }
         
-        public int getRunningWidth(String s, boolean first)
-        {
-            int w = getLargestChild();
-            if (!s.isEmpty())
-                for (MenuItem mi : items)
-                    if (mi.getName().equals(s.substring(0, s.indexOf("/"))))
-                        return w + mi.getRunningWidth(s.substring(s.indexOf("/") + 1), false);
-            return w;
-        }
         public int getLargestChild()
         {
+            checkFont();
+            if (largestChild != -1)
+                return largestChild;
             int n = 0;
             for (MenuItem mi : items)
             {
@@ -729,36 +699,24 @@ public class Menu extends WindowComponent
                 if (var > n)
                     n = var;
             }
+            largestChild = n;
             return n;
         }
         
-        public int getRunningHeight(String s)
-        {
-            if (items.isEmpty())
-                return 0;
-            int h = (items.size() - 1) * font.getSize();
-            if (!s.isEmpty())
-                for (MenuItem mi : items)
-                    if (mi.getName().equals(s.substring(0, s.indexOf("/"))))
-                        return h + mi.getRunningHeight(s.substring(s.indexOf("/") + 1));
-            return h;
-        }
-        public ArrayList<MenuItem> getItems()
-        {
-            return items;
-        }
-        public String getName()
-        {
-            return name;
-        }
         public void setShortCut(String s)
         {
             shortCut = s;
+            shortCutKeys = s == null ? null : s.split("\\+");
+            changed();
         }
         public String getShortCut()
         {
             return shortCut;
         }
+        public int getShortCutKeyCount()
+        {
+            return shortCutKeys.length;
+        }
         public int getWidthOfShortCut()
         {
             return getWidthOf(shortCut);
@@ -767,9 +725,8 @@ public class Menu extends WindowComponent
         {
             if (shortCut == null || !enabled)
                 return false;
-            for (String s = shortCut; !s.isEmpty(); s = (s.contains("+") ? s.substring(s.indexOf("+") + 1) : ""))
+            for (String ss : shortCutKeys)
             {
-                String ss = (s.contains("+") ? s.substring(0, s.indexOf("+")) : s);
                 if (ss.equals("ctrl"))
                 {
                     if (!Greenfoot.isKeyDown("control"))
@@ -791,6 +748,7 @@ public class Menu extends WindowComponent
         public void addedToSet()
         {
             memberOfSet = true;
+            changed();
         }
         public boolean isMemberOfSet()
         {
@@ -805,6 +763,7 @@ public class Menu extends WindowComponent
             enabled = e;
         }
     }
+    
     private class MenuSet
     {
         private ArrayList<MenuItem> items = new ArrayList<MenuItem>();
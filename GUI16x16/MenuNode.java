@@ -0,0 +1,161 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * MenuNode
+ * <p>
+ * An item in a tree of named items, such as the items of a Menu, found by addresses like "Insert/Shape/Arrow".<p>
+ * Each node keeps its items in order, and by name in a hash table. An address is followed one name at a time, looking each name up
+ * as a part of the address rather than cutting it into Strings, so finding an item costs one lookup per name and makes no garbage.<p>
+ * Subclasses add what an item holds, with N as the subclass itself, so items come back as the subclass. Does not depend on
+ * Greenfoot.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class MenuNode<N extends MenuNode<N>>
+{
+    private final String name;
+    private N parent;
+    private final ArrayList<N> items = new ArrayList<N>();
+    // The same items, by name. Where two items have the same name the first is found.
+    private final HashMap<Segment, N> children = new HashMap<Segment, N>();
+    // Used to look up items by part of an address.
+    private final Segment probe = new Segment(null, 0, 0);
+
+    public MenuNode(String name)
+    {
+        this.name = name;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Get the item this is one of the items of, or null if it is the root.
+     */
+    public N getParent()
+    {
+        return parent;
+    }
+
+    public ArrayList<N> getItems()
+    {
+        return items;
+    }
+
+    /**
+     * Add an item after the others.
+     */
+    @SuppressWarnings("unchecked")
+    public void add(N item)
+    {
+        MenuNode<N> node = item;
+        node.parent = (N)this;
+        items.add(item);
+        Segment key = new Segment(item.getName(), 0, item.getName().length());
+        if (!children.containsKey(key))
+            children.put(key, item);
+        changed();
+    }
+
+    /**
+     * Remove every item.
+     */
+    public void clear()
+    {
+        items.clear();
+        children.clear();
+        changed();
+    }
+
+    /**
+     * Called when items are added or removed. Does nothing by default.
+     */
+    protected void changed()
+    {}
+
+    /**
+     * Get the item whose name is the part of address from begin to end.
+     * @return The item, or null if there is none by that name.
+     */
+    public N getChild(String address, int begin, int end)
+    {
+        probe.set(address, begin, end);
+        N item = children.get(probe);
+        probe.set(null, 0, 0);
+        return item;
+    }
+
+    /**
+     * Find the item at the start of an address below this one, following it one name at a time.
+     * @param end How much of the address to follow.
+     * @return The item, this if end is 0, or null if there is none there.
+     */
+    @SuppressWarnings("unchecked")
+    public N find(String address, int end)
+    {
+        N item = (N)this;
+        int begin = 0;
+        while (item != null && begin < end)
+        {
+            int slash = address.indexOf('/', begin);
+            if (slash == -1 || slash > end)
+                slash = end;
+            item = item.getChild(address, begin, slash);
+            begin = slash + 1;
+        }
+        return item;
+    }
+
+    /**
+     * Get the path to this item from the root, ending with "/". For example "Insert/Shape/Arrow/".
+     */
+    public String getAddress()
+    {
+        MenuNode<N> node = parent;
+        return (node == null || node.parent == null ? "" : node.getAddress()) + name + "/";
+    }
+
+    /**
+     * Part of a String, usable as a key as though it were that part cut out as its own String.
+     */
+    private static class Segment
+    {
+        private String text;
+        private int begin;
+        private int end;
+
+        Segment(String text, int begin, int end)
+        {
+            set(text, begin, end);
+        }
+
+        void set(String text, int begin, int end)
+        {
+            this.text = text;
+            this.begin = begin;
+            this.end = end;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int h = 0;
+            for (int i = begin; i < end; i++)
+                h = 31 * h + text.charAt(i);
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Segment))
+                return false;
+            Segment k = (Segment)o;
+            return end - begin == k.end - k.begin && text.regionMatches(begin, k.text, k.begin, end - begin);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * MjpegReader
+ * <p>
+ * Splits a Motion JPEG stream into its JPEG images one at a time, without decoding them.<p>
+ * A Motion JPEG stream is whole JPEG images one after another, sometimes with other data between them (such as the multipart
+ * headers a webcam sends over HTTP), which is skipped. The end of each image is found by walking its markers: segments are skipped
+ * by their length, so a thumbnail inside the image's EXIF data doesn't end it early, and only the compressed data after a start of
+ * scan marker is searched for the next marker.<p>
+ * Reads through its own buffer, and only holds the image being read, so a stream of any length can be read.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class MjpegReader implements Closeable
+{
+    /**
+     * The largest image that will be read, so a stream that is not really Motion JPEG can't fill memory with one "image".
+     */
+    public static final int MAX_IMAGE_SIZE = 64 << 20;
+
+    private static final int SOI = 0xD8; // start of image
+    private static final int EOI = 0xD9; // end of image
+    private static final int SOS = 0xDA; // start of scan, followed by the compressed data
+    private static final int TEM = 0x01;
+
+    private InputStream in;
+    private byte[] buffer = new byte[1 << 16];
+    private int position;
+    private int limit;
+    private long bytesBefore; // bytes read from the stream before those in the buffer
+    private byte[] image = new byte[1 << 16];
+    private int size;
+
+    /**
+     * Create a new MjpegReader.
+     * @param in The stream to read. Is closed when this MjpegReader is closed.
+     */
+    public MjpegReader(InputStream in)
+    {
+        this.in = in;
+    }
+
+    /**
+     * Check if the file at the given path is named like a Motion JPEG stream, such as "clip.mjpeg".
+     */
+    public static boolean isMjpegFile(Path path)
+    {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".mjpeg") || name.endsWith(".mjpg");
+    }
+
+    /**
+     * Get the number of bytes of the stream read so far, up to the end of the last image returned.
+     */
+    public long getPosition()
+    {
+        return bytesBefore + position;
+    }
+
+    /**
+     * Read the next JPEG image.
+     * @return The image's bytes, from its start of image marker to its end of image marker, or null if there are no more images.
+     * @throws EOFException If the stream ends partway through an image.
+     */
+    public byte[] readImage() throws IOException
+    {
+        // Skip anything before the next start of image marker.
+        int last = 0;
+        while (true)
+        {
+            int b = read();
+            if (b == -1)
+                return null;
+            if (last == 0xFF && b == SOI)
+                break;
+            last = b;
+        }
+        size = 0;
+        put(0xFF);
+        put(SOI);
+        int marker = readMarker();
+        while (marker != EOI)
+        {
+            // These markers stand alone, the rest start a segment that gives its own length.
+            if (marker == TEM || marker >= 0xD0 && marker <= 0xD8)
+            {
+                marker = readMarker();
+                continue;
+            }
+            int high = readByte();
+            int low = readByte();
+            int length = high << 8 | low;
+            if (length < 2)
+                throw new IOException("Bad JPEG segment length " + length + " at byte " + getPosition());
+            put(high);
+            put(low);
+            copy(length - 2);
+            marker = marker == SOS ? scan() : readMarker();
+        }
+        return Arrays.copyOf(image, size);
+    }
+
+    /**
+     * Read a marker (0xFF, then the marker's code), skipping any extra 0xFF fill bytes before the code.
+     * @return The marker's code.
+     */
+    private int readMarker() throws IOException
+    {
+        if (readByte() != 0xFF)
+            throw new IOException("Expected a JPEG marker at byte " + (getPosition() - 1));
+        int code = readByte();
+        while (code == 0xFF)
+            code = readByte();
+        put(0xFF);
+        put(code);
+        return code;
+    }
+
+    /**
+     * Copy compressed data up to the next marker that isn't part of it. In compressed data, a 0xFF byte is followed by a 0 (it's
+     * just a 0xFF) or a restart marker.
+     * @return The code of the marker after the data.
+     */
+    private int scan() throws IOException
+    {
+        while (true)
+        {
+            if (position == limit && !fill())
+                throw new EOFException("Stream ended partway through a JPEG image");
+            int start = position;
+            while (position < limit && buffer[position] != (byte)0xFF)
+                position++;
+            append(start, position - start);
+            if (position == limit)
+                continue;
+            position++;
+            int code = readByte();
+            while (code == 0xFF)
+                code = readByte();
+            put(0xFF);
+            put(code);
+            if (code != 0 && !(code >= 0xD0 && code <= 0xD7))
+                return code;
+        }
+    }
+
+    private int read() throws IOException
+    {
+        if (position == limit && !fill())
+            return -1;
+        return buffer[position++] & 0xFF;
+    }
+
+    private int readByte() throws IOException
+    {
+        int b = read();
+        if (b == -1)
+            throw new EOFException("Stream ended partway through a JPEG image");
+        return b;
+    }
+
+    /**
+     * Copy the next count bytes of the stream into the image.
+     */
+    private void copy(int count) throws IOException
+    {
+        while (count > 0)
+        {
+            if (position == limit && !fill())
+                throw new EOFException("Stream ended partway through a JPEG image");
+            int n = Math.min(count, limit - position);
+            append(position, n);
+            position += n;
+            count -= n;
+        }
+    }
+
+    /**
+     * Read more of the stream into the buffer, once everything in it has been used.
+     * @return False at the end of the stream.
+     */
+    private boolean fill() throws IOException
+    {
+        bytesBefore += limit;
+        position = 0;
+        limit = 0;
+        int n;
+        while ((n = in.read(buffer)) == 0)
+            ;
+        if (n == -1)
+            return false;
+        limit = n;
+        return true;
+    }
+
+    private void put(int b) throws IOException
+    {
+        ensureCapacity(1);
+        image[size++] = (byte)b;
+    }
+
+    private void append(int start, int count) throws IOException
+    {
+        ensureCapacity(count);
+        System.arraycopy(buffer, start, image, size, count);
+        size += count;
+    }
+
+    private void ensureCapacity(int count) throws IOException
+    {
+        if (size + count <= image.length)
+            return;
+        if (size + count > MAX_IMAGE_SIZE)
+            throw new IOException("JPEG image larger than " + MAX_IMAGE_SIZE + " bytes at byte " + getPosition());
+        image = Arrays.copyOf(image, (int)Math.min(MAX_IMAGE_SIZE, Math.max(size + count, 2L * image.length)));
+    }
+
+    /**
+     * Close the underlying stream.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+}
@@ -1,5 +1,11 @@
 import greenfoot.*;  // (World, Actor, GreenfootImage, Greenfoot and MouseInfo)
 import java.awt.Point;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
 /**
  * Write a description of class MyWorld here.
  * 
@@ -12,35 +18,90 @@ public class MyWorld extends World
     private Palette palette = new Palette();
     //make button that writes the pixel rbg data to a .txt file when pressed
     private ExportBtn exportBtn = new ExportBtn("Export", new Point(150, 50));
+    //make button that writes every frame to a .h file for FastLED sketches
+    private HeaderExportBtn headerExportBtn = new HeaderExportBtn("Export .h", new Point(100, 50));
     //make button that reads pixel data from a file, and shows that data on the screen in the pixels
     private ImportBtn importBtn = new ImportBtn("Import", new Point(150,50));
-    private Pixel[][] pixels = new Pixel[16][16];
+    //the width and height in the world of the area the pixel grid is drawn in, starting at (5, 5)
+    private static final int GRID_AREA_WIDTH = 815;
+    private static final int GRID_AREA_HEIGHT = 745;
+    //the frames of the animation being edited, each holding the color of every pixel
+    private Animation animation;
+    //keeps track of which frame is showing and moves through the frames when playing
+    private AnimationPlayer player;
+    //draws all the pixels of the current frame in one image, scaled to fit the grid area. the canvas only draws what is in the frame
+    private CanvasActor canvas;
+    //strip of frame thumbnails below the grid, used to pick or scrub to a frame
+    private Timeline timeline;
+    //buttons to play/pause the animation and to add or delete frames
+    private Button playBtn = new Button("Play", new Point(70, 30));
+    private Button addFrameBtn = new Button("Add", new Point(70, 30));
+    private Button deleteFrameBtn = new Button("Delete", new Point(70, 30));
+    //text box showing how many milliseconds the current frame is shown for
+    private TextBox durationTextBox = new TextBox(new Point(70,25),String.valueOf(Animation.DEFAULT_DURATION));
+    //make button that changes the number of pixels in the grid to the size given in the grid size text box
+    private ResizeBtn resizeBtn = new ResizeBtn("Resize", new Point(150, 40));
     //make text box where user can write which file they would like to export to
     private TextBox exportTextBox = new TextBox(new Point(180,25),"output.txt");
     //make text box where user can write which file they would like to import from
     private TextBox importTextBox = new TextBox(new Point(180,25),"input.txt");
+    //make button that streams the frame on the screen to the LED controller, and text box for the serial port to stream to
+    private StreamBtn streamBtn = new StreamBtn("Stream", new Point(150, 36));
+    private TextBox streamPortTextBox = new TextBox(new Point(180,25),SerialPortOutput.EMULATOR);
+    //make text box where user can write how the leds are wired, used when exporting and streaming
+    private TextBox layoutTextBox = new TextBox(new Point(180,25),LedLayout.COLUMN_MAJOR.toString());
+    private LedLayout ledLayout = LedLayout.COLUMN_MAJOR;//the layout last parsed from the layout text box
+    private String ledLayoutSpec = LedLayout.COLUMN_MAJOR.toString();
+    //make text box where user can write the grid size as "width x height"
+    private TextBox gridSizeTextBox = new TextBox(new Point(180,25),"16x16");
+    //reads and writes files for the import and export buttons in the background
+    private FileTaskRunner fileTasks = new FileTaskRunner();
+    //the file task runner of the last world made. Reset makes a new world, so the old one's thread is shut down then
+    private static FileTaskRunner lastFileTasks;
+    //keeps autosave.bin in the scenario folder up to date with the frame being edited, null if saving failed
+    private AutoSaver autoSaver = new AutoSaver(scenarioFile(AutoSaver.DEFAULT_FILE), AutoSaver.DEFAULT_INTERVAL);
     /**
-     * Constructor for objects of class MyWorld.
+     * Constructor for objects of class MyWorld. Makes a 16x16 pixel grid.
      * 
      */
     public MyWorld()
+    {
+        this(16, 16);
+    }
+    /**
+     * Constructor for objects of class MyWorld with a pixel grid of the given size.
+     * The pixels are scaled so the whole grid fits in the world.
+     */
+    public MyWorld(int gridWidth, int gridHeight)
     {    
-        // Create a new world with 600x400 cells with a cell size of 1x1 pixels.
+        // Create a new world with 1200x830 cells with a cell size of 1x1 pixels.
         super(1200, 830, 1); 
-        //loop to make 16x16 pixels
-        for(int i = 0; i < 16; i++)
+        //this world replaces the last one, which will never read or write files again
+        if (lastFileTasks != null)
         {
-            for(int j = 0; j < 16; j++)
-            {
-                Pixel newPixel = new Pixel();//make new pixel object to be added to world
-                addObject(newPixel,30+(i*51),30+(j*51));//add pixel object to the world
-                pixels[i][j] = newPixel;
-            }
+            lastFileTasks.shutdown();
         }
+        lastFileTasks = fileTasks;
+        //make an animation with one black frame, and add the pixel canvas so its top left pixel starts at (5, 5)
+        animation = new Animation(gridWidth, gridHeight);
+        player = new AnimationPlayer(animation);
+        rebuildCanvas();
+        //add the timeline and the animation controls below the grid
+        timeline = new Timeline(player, 645, 66);
+        addObject(timeline, 175 + 645 / 2, 757 + 66 / 2);
+        addObject(playBtn, 40, 772);
+        addObject(durationTextBox, 115, 772);
+        addObject(new Label("ms"), 162, 772);
+        addObject(addFrameBtn, 40, 808);
+        addObject(deleteFrameBtn, 115, 808);
+        durationTextBox.acceptOnly(TextBox.NUMBERS);
+        durationTextBox.setMaxLength(6);
         //add the color palette to the world
         addObject(palette,1010,200);
         //add an Export Button to the GUI. When the export button is clicked, the pixels rgb values will be written in a .txt file
         addObject(exportBtn,1010,400);
+        //add the .h export button next to the export button. It exports to the same file name, with a .h extension
+        addObject(headerExportBtn,1140,400);
         //add import button the the gui. When the import button is clicked, the pixels on the screen will display the data saved in the file given to import
         addObject(importBtn,1010, 630);
         //add a label that says "file name"
@@ -49,14 +110,238 @@ public class MyWorld extends World
         //add text boxes to world
         addObject(exportTextBox, 1027, 450);
         addObject(importTextBox, 1027, 680);
+        //add the serial port text box and the stream button
+        addObject(new Label("Port:"), 896, 490);
+        addObject(streamPortTextBox, 1027, 490);
+        addObject(new Label("Layout:"), 896, 522);
+        addObject(layoutTextBox, 1027, 522);
+        addObject(streamBtn, 1010, 567);
+        //add the grid size text box and the button that applies it
+        addObject(new Label("Grid Size:"), 896, 733);
+        addObject(gridSizeTextBox, 1027, 740);
+        addObject(resizeBtn, 1010, 790);
+    }
+    /**
+     * Play the animation, handle the animation buttons, and show the current frame.
+     */
+    public void act()
+    {
+        long now = System.currentTimeMillis();
+        InputDispatcher.getInstance().dispatch(this);//hand out this act's mouse and key input before anything checks for it
+        fileTasks.deliverFinished();//finish imports and exports that are done reading or writing
+        if (playBtn.wasClicked())
+        {
+            if (player.isPlaying())
+            {
+                player.pause();
+            }
+            else
+            {
+                player.play(now);
+            }
+            playBtn.setText(player.isPlaying() ? "Pause" : "Play");
+        }
+        if (addFrameBtn.wasClicked())
+        {
+            //add a copy of the current frame right after it, and go to the copy
+            int index = player.getFrameIndex();
+            animation.insertFrame(index + 1, player.getCurrentFrame().copy(), animation.getDuration(index));
+            scrubTo(index + 1);
+        }
+        if (deleteFrameBtn.wasClicked() && animation.removeFrame(player.getFrameIndex()))
+        {
+            scrubTo(player.getFrameIndex());
+        }
+        if (durationTextBox.hasChanged())
+        {
+            //set the current frame's duration to what was typed, if it is a number of milliseconds
+            try
+            {
+                int duration = Integer.parseInt(durationTextBox.getText());
+                if (duration > 0 && duration != animation.getDuration(player.getFrameIndex()))
+                {
+                    animation.setDuration(player.getFrameIndex(), duration);
+                }
+            } catch (NumberFormatException e)
+            {
+                //nothing typed yet
+            }
+        }
+        if (player.update(now))
+        {
+            showCurrentFrame();
+        }
+        autoSave(now, false);
+    }
+    /**
+     * Called when the scenario is paused or reset. Stops streaming so the serial port is not left open.
+     */
+    public void stopped()
+    {
+        streamBtn.stopStreaming();
+        autoSave(System.currentTimeMillis(), true);//save whatever changed since the last save
+        if (autoSaver != null)
+        {
+            try
+            {
+                autoSaver.close();
+            } catch (IOException e)
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+    /**
+     * Write the pixels of the current frame that changed since the last autosave to the autosave file, if it is time to (or right away if flush is true)
+     */
+    private void autoSave(long now, boolean flush)
+    {
+        if (autoSaver == null)
+        {
+            return;
+        }
+        try
+        {
+            if (flush)
+            {
+                autoSaver.save(player.getCurrentFrame());//doesn't change when the next timed save is
+            }
+            else
+            {
+                autoSaver.update(player.getCurrentFrame(), now);
+            }
+        } catch (IOException e)
+        {
+            e.printStackTrace();
+            autoSaver = null;//stop trying every second
+        }
+    }
+    /**
+     * Go to the frame at the given index, keeping on playing from there if the animation is playing
+     */
+    public void scrubTo(int index)
+    {
+        player.seek(index, System.currentTimeMillis());
+        showCurrentFrame();
+    }
+    /**
+     * Change the number of pixels in the grid, in every frame. Pixels that are still inside the grid keep their color, new pixels are black.
+     */
+    public void setGridSize(int gridWidth, int gridHeight)
+    {
+        animation.resize(gridWidth, gridHeight);
+        rebuildCanvas();
+    }
+    /**
+     * Put the given frame buffer's pixels in the current frame. If it is a different size, every frame is resized to match.
+     */
+    public void setFrameBuffer(FrameBuffer newFrameBuffer)
+    {
+        if (newFrameBuffer.getWidth() != animation.getWidth() || newFrameBuffer.getHeight() != animation.getHeight())
+        {
+            setGridSize(newFrameBuffer.getWidth(), newFrameBuffer.getHeight());
+        }
+        player.getCurrentFrame().copyFrom(newFrameBuffer);
+    }
+    /**
+     * Replace the animation being edited with the given one, showing its first frame
+     */
+    public void setAnimation(Animation newAnimation)
+    {
+        animation = newAnimation;
+        player.setAnimation(animation);
+        playBtn.setText("Play");
+        rebuildCanvas();
+    }
+    /**
+     * Make a new canvas for the current frame, picking the pixel size so the whole grid fits in the grid area.
+     * Needed when the grid size changes.
+     */
+    private void rebuildCanvas()
+    {
+        if (canvas != null)
+        {
+            canvas.release();
+            palette.removeColorSource(canvas);
+            removeObject(canvas);
+        }
+        FrameBuffer frameBuffer = player.getCurrentFrame();
+        //the distance from one pixel to the next, so that the grid fills as much of the grid area as it can
+        int pitch = Math.max(1, Math.min((GRID_AREA_WIDTH + 1) / frameBuffer.getWidth(), (GRID_AREA_HEIGHT + 1) / frameBuffer.getHeight()));
+        //leave a 1 pixel gap between pixels unless they are too small to spare it
+        int gap = pitch > 4 ? 1 : 0;
+        canvas = new CanvasActor(frameBuffer, pitch - gap, gap);
+        addObject(canvas, 5 + canvas.getImage().getWidth() / 2, 5 + canvas.getImage().getHeight() / 2);
+        palette.addColorSource(canvas);//find color reads the grid's pixels straight from the frame
+        SnapshotCache.getShared().invalidate();//the grid area looks different now
+        gridSizeTextBox.setText(frameBuffer.getWidth() + "x" + frameBuffer.getHeight());
+        durationTextBox.setText(String.valueOf(animation.getDuration(player.getFrameIndex())));
+    }
+    /**
+     * Draw the current frame on the canvas (repainting only the pixels that differ from what is drawn)
+     */
+    private void showCurrentFrame()
+    {
+        canvas.setFrameBuffer(player.getCurrentFrame());
+        durationTextBox.setText(String.valueOf(animation.getDuration(player.getFrameIndex())));
+    }
+    /**
+     * Get the path of a file typed in a text box. A relative name is in the scenario folder (where the classes are), not whatever folder Greenfoot was started from
+     */
+    public static Path scenarioFile(String filename)
+    {
+        Path path = Paths.get(filename);
+        if (path.isAbsolute())
+        {
+            return path;
+        }
+        try
+        {
+            CodeSource source = MyWorld.class.getProtectionDomain().getCodeSource();
+            if (source != null)
+            {
+                Path folder = Paths.get(source.getLocation().toURI());
+                if (!Files.isDirectory(folder))
+                {
+                    folder = folder.getParent();//an exported scenario runs from a jar, use the folder it is in
+                }
+                if (folder != null)
+                {
+                    return folder.resolve(path);
+                }
+            }
+        } catch (URISyntaxException | IllegalArgumentException | SecurityException e)
+        {
+            //not on the file system, fall back to the working directory
+        }
+        return path;
+    }
+    public FileTaskRunner getFileTasks()
+    {
+        return fileTasks;
     }
     public Palette getPalette()
     {
         return palette;
     }
-    public Pixel[][] getPixels()
+    /**
+     * Get the frame currently showing on the canvas
+     */
+    public FrameBuffer getFrameBuffer()
+    {
+        return player.getCurrentFrame();
+    }
+    public Animation getAnimation()
+    {
+        return animation;
+    }
+    public AnimationPlayer getPlayer()
+    {
+        return player;
+    }
+    public CanvasActor getCanvas()
     {
-        return pixels;
+        return canvas;
     }
     public String getOutputFile()
     {
@@ -66,4 +351,31 @@ public class MyWorld extends World
     {
         return importTextBox.getText();
     }
+    public String getStreamPort()
+    {
+        return streamPortTextBox.getText();
+    }
+    public String getGridSize()
+    {
+        return gridSizeTextBox.getText();
+    }
+    /**
+     * Get the led layout written in the layout text box, or the column by column layout if it doesn't name one
+     */
+    public LedLayout getLedLayout()
+    {
+        String spec = layoutTextBox.getText();
+        if(!spec.equals(ledLayoutSpec))//only parse again when the text changed
+        {
+            ledLayoutSpec = spec;
+            try
+            {
+                ledLayout = LedLayout.parse(spec);
+            } catch (IllegalArgumentException e)
+            {
+                ledLayout = LedLayout.COLUMN_MAJOR;
+            }
+        }
+        return ledLayout;
+    }
 }
\ No newline at end of file
@@ -1,9 +1,9 @@
-import greenfoot.Greenfoot;
 import greenfoot.GreenfootImage;
-import greenfoot.MouseInfo;
 import java.awt.Color;
 import java.awt.Point;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
 import greenfoot.core.WorldHandler;
 
 /**
@@ -11,8 +11,9 @@ import greenfoot.core.WorldHandler;
  * <p>
  * A Color choosing GUI, including:<p>
  * 4 Sliders for changing the Red, Green, Blue, and Alpha values of a Color.<p>
- * 24 memory slots. Clicking on the slots will change which one will be selected.<p>
+ * 24 memory slots, held in a ColorPalette. Clicking on the slots will change which one will be selected.<p>
  * A "Find Color" Button that will "look" at the pixel where the mouse is (if inside the World). Clicking will then grab the Color at the mouse's position. Pressing escape will cancel it.<p>
+ * Colors are read from a SnapshotCache of the World, or straight from any ColorSource added with addColorSource() when the mouse is over one.<p>
  * There is the possibility that you have other Actors in the World that react to being clicked on, though you may wish to get a Color off of their images and don't want to invoke the Actors' behavior. To overcome this, inside of your World class constructor have a setPaintOrder() method with "Palette.Cover.class" as the first parameter.
  * <p>
  * Action listener: getResult()
@@ -43,18 +44,31 @@ public class Palette extends Window
     private Slider blueSlider = new Slider(150, 0, 255, 255, 1);
     private Slider alphaSlider = new Slider(150, 0, 255, 255, 1);
     
-    private ColorMemoryCell[] colors = new ColorMemoryCell[24];
+    private ColorPalette model = new ColorPalette();
+    private ColorMemoryCell[] colors = new ColorMemoryCell[ColorPalette.SLOTS];
     private CanvasUtility colorSample = new CanvasUtility(new GreenfootImage(70, 30));
     
-    private int selected = 1;
     private Button btnCancel = new Button("Cancel", new Point(44, 22));
     private Button btnFind = new Button("Find Color", new Point(63, 22));
     private boolean lookingForColor;
     private Point lastMouse = new Point(-25, -25);
     private Color result;
+    
+    private ArrayList<ColorSource> colorSources = new ArrayList<ColorSource>();
+    
+    // What colorSample last had drawn on it, so it is only redrawn when that changes.
+    private boolean colorDrawn;
+    private int drawnColor;
+    private boolean loupeDrawn;
+    private int[] loupe = new int[7 * 7];
+    private boolean[] loupeInside = new boolean[7 * 7]; // Whether each loupe pixel is inside the World, and so has a color.
+    private int[] drawnLoupe = new int[7 * 7];
+    private boolean[] drawnLoupeInside = new boolean[7 * 7];
+    private int[] loupeCell = new int[4 * 4];
+    private int[] loupeRow = new int[29];
 
     /**
-     * A new Palette with some default colors stored.
+     * A new Palette with the default colors of a ColorPalette stored.
      */
     public Palette()
     {
@@ -82,7 +96,7 @@ public class Palette extends Window
         // Initialize Color memory cells.
         for (int i = 0; i < colors.length; i++)
         {
-            colors[i] = new ColorMemoryCell(Color.WHITE);
+            colors[i] = new ColorMemoryCell(i);
             colorCellsC.addComponent(colors[i]);
         }
         rightC.addComponent(colorCellsC);
@@ -92,22 +106,8 @@ public class Palette extends Window
         c.addComponent(rightC);
         addContainer(c);
         
-        colors[0].setColor(Color.WHITE);
-        colors[1].setColor(Color.BLUE);
-        colors[2].setColor(new Color(153, 102, 51));
-        colors[3].setColor(Color.CYAN);
-        colors[4].setColor(Color.GREEN);
-        colors[5].setColor(Color.MAGENTA);
-        colors[6].setColor(Color.ORANGE);
-        colors[7].setColor(new Color(127, 0, 127));
-        colors[8].setColor(Color.RED);
-        colors[9].setColor(Color.YELLOW);
-        colors[10].setColor(Color.BLACK);
         // Initialize Slider values.
-        redSlider.setValue(colors[0].getRed());
-        greenSlider.setValue(colors[0].getGreen());
-        blueSlider.setValue(colors[0].getBlue());
-        alphaSlider.setValue(colors[0].getAlpha());
+        showSelected();
     }
     
     /**
@@ -117,11 +117,9 @@ public class Palette extends Window
     public Palette(Color c)
     {
         this();
-        colors[0].setColor(c);
-        redSlider.setValue(c.getRed());
-        greenSlider.setValue(c.getGreen());
-        blueSlider.setValue(c.getBlue());
-        alphaSlider.setValue(c.getAlpha());
+        model.setColor(0, c.getRGB());
+        colors[0].update();
+        showSelected();
     }
     
     /**
@@ -132,20 +130,21 @@ public class Palette extends Window
     {
         super.act();
         
-        MouseInfo mouse = Greenfoot.getMouseInfo();
+        InputDispatcher dispatcher = InputDispatcher.getInstance();
         
         // Update record of mouse location.
-        if (Greenfoot.mouseDragged(null) || Greenfoot.mouseMoved(null))
-            lastMouse.setLocation(mouse.getX(), mouse.getY());
+        if (dispatcher.wasDragged() || dispatcher.wasMoved())
+            lastMouse.setLocation(dispatcher.getMouseX(), dispatcher.getMouseY());
         
-        Point mousePos = null;
-        if (Greenfoot.mousePressed(this))
-            mousePos = new Point(mouse.getX() - (getX() - getImage().getWidth() / 2), mouse.getY() - (getY() - getImage().getHeight() / 2));
-        if (Greenfoot.mouseClicked(null) && lookingForColor)
+        if (dispatcher.wasClicked() && lookingForColor)
         {
             if (lastMouse.getY() > -1 && lastMouse.getY() < getWorld().getHeight() && lastMouse.getX() > -1 && lastMouse.getX() < getWorld().getWidth())
-                setColor(new Color(WorldHandler.getInstance().getSnapShot().getRGB((int)lastMouse.getX(), (int)lastMouse.getY())));
-            lookingForColor = false;
+            {
+                // The color picked must be what is on screen now, not in a snapshot that may be up to SnapshotCache.MAX_AGE old.
+                SnapshotCache.getShared().invalidate();
+                setColor(new Color(colorAt((int)lastMouse.getX(), (int)lastMouse.getY()), true));
+            }
+            stopLooking();
             getWorld().removeObject(cover);
         }
         
@@ -154,58 +153,37 @@ public class Palette extends Window
         {
             if (lastMouse.getX() > -1 && lastMouse.getX() < getWorld().getWidth() && lastMouse.getY() > -1 && lastMouse.getY() < getWorld().getHeight())
             {
-                GreenfootImage pic = new GreenfootImage(70, 30);
-                pic.drawRect(0, 0, 29, pic.getHeight() - 1);
-                
-                BufferedImage b = WorldHandler.getInstance().getSnapShot();
-                for (int i = -3; i < 4; i++)
-                    if (lastMouse.getY() + i > -1 && lastMouse.getY() + i < getWorld().getHeight())
-                        for (int k = -3; k < 4; k++)
-                            if (lastMouse.getX() + k > -1 && lastMouse.getX() + k < getWorld().getWidth())
-                            {
-                                pic.setColor(new Color(b.getRGB((int)lastMouse.getX() + k, (int)lastMouse.getY() + i)));
-                                pic.fillRect(1 + (k + 3) * 4, 1 + (i + 3) * 4, 4, 4);
-                            }
-                 pic.setColor(Color.BLACK);
-                 pic.drawRect(12, 12, 5, 5);
-                 
-                 pic.setColor(new Color(b.getRGB((int)lastMouse.getX(), (int)lastMouse.getY())));
-                 pic.fillRect(40, 0, 29, 29);
-                 pic.setColor(Color.BLACK);
-                 pic.drawRect(40, 0, 29, 29);
-                 colorSample.setImage(pic);
+                // Sampling is cheap (the snapshot is only taken again where something changed), but only redraw when the pixels differ.
+                sampleLoupe();
+                if (!loupeDrawn || !Arrays.equals(loupe, drawnLoupe) || !Arrays.equals(loupeInside, drawnLoupeInside))
+                    drawLoupe();
             }
-            else
+            else if (loupeDrawn || colorDrawn)
+            {
                 colorSample.clear();
+                sampleChanged();
+                loupeDrawn = false;
+                colorDrawn = false;
+            }
         }
         // Draw rectangle of selected Color.
-        else
-        {
-            GreenfootImage pic = new GreenfootImage(70, 30);
-            int mx = pic.getWidth() / 2 - trans.getWidth() / 2;
-            pic.drawImage(trans, mx, 0);
-            pic.setColor(colors[selected].getColor());
-            pic.fillRect(mx + 1, 1, 28, 28);
-            colorSample.setImage(pic);
-        }
+        else if (!colorDrawn || model.getSelectedColor() != drawnColor)
+            drawSelected();
         
         for (int i = 0; i < colors.length; i++)
-            if (selected != i && colors[i].mousePressedOnThisOrComponents())
+            if (model.getSelected() != i && colors[i].mousePressedOnThisOrComponents())
             {
-                colors[selected].select(false);
-                colors[i].select(true);
-                
-                selected = i;
-                redSlider.setValue(colors[i].getRed());
-                greenSlider.setValue(colors[i].getGreen());
-                blueSlider.setValue(colors[i].getBlue());
-                alphaSlider.setValue(colors[i].getAlpha());
+                select(i);
+                showSelected();
             }
         
         // Listen for when sliders have been changed.
         if (redSlider.hasChanged() || greenSlider.hasChanged() || blueSlider.hasChanged() || alphaSlider.hasChanged())
+        {
             // Update selected Color.
-            colors[selected].setColor(new Color((int)redSlider.getValue(), (int)greenSlider.getValue(), (int)blueSlider.getValue(), (int)alphaSlider.getValue()));
+            model.setSelectedColor(FrameBuffer.pack((int)redSlider.getValue(), (int)greenSlider.getValue(), (int)blueSlider.getValue(), (int)alphaSlider.getValue()));
+            colors[model.getSelected()].update();
+        }
         
         // Listen for Button clicks.
         if (btnFind.wasClicked())
@@ -220,12 +198,8 @@ public class Palette extends Window
     {
         super.initializeOpen();
         result = null;
-        if (selected != 0)
-        {
-            colors[selected].select(false);
-            colors[0].select(true);
-        }
-        selected = 0;
+        if (model.getSelected() != 0)
+            select(0);
     }
     
     /**
@@ -236,12 +210,149 @@ public class Palette extends Window
     {
         if (lookingForColor)
         {
-            lookingForColor = false;
+            stopLooking();
             getWorld().addObject(btnFind, getX() + 25 + 125 / 2, getY() - getImage().getHeight() / 2 + 11);
             getWorld().removeObject(cover);
         }
     }
     
+    /**
+     * Add something that shows exact colors, to read them from when the mouse is over it instead of from a snapshot of the World.
+     */
+    public void addColorSource(ColorSource source)
+    {
+        colorSources.add(source);
+    }
+    
+    public void removeColorSource(ColorSource source)
+    {
+        colorSources.remove(source);
+    }
+    
+    /**
+     * Get the colors stored in this Palette's memory slots.
+     */
+    public ColorPalette getColorPalette()
+    {
+        return model;
+    }
+    
+    /**
+     * Select a memory slot, redrawing the slots whose outline changes.
+     */
+    private void select(int slot)
+    {
+        int old = model.getSelected();
+        model.select(slot);
+        colors[old].update();
+        colors[slot].update();
+    }
+    
+    /**
+     * Set the Sliders to the selected slot's Color.
+     */
+    private void showSelected()
+    {
+        int argb = model.getSelectedColor();
+        redSlider.setValue(FrameBuffer.red(argb));
+        greenSlider.setValue(FrameBuffer.green(argb));
+        blueSlider.setValue(FrameBuffer.blue(argb));
+        alphaSlider.setValue(FrameBuffer.alpha(argb));
+    }
+    
+    /**
+     * Get the color shown at (x, y) in the World, from a ColorSource if one is there, otherwise from the SnapshotCache.
+     * @return The packed ARGB color.
+     */
+    private int colorAt(int x, int y)
+    {
+        for (int i = 0; i < colorSources.size(); i++)
+            if (colorSources.get(i).hasColorAt(x, y))
+                return colorSources.get(i).getColorAt(x, y);
+        return SnapshotCache.getShared().getRGB(x, y);
+    }
+    
+    /**
+     * Read the 7x7 pixels around the mouse into loupe. Pixels outside the World are marked as such in loupeInside, and not drawn.
+     */
+    private void sampleLoupe()
+    {
+        for (int i = -3; i < 4; i++)
+            for (int k = -3; k < 4; k++)
+            {
+                int x = (int)lastMouse.getX() + k, y = (int)lastMouse.getY() + i;
+                int index = (i + 3) * 7 + k + 3;
+                loupeInside[index] = y > -1 && y < getWorld().getHeight() && x > -1 && x < getWorld().getWidth();
+                loupe[index] = loupeInside[index] ? colorAt(x, y) : 0;
+            }
+    }
+    
+    /**
+     * Draw the pixels around the mouse, magnified, and the Color under the mouse onto the existing sample image.
+     */
+    private void drawLoupe()
+    {
+        GreenfootImage pic = colorSample.getImage();
+        pic.clear();
+        pic.setColor(Color.BLACK);
+        pic.drawRect(0, 0, 29, pic.getHeight() - 1);
+        
+        BufferedImage awt = pic.getAwtImage();
+        for (int i = 0; i < loupe.length; i++)
+            if (loupeInside[i])
+            {
+                Arrays.fill(loupeCell, 0xFF000000 | loupe[i]);
+                awt.setRGB(1 + i % 7 * 4, 1 + i / 7 * 4, 4, 4, loupeCell, 0, 4);
+            }
+        pic.drawRect(12, 12, 5, 5);
+        
+        Arrays.fill(loupeRow, 0xFF000000 | loupe[3 * 7 + 3]);
+        for (int y = 0; y < loupeRow.length; y++)
+            awt.setRGB(40, y, loupeRow.length, 1, loupeRow, 0, loupeRow.length);
+        pic.drawRect(40, 0, 29, 29);
+        System.arraycopy(loupe, 0, drawnLoupe, 0, loupe.length);
+        System.arraycopy(loupeInside, 0, drawnLoupeInside, 0, loupeInside.length);
+        loupeDrawn = true;
+        colorDrawn = false;
+        sampleChanged();
+    }
+    
+    /**
+     * Tell the SnapshotCache the sample image has been redrawn.
+     */
+    private void sampleChanged()
+    {
+        GreenfootImage pic = colorSample.getImage();
+        SnapshotCache.getShared().invalidate(colorSample.getX() - pic.getWidth() / 2, colorSample.getY() - pic.getHeight() / 2, pic.getWidth(), pic.getHeight());
+    }
+    
+    /**
+     * Draw the selected Color over the transparency pattern onto the existing sample image.
+     */
+    private void drawSelected()
+    {
+        GreenfootImage pic = colorSample.getImage();
+        pic.clear();
+        int mx = pic.getWidth() / 2 - trans.getWidth() / 2;
+        pic.drawImage(trans, mx, 0);
+        drawnColor = model.getSelectedColor();
+        colorDrawn = true;
+        pic.setColor(new Color(drawnColor, true));
+        pic.fillRect(mx + 1, 1, 28, 28);
+        loupeDrawn = false;
+        if (colorSample.getWorld() != null)
+            sampleChanged();
+    }
+    
+    /**
+     * Stop looking for a Color, so the selected Color is drawn again.
+     */
+    private void stopLooking()
+    {
+        lookingForColor = false;
+        colorDrawn = false;
+    }
+    
     /**
      * Does what toggleShow() does but gives a Color value to be the initial selected Color.
      * @param c Color to be initially selected Color.
@@ -249,11 +360,9 @@ public class Palette extends Window
      */
     public void toggleShow(Color c)
     {
-        colors[0].setColor(c);
-        redSlider.setValue(c.getRed());
-        greenSlider.setValue(c.getGreen());
-        blueSlider.setValue(c.getBlue());
-        alphaSlider.setValue(c.getAlpha());
+        model.setColor(0, c.getRGB());
+        colors[0].update();
+        showSelected();
         toggleShow();
     }
     
@@ -263,11 +372,9 @@ public class Palette extends Window
      */
     public void setColor(Color c)
     {
-        colors[selected].setColor(c);
-        redSlider.setValue(c.getRed());
-        greenSlider.setValue(c.getGreen());
-        blueSlider.setValue(c.getBlue());
-        alphaSlider.setValue(c.getAlpha());
+        model.setSelectedColor(c.getRGB());
+        colors[model.getSelected()].update();
+        showSelected();
     }
     
     /**
@@ -280,58 +387,30 @@ public class Palette extends Window
     
     private class ColorMemoryCell extends WindowComponent
     {
-        private Color c;
-        private boolean selected;
+        private int slot;
+        private GreenfootImage pic = new GreenfootImage(20, 20);
         
-        public ColorMemoryCell(Color c)
+        public ColorMemoryCell(int slot)
         {
-            this.c = c;
+            this.slot = slot;
+            setImage(pic);
             update();
         }
-        private void update()
+        /**
+         * Redraw this slot's Color from the ColorPalette, outlined if it is the selected slot.
+         */
+        public void update()
         {
-            this.c = c;
-            GreenfootImage pic = new GreenfootImage(20, 20);
-            pic.setColor(c);
+            pic.clear();
+            pic.setColor(new Color(model.getColor(slot), true));
             pic.fillRect(1, 1, pic.getWidth() - 3, pic.getHeight() - 3);
             pic.setColor(Color.BLACK);
             pic.drawRect(1, 1, pic.getWidth() - 3, pic.getHeight() - 3);
-            if (selected)
+            if (model.getSelected() == slot)
             {
                 pic.setColor(Color.RED);
                 pic.drawRect(0, 0, pic.getWidth() - 1, pic.getHeight() - 1);
             }
-            setImage(pic);
-        }
-        public void select(boolean s)
-        {
-            selected = s;
-            update();
-        }
-        public Color getColor()
-        {
-            return c;
-        }
-        public void setColor(Color c)
-        {
-            this.c = c;
-            update();
-        }
-        public int getRed()
-        {
-            return c.getRed();
-        }
-        public int getGreen()
-        {
-            return c.getGreen();
-        }
-        public int getBlue()
-        {
-            return c.getBlue();
-        }
-        public int getAlpha()
-        {
-            return c.getAlpha();
         }
     }
     
@@ -0,0 +1,17 @@
+/**
+ * ProgressListener
+ * <p>
+ * Told how far along a long job (such as writing every frame of an animation) is.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public interface ProgressListener
+{
+    /**
+     * Called after each step of the job.
+     * @param done The number of steps finished.
+     * @param total The number of steps in the whole job.
+     */
+    void progress(int done, int total);
+}
@@ -0,0 +1,49 @@
+import greenfoot.*;  // (World, Actor, GreenfootImage, Greenfoot and MouseInfo)
+import java.awt.Point;
+
+/**
+ * When this button is clicked, the pixel grid is resized to the "width x height" written in the grid size text box
+ * 
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class ResizeBtn extends Button
+{
+    //the largest number of pixels allowed across or down the grid
+    public static final int MAX_GRID_SIZE = FrameBuffer.MAX_GRID_SIZE;
+    /**
+     * Act - do whatever the ResizeBtn wants to do. This method is called whenever
+     * the 'Act' or 'Run' button gets pressed in the environment.
+     */
+    public void act() 
+    {
+        super.act();//call the Button class act
+        resize(((MyWorld)getWorld()).getGridSize());//resize the grid to the size given in the text box
+    }
+    public ResizeBtn(String text, Point size)
+    {
+        super(text,size);
+    }
+    /**
+     * Check if the button was clicked. If it was, resize the grid to the given size, written like "32x8"
+     */
+    public void resize(String gridSize)
+    {
+        if(wasClicked())//the button was clicked
+        {
+            String[] values = gridSize.toLowerCase().split("x");//seperate the width and height
+            try
+            {
+                int width = Integer.parseInt(values[0].trim());
+                int height = Integer.parseInt(values[values.length - 1].trim());
+                if(values.length == 2 && width > 0 && height > 0 && width <= MAX_GRID_SIZE && height <= MAX_GRID_SIZE)
+                {
+                    ((MyWorld)getWorld()).setGridSize(width, height);
+                }
+            } catch (NumberFormatException e)
+            {
+                //not a size, leave the grid as it is
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * SerialPortOutput
+ * <p>
+ * Opens a serial port for writing, such as "/dev/ttyUSB0" or "/dev/cu.usbmodem1411" (Linux and Mac) or "COM3" (Windows).<p>
+ * Java has no serial port API of its own, so the port is opened as a file after its baud rate is set with the system's
+ * own tool ("stty" on Linux and Mac, "mode" on Windows). The name "emulator" gives an LedEmulator instead of a real port.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class SerialPortOutput
+{
+    public static final String EMULATOR = "emulator";
+    public static final int DEFAULT_BAUD_RATE = 500000;
+
+    private SerialPortOutput()
+    {}
+
+    /**
+     * Open the given serial port for writing at the given baud rate.
+     * @throws IOException If the port could not be set up or opened.
+     */
+    public static OutputStream open(String port, int baudRate) throws IOException
+    {
+        port = port.trim();
+        if (port.equalsIgnoreCase(EMULATOR))
+            return new LedEmulator(baudRate);
+        String os = System.getProperty("os.name").toLowerCase();
+        if (os.startsWith("windows"))
+        {
+            run("mode", port + ":", "BAUD=" + baudRate, "PARITY=N", "DATA=8", "STOP=1", "DTR=ON");
+            return new FileOutputStream("\\\\.\\" + port);
+        }
+        // raw: no translation of the bytes, -hupcl: don't reset the Arduino every time the port is closed.
+        run("stty", os.startsWith("mac") ? "-f" : "-F", port, String.valueOf(baudRate), "raw", "-echo", "-hupcl");
+        return new FileOutputStream(port);
+    }
+
+    private static void run(String... command) throws IOException
+    {
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            while (process.getInputStream().read() != -1)
+                ; // Drain the output so the process can finish.
+            if (process.waitFor() != 0)
+                throw new IOException("Could not set up serial port: " + String.join(" ", command));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted setting up serial port");
+        }
+    }
+}
@@ -1,6 +1,4 @@
-import greenfoot.Greenfoot;
 import greenfoot.GreenfootImage;
-import greenfoot.MouseInfo;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
@@ -23,7 +21,8 @@ public class Slider  extends WindowComponent
     private double high;
     private double value;
     private double increment;
-    private Point lastMouse = new Point(-25, -25);
+    private boolean pressedNow;
+    private boolean releasedNow;
     private boolean dragging;
     private int heldAt;
     private int holdArrow;
@@ -59,24 +58,15 @@ public class Slider  extends WindowComponent
     {
         super.act();
         
-        MouseInfo mouse = Greenfoot.getMouseInfo();
-        if (Greenfoot.mouseMoved(null) || Greenfoot.mouseDragged(null))
-            lastMouse.setLocation(mouse.getX(), mouse.getY());
-        
-        boolean mouseDown = false;
-        if (Greenfoot.mousePressed(this))
-            mouseDown = true;
-        if (Greenfoot.mouseClicked(null) || Greenfoot.mouseDragEnded(null))
-        {
-            mouseDown = false;
-            dragging = false;
-            holdArrow = 0;
-        }
+        InputDispatcher dispatcher = InputDispatcher.getInstance();
+        boolean mouseDown = pressedNow;
+        boolean mouseUp = releasedNow;
+        pressedNow = releasedNow = false;
             
         GreenfootImage image = getImage();
         image.clear();
         
-        Point offsetMouse = !inWorld() ? new Point(-1, -1) : new Point((int)lastMouse.getX() - (getX() - size / 2), (int)lastMouse.getY() - (getY() - 19));
+        Point offsetMouse = !inWorld() ? new Point(-1, -1) : new Point(dispatcher.getMouseX() - (getX() - size / 2), dispatcher.getMouseY() - (getY() - 19));
         
         if (holdArrow > 0)
         {
@@ -93,7 +83,7 @@ public class Slider  extends WindowComponent
                 subtractIncrement();
         }
         
-        if (Greenfoot.mousePressed(this) && offsetMouse.getX() > 0 && offsetMouse.getX() < size && offsetMouse.getY() > 12 && offsetMouse.getY() < 26)
+        if (mouseDown && offsetMouse.getX() > 0 && offsetMouse.getX() < size && offsetMouse.getY() > 12 && offsetMouse.getY() < 26)
             if (offsetMouse.getX() < 10)
             {
                 holdArrow = -1;
@@ -114,7 +104,7 @@ public class Slider  extends WindowComponent
             dragging = true;
             heldAt = (int)offsetMouse.getX() - 10 - s;
         }
-        if (dragging && Greenfoot.mouseDragged(null))
+        if (dragging && dispatcher.wasDragged())
         {
             s += offsetMouse.getX() - 10 - s - heldAt;
             if (s < 0)
@@ -130,6 +120,11 @@ public class Slider  extends WindowComponent
             if (value < low)
                 value = low;
         }
+        if (mouseUp)
+        {
+            dragging = false;
+            holdArrow = 0;
+        }
         
         image.setColor(backColor);
         image.fillRect(0, 12, size - 1, 14);
@@ -157,10 +152,23 @@ public class Slider  extends WindowComponent
         
         g.drawString(low + "", 0, 38);
         
-        g.drawString(high + "", size - g.getFontMetrics().stringWidth(Double.toString(high)), 38);
+        g.drawString(high + "", size - TextMetricsCache.stringWidth(font, Double.toString(high)), 38);
         g.dispose();
     }
     
+    /**
+     * Note a press on the Slider, and the mouse being let go after one, for the next act.
+     */
+    @Override
+    public void handleEvent(InputEvent event)
+    {
+        super.handleEvent(event);
+        if (event.getType() == InputEvent.PRESS)
+            pressedNow = true;
+        else if (event.getType() == InputEvent.RELEASE)
+            releasedNow = true;
+    }
+    
     /**
      * Get the increment for the Slider.
      * @return The increment for the Slider.
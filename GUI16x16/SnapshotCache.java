@@ -0,0 +1,81 @@
+import greenfoot.core.WorldHandler;
+import java.awt.image.BufferedImage;
+
+/**
+ * SnapshotCache
+ * <p>
+ * Keeps one snapshot of the World so picking colors off the screen doesn't render the whole World every act.<p>
+ * Anything that redraws or moves reports the area it covers with invalidate(). The area is kept as one rectangle around everything
+ * reported, and a new snapshot is only taken when a pixel inside it (or anything, after invalidate() with no area) is asked for.
+ * Changes nobody reports, such as a button's hover highlight, are picked up once the snapshot is older than MAX_AGE, so anything
+ * that must be exact (such as the color a click picks) should call invalidate() first.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class SnapshotCache
+{
+    public static final int MAX_AGE = 1000;
+
+    private static SnapshotCache shared = new SnapshotCache();
+
+    private BufferedImage snapshot;
+    private long takenAt;
+    // The rectangle around every area reported since the snapshot was taken. Empty when dirtyLeft >= dirtyRight.
+    private int dirtyLeft, dirtyTop, dirtyRight, dirtyBottom;
+
+    /**
+     * Get the cache of the World being shown.
+     */
+    public static SnapshotCache getShared()
+    {
+        return shared;
+    }
+
+    /**
+     * Record that everything may have changed.
+     */
+    public void invalidate()
+    {
+        snapshot = null;
+    }
+
+    /**
+     * Record that the given area of the World may have changed.
+     */
+    public void invalidate(int x, int y, int width, int height)
+    {
+        if (snapshot == null || width <= 0 || height <= 0)
+            return;
+        if (dirtyLeft >= dirtyRight)
+        {
+            dirtyLeft = x;
+            dirtyTop = y;
+            dirtyRight = x + width;
+            dirtyBottom = y + height;
+        }
+        else
+        {
+            dirtyLeft = Math.min(dirtyLeft, x);
+            dirtyTop = Math.min(dirtyTop, y);
+            dirtyRight = Math.max(dirtyRight, x + width);
+            dirtyBottom = Math.max(dirtyBottom, y + height);
+        }
+    }
+
+    /**
+     * Get the color of the World at (x, y) as it is now, taking a new snapshot first if that pixel may have changed.
+     * @return The packed RGB color (opaque).
+     */
+    public int getRGB(int x, int y)
+    {
+        long now = System.currentTimeMillis();
+        if (snapshot == null || now - takenAt > MAX_AGE || x >= dirtyLeft && x < dirtyRight && y >= dirtyTop && y < dirtyBottom)
+        {
+            snapshot = WorldHandler.getInstance().getSnapShot();
+            takenAt = now;
+            dirtyLeft = dirtyRight = 0;
+        }
+        return 0xFF000000 | snapshot.getRGB(x, y);
+    }
+}
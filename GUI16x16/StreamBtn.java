@@ -0,0 +1,94 @@
+import greenfoot.*;  // (World, Actor, GreenfootImage, Greenfoot and MouseInfo)
+import java.awt.Point;
+import java.io.IOException;
+
+/**
+ * When this button is clicked, the frame showing on the screen starts being streamed to the LED controller on the serial port
+ * given in the port text box (or to an emulator if the port is "emulator"). Every time the frame changes it is sent again.
+ * Clicking the button again stops streaming. If the port can't be opened or stops working, or the LED layout
+ * doesn't fit the grid, the button says so until it is clicked again.
+ * 
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class StreamBtn extends Button
+{
+    private FrameStreamer streamer;//sends frames to the serial port in the background, null when not streaming
+    /**
+     * Act - do whatever the StreamBtn wants to do. This method is called whenever
+     * the 'Act' or 'Run' button gets pressed in the environment.
+     */
+    public void act() 
+    {
+        super.act();//call the Button class act
+        stream(((MyWorld)getWorld()).getStreamPort());//stream to the port given in the text box
+    }
+    public StreamBtn(String text, Point size)
+    {
+        super(text,size);
+    }
+    /**
+     * Check if the button was clicked. If it was, start or stop streaming to the given port.
+     * While streaming, send the frame on the screen if it has changed.
+     */
+    public void stream(String port)
+    {
+        if(wasClicked())//the button was clicked
+        {
+            if(streamer == null)
+            {
+                startStreaming(port);
+            }
+            else
+            {
+                stopStreaming();
+            }
+        }
+        if(streamer != null)
+        {
+            if(streamer.isRunning())
+            {
+                streamer.setLayout(((MyWorld)getWorld()).getLedLayout());//resends the frame if the layout was changed
+                try
+                {
+                    streamer.offer(((MyWorld)getWorld()).getFrameBuffer());//only sent if it changed since last time
+                } catch (IllegalArgumentException e)
+                {
+                    //the layout doesn't fit the grid (such as tiles that don't divide it), so there is no order to send the pixels in
+                    stopStreaming();
+                    setText("Bad layout");
+                }
+            }
+            else
+            {
+                //the port stopped working (or the sending thread was stopped)
+                stopStreaming();
+                setText("Stream failed");
+            }
+        }
+    }
+    private void startStreaming(String port)
+    {
+        try
+        {
+            streamer = new FrameStreamer(SerialPortOutput.open(port, SerialPortOutput.DEFAULT_BAUD_RATE));
+            streamer.start();
+            setText("Stop Stream");
+        } catch (IOException e)
+        {
+            setText("Stream failed");//the port could not be opened
+        }
+    }
+    /**
+     * Stop streaming and close the serial port, if streaming
+     */
+    public void stopStreaming()
+    {
+        if(streamer != null)
+        {
+            streamer.stop();
+            streamer = null;
+            setText("Stream");
+        }
+    }
+}
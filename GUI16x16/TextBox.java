@@ -1,11 +1,8 @@
-import greenfoot.MouseInfo;
 import greenfoot.Greenfoot;
 import greenfoot.GreenfootImage;
-import greenfoot.core.WorldHandler;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.awt.Color;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.Point;
@@ -34,6 +31,7 @@ import java.awt.Point;
  * 5. Double/Triple click.<br>
  * <p>
  * Includes copy/cut/paste functionality with ctrl+c / ctrl+x / ctrl+v<br>
+ * Includes undo/redo with ctrl+z / ctrl+y<br>
  * 
  * @author Taylor Born
  * @version November 2010 - April 2014
@@ -51,20 +49,16 @@ public class TextBox extends WindowComponent
      */
     public static boolean textBoxHasFocus()
     {
-        for (Object o : WorldHandler.getInstance().getWorld().getObjects(TextBox.class))
-            if (((TextBox)o).hasFocus())
-                return true;
-        return false;
+        return InputDispatcher.getInstance().getFocused() instanceof TextBox;
     }
 
-    private String text = "";
+    private TextDocument text = new TextDocument();
     private Point size;
     private Point clickedAt;
     private int clickCount;
     private int oldCaret;
     private int caret;
     private int blink;
-    private ArrayList<String> strs = new ArrayList<String>();
     private int scrollValue;
     private boolean draggingScrollBar;
     private int[] presses = new int[4];
@@ -74,7 +68,8 @@ public class TextBox extends WindowComponent
     private boolean readOnly = false;
     private boolean focusable = true;
     
-    private Point lastMouse = new Point(-1, -1);
+    private InputEvent pressEvent;
+    private InputEvent clickEvent;
     private ScrollingListener scroller = initializeScroller();
     private int scrollBar = 40;
     private int mouseDrag_yOffsetOnScrollBar;
@@ -91,7 +86,7 @@ public class TextBox extends WindowComponent
     private Color messageColor = Color.GRAY;
     private boolean password = false;
     
-    private boolean pressedC, pressedV, pressedX;
+    private boolean pressedC, pressedV, pressedX, pressedZ, pressedY;
     
     private boolean selecting;
     private int selectingPivot = -1;
@@ -123,7 +118,7 @@ public class TextBox extends WindowComponent
         if (size.getY() < this.font.getSize() + 6)
             size = new Point((int)size.getX(), this.font.getSize() + 6);
         this.size = size;
-        this.text = text;
+        this.text = new TextDocument(text);
         caret = text.length();
         drawFunction = new DrawFunction();
         drawFunction.paint();
@@ -158,13 +153,15 @@ public class TextBox extends WindowComponent
             
             
             handleCopyCutPaste();
+            
+            handleUndoRedo();
         
             if (Greenfoot.isKeyDown("control") && Greenfoot.isKeyDown("t"))
             {
                 if (!ctrTab)
                 {
                     deleteSelected();
-                    text = text.substring(0, caret) + "    " + text.substring(caret);
+                    text.insert(caret, "    ");
                     changed = true;
                     // Increment caret pass inserted character.
                     caret += 4;
@@ -218,16 +215,28 @@ public class TextBox extends WindowComponent
                     {
                         if (vDown && !pressedV)
                         {
-                            deleteSelected();
+                            int begin = caret;
+                            int end = caret;
+                            if (selectingPivot != -1)
+                            {
+                                begin = Math.min(caret, selectingPivot);
+                                end = Math.max(caret, selectingPivot);
+                            }
+                            int newLength = text.length() - (end - begin);
                             String s = textTransfer.getClipboardContents();
+                            // Collect the characters to insert, then replace the selection with them as one edit.
+                            StringBuilder pasted = new StringBuilder();
                             for (int i = 0; i < s.length(); i++)
-                                if ((s.charAt(i) == '\n' || (s.charAt(i) >= 32 && s.charAt(i) < 127)) && (maxLength == -1 || text.length() < maxLength) && (accept.equals("") || accept.contains(s.substring(i, i + 1)) && !dontAccept.contains(s.substring(i, i + 1))))
-                                {
-                                    text = text.substring(0, caret) + s.charAt(i) + text.substring(caret);
-                                    changed = true;
-                                    // Increment caret pass inserted character.
-                                    caret++;
-                                }
+                                if ((s.charAt(i) == '\n' || (s.charAt(i) >= 32 && s.charAt(i) < 127)) && (maxLength == -1 || newLength + pasted.length() < maxLength) && (accept.equals("") || accept.contains(s.substring(i, i + 1)) && !dontAccept.contains(s.substring(i, i + 1))))
+                                    pasted.append(s.charAt(i));
+                            if (pasted.length() > 0 || end > begin)
+                            {
+                                text.replace(begin, end, pasted.toString());
+                                changed = true;
+                                // Place caret pass inserted characters.
+                                caret = begin + pasted.length();
+                                selectingPivot = -1;
+                            }
                             pressedV = true;
                         }
                         if (xDown && !pressedX)
@@ -246,13 +255,17 @@ public class TextBox extends WindowComponent
     
     private void handleMouse()
     {
-        MouseInfo mouse = Greenfoot.getMouseInfo();
-        if (Greenfoot.mousePressed(this))
+        InputDispatcher dispatcher = InputDispatcher.getInstance();
+        InputEvent press = pressEvent;
+        InputEvent click = clickEvent;
+        pressEvent = clickEvent = null;
+        
+        if (press != null)
             // Pressed somewhere in the text.
-            if (mouse.getX() - (getX() - size.getX() / 2) < size.getX() - (strs.size() * font.getSize() > size.getY() ? SCROLL_WIDTH - 3 : 0))
+            if (press.getX() - (getX() - size.getX() / 2) < size.getX() - (drawFunction.lineCount() * font.getSize() > size.getY() ? SCROLL_WIDTH - 3 : 0))
             {
                 if (focusable) {
-                    clickedAt = new Point(mouse.getX() - (getX() - (int)size.getX() / 2), mouse.getY() - (getY() - (int)size.getY() / 2));
+                    clickedAt = new Point(press.getX() - (getX() - (int)size.getX() / 2), press.getY() - (getY() - (int)size.getY() / 2));
                     
                     handleForSelecting();
                     
@@ -263,26 +276,23 @@ public class TextBox extends WindowComponent
             }
             else
             {
-                int scroll = (int)(scrollValue / (double)(font.getSize() * strs.size() + font.getSize() / 5 - (int)size.getY() + 3) * (size.getY() - scrollBar));
+                int scroll = (int)(scrollValue / (double)(font.getSize() * drawFunction.lineCount() + font.getSize() / 5 - (int)size.getY() + 3) * (size.getY() - scrollBar));
                 // Pressed on scroll bar.
-                if (strs.size() * font.getSize() > (int)size.getY() && mouse.getX() - (getX() - size.getX() / 2) > (int)size.getX() - 15 && mouse.getY() - (getY() - (int)size.getY() / 2) > scroll && mouse.getY() - (getY() - (int)size.getY() / 2) < scroll + scrollBar)
+                if (drawFunction.lineCount() * font.getSize() > (int)size.getY() && press.getX() - (getX() - size.getX() / 2) > (int)size.getX() - 15 && press.getY() - (getY() - (int)size.getY() / 2) > scroll && press.getY() - (getY() - (int)size.getY() / 2) < scroll + scrollBar)
                 {
                     draggingScrollBar = true;
-                    mouseDrag_yOffsetOnScrollBar = mouse.getY() - (getY() - (int)size.getY() / 2) - scroll;
+                    mouseDrag_yOffsetOnScrollBar = press.getY() - (getY() - (int)size.getY() / 2) - scroll;
                 }
             }
-        if (focusable && Greenfoot.mouseClicked(this)) {
-            if ((clickCount = mouse.getClickCount()) >= 2)
-                clickedAt = new Point(mouse.getX() - (getX() - (int)size.getX() / 2), mouse.getY() - (getY() - (int)size.getY() / 2));
+        if (focusable && click != null) {
+            if ((clickCount = click.getClickCount()) >= 2)
+                clickedAt = new Point(click.getX() - (getX() - (int)size.getX() / 2), click.getY() - (getY() - (int)size.getY() / 2));
         }
         else
             clickCount = 0;
         
-        if (Greenfoot.mouseMoved(null) || Greenfoot.mouseDragged(null))
-            lastMouse.setLocation(mouse.getX(), mouse.getY());
-        
         // Listen to end dragging of scroll bar and selecting.
-        if (Greenfoot.mouseClicked(null) || Greenfoot.mouseDragEnded(null))
+        if (dispatcher.wasReleased())
         {
             draggingScrollBar = false;
             selecting = false;
@@ -290,28 +300,73 @@ public class TextBox extends WindowComponent
         
         if (selecting && clickedAt == null && blink % 6 == 0)
         {
-            clickedAt = new Point((int)lastMouse.getX() - (getX() - (int)size.getX() / 2), (int)lastMouse.getY() - (getY() - (int)size.getY() / 2));
+            clickedAt = new Point(dispatcher.getMouseX() - (getX() - (int)size.getX() / 2), dispatcher.getMouseY() - (getY() - (int)size.getY() / 2));
             if (selectingPivot == -1)
                 selectingPivot = caret;
         }
         
-        if (Greenfoot.mouseDragged(null))
+        if (dispatcher.wasDragged())
             if (draggingScrollBar)
             {
-                int topOfScrollBar = (mouse.getY() - (getY() - (int)size.getY() / 2)) - mouseDrag_yOffsetOnScrollBar;
+                int topOfScrollBar = (dispatcher.getMouseY() - (getY() - (int)size.getY() / 2)) - mouseDrag_yOffsetOnScrollBar;
                 if (topOfScrollBar < 0)
                     topOfScrollBar = 0;
-                else if (mouse.getY() - (getY() - (int)size.getY() / 2) + (scrollBar - mouseDrag_yOffsetOnScrollBar) > size.getY())
+                else if (dispatcher.getMouseY() - (getY() - (int)size.getY() / 2) + (scrollBar - mouseDrag_yOffsetOnScrollBar) > size.getY())
                     topOfScrollBar = (int)size.getY() - scrollBar;
-                scrollValue = (int)(topOfScrollBar / (double)(size.getY() - scrollBar) * (font.getSize() * strs.size() + font.getSize() / 5 - (int)size.getY() + 3));
+                scrollValue = (int)(topOfScrollBar / (double)(size.getY() - scrollBar) * (font.getSize() * drawFunction.lineCount() + font.getSize() / 5 - (int)size.getY() + 3));
             }
     }
     
+    /**
+     * Keep the press and click that happened on this TextBox for handling in act().
+     */
+    @Override
+    public void handleEvent(InputEvent event)
+    {
+        super.handleEvent(event);
+        if (event.getType() == InputEvent.PRESS)
+            pressEvent = event;
+        else if (event.getType() == InputEvent.CLICK)
+            clickEvent = event;
+    }
+    
+    private void handleUndoRedo()
+    {
+        boolean zDown = Greenfoot.isKeyDown("z");
+        if (!zDown)
+            pressedZ = false;
+        boolean yDown = Greenfoot.isKeyDown("y");
+        if (!yDown)
+            pressedY = false;
+        
+        if (!readOnly && Greenfoot.isKeyDown("control"))
+        {
+            int newCaret = -1;
+            if (zDown && !pressedZ)
+            {
+                newCaret = text.undo();
+                pressedZ = true;
+            }
+            if (yDown && !pressedY)
+            {
+                newCaret = text.redo();
+                pressedY = true;
+            }
+            if (newCaret != -1)
+            {
+                caret = newCaret;
+                selectingPivot = -1;
+                changed = true;
+                blink = 1;
+            }
+        }
+    }
+    
     private boolean deleteSelected()
     {
         if (selectingPivot != -1)
         {
-            text = text.substring(0, Math.min(caret, selectingPivot)) + text.substring(Math.max(caret, selectingPivot));
+            text.delete(Math.min(caret, selectingPivot), Math.max(caret, selectingPivot));
             changed = true;
             if (selectingPivot < caret)
                 caret = selectingPivot;
@@ -323,7 +378,7 @@ public class TextBox extends WindowComponent
     
     private void handleInput()
     {
-        String s = Greenfoot.getKey();
+        String s = InputDispatcher.getInstance().getKey(this);
         if (s != null && s.length() == 1 && treatAllAsUpperCase)
             s = s.toUpperCase();
         
@@ -334,11 +389,9 @@ public class TextBox extends WindowComponent
                 if (!deleteSelected())
                     if (caret < text.length())
                     {
-                        // Remove character to left of caret position.
-                        text = text.substring(0, ++caret - 1) + text.substring(caret);
+                        // Remove character to right of caret position.
+                        text.delete(caret, caret + 1);
                         changed = true;
-                        // Decrement caret to position of removed character.
-                        caret--;
                         // Reset caret blinking, to show solid.
                         blink = 1;
                     }
@@ -350,7 +403,7 @@ public class TextBox extends WindowComponent
                     if (caret > 0)
                     {
                         // Remove character to left of caret position.
-                        text = text.substring(0, caret - 1) + text.substring(caret);
+                        text.delete(caret - 1, caret);
                         changed = true;
                         // Decrement caret to position of removed character.
                         caret--;
@@ -378,15 +431,16 @@ public class TextBox extends WindowComponent
                 {
                     if (selectingPivot != -1)
                     {
-                        text = text.substring(0, Math.min(caret, selectingPivot)) + text.substring(Math.max(caret, selectingPivot));
+                        // Replace the selection, as one edit.
+                        text.replace(Math.min(caret, selectingPivot), Math.max(caret, selectingPivot), s);
                         
                         if (selectingPivot < caret)
                             caret = selectingPivot;
                         selectingPivot = -1;
                     }
-                    
-                    // At index of caret.
-                    text = text.substring(0, caret) + s + text.substring(caret);
+                    else
+                        // At index of caret.
+                        text.type(caret, s.charAt(0));
                     changed = true;
                     // Increment caret pass inserted character.
                     caret++;
@@ -397,25 +451,21 @@ public class TextBox extends WindowComponent
     
     private void handleArrowKeys()
     {
-        Graphics2D g = (new GreenfootImage(1, 1)).getAwtImage().createGraphics();
-        g.setFont(font);
-        FontMetrics fm = g.getFontMetrics();
-        
         if (Greenfoot.isKeyDown("up"))
         {
             if (++presses[0] == 25)
             {
-                if (caret >= strs.get(0).length())
+                if (caret >= drawFunction.lineLength(0))
                 {
                     int l = 0;
-                    for (int i = 0; i < strs.size(); i++)
+                    for (int i = 0; i < drawFunction.lineCount(); i++)
                     {
-                        if (l + strs.get(i).length() > caret)
+                        if (l + drawFunction.lineLength(i) > caret)
                         {
                             int cur;
                             if (lastCursorX == null)
                             {
-                                cur = 4 + fm.stringWidth(strs.get(i).substring(0, caret - l));
+                                cur = 4 + drawFunction.lineWidth(i, caret - l);
                                 lastCursorX = cur;
                             }
                             else
@@ -426,7 +476,7 @@ public class TextBox extends WindowComponent
                             blink = 1;
                             break;
                         }
-                        l += strs.get(i).length();
+                        l += drawFunction.lineLength(i);
                     }
                 }
                 else
@@ -438,17 +488,17 @@ public class TextBox extends WindowComponent
         {
             if (presses[0] > 0 && presses[0] < 20)
             {
-                if (!strs.isEmpty() && caret >= strs.get(0).length())
+                if (drawFunction.lineCount() > 0 && caret >= drawFunction.lineLength(0))
                 {
                     int l = 0;
-                    for (int i = 0; i < strs.size(); i++)
+                    for (int i = 0; i < drawFunction.lineCount(); i++)
                     {
-                        if (l + strs.get(i).length() > caret)
+                        if (l + drawFunction.lineLength(i) > caret)
                         {
                             int cur;
                             if (lastCursorX == null)
                             {
-                                cur = 4 + fm.stringWidth(strs.get(i).substring(0, caret - l));
+                                cur = 4 + drawFunction.lineWidth(i, caret - l);
                                 lastCursorX = cur;
                             }
                             else
@@ -459,7 +509,7 @@ public class TextBox extends WindowComponent
                             blink = 1;
                             break;
                         }
-                        l += strs.get(i).length();
+                        l += drawFunction.lineLength(i);
                     }
                 }
                 else
@@ -473,14 +523,14 @@ public class TextBox extends WindowComponent
             if (++presses[1] == 25)
             {
                 int l = 0;
-                for (int i = 0; i < strs.size(); i++)
+                for (int i = 0; i < drawFunction.lineCount(); i++)
                 {
-                    if (l + strs.get(i).length() > caret)
+                    if (l + drawFunction.lineLength(i) > caret)
                     {
                         int cur;
                         if (lastCursorX == null)
                         {
-                            cur = 4 + fm.stringWidth(strs.get(i).substring(0, caret - l));
+                            cur = 4 + drawFunction.lineWidth(i, caret - l);
                             lastCursorX = cur;
                         }
                         else
@@ -490,7 +540,7 @@ public class TextBox extends WindowComponent
                         blink = 1;
                         break;
                     }
-                    l += strs.get(i).length();
+                    l += drawFunction.lineLength(i);
                 }
                 presses[1] = 20;
             }
@@ -500,14 +550,14 @@ public class TextBox extends WindowComponent
             if (presses[1] > 0 && presses[1] < 20)
             {
                 int l = 0;
-                for (int i = 0; i < strs.size(); i++)
+                for (int i = 0; i < drawFunction.lineCount(); i++)
                 {
-                    if (l + strs.get(i).length() > caret)
+                    if (l + drawFunction.lineLength(i) > caret)
                     {
                         int cur;
                         if (lastCursorX == null)
                         {
-                            cur = 4 + fm.stringWidth(strs.get(i).substring(0, caret - l));
+                            cur = 4 + drawFunction.lineWidth(i, caret - l);
                             lastCursorX = cur;
                         }
                         else
@@ -517,12 +567,11 @@ public class TextBox extends WindowComponent
                         blink = 1;
                         break;
                     }
-                    l += strs.get(i).length();
+                    l += drawFunction.lineLength(i);
                 }
             }
             presses[1] = 0;
         }
-        g.dispose();
         
         if (Greenfoot.isKeyDown("left"))
         {
@@ -592,22 +641,13 @@ public class TextBox extends WindowComponent
             selectingPivot = -1;
     }
     
-    /**
-     * Called when gains focus.<p>
-     * Releases Greenfoot.getKey().
-     */
-    protected void gainedFocus()
-    {
-        Greenfoot.getKey();
-    }
-    
     /**
      * Get the contents of this TextBox.
      * @return The text in this TextBox.
      */
     public String getText()
     {
-        return text;
+        return text.toString();
     }
     
     /**
@@ -616,7 +656,7 @@ public class TextBox extends WindowComponent
      */
     public void setText(String str)
     {
-        text = str;
+        text.setText(str);
         changed = true;
         caret = str.length();
         selectingPivot = -1;
@@ -855,17 +895,30 @@ public class TextBox extends WindowComponent
     
     private class DrawFunction
     {
-        private FontMetrics fm;
+        // The lines the text (or password characters, or message) is broken into.
+        private LineWrapper wrapper = new LineWrapper();
+        
+        // A password character for each character of text.
+        private final CharSequence passwordChars = new CharSequence() {
+            public int length()
+            {
+                return text.length();
+            }
+            public char charAt(int index)
+            {
+                return (char)8226;
+            }
+            public CharSequence subSequence(int begin, int end)
+            {
+                char[] s_password = new char[end - begin];
+                Arrays.fill(s_password, (char)8226);
+                return new String(s_password);
+            }
+        };
         
-        // How many characters have been drawn so far.
-        private int count;
-            
         // Line where caret is within.
         private int caretLine;
         
-        // Current constructed line of text to be drawn.
-        private String current = "";
-        
         // Pixel x coordinate for caret.
         private int caretX = 0;
         
@@ -886,122 +939,29 @@ public class TextBox extends WindowComponent
             Graphics2D g = pic.getAwtImage().createGraphics();
             g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             g.setFont(font);
-            fm = g.getFontMetrics();
-            
-            // Clear lines.
-            strs.clear();
-            
-            // Make copy of text.
-            String remainingBeforeN = text + " ";
-            
-            // If password status, substitute characters for password character.
-            if (password)
-            {
-                String s_password = "";
-                for (int i = 0; i < text.length(); i++)
-                    s_password += "" + (char)8226;
-                remainingBeforeN = s_password + " ";
-            }
             
             // If text is empty and do not have focus, will draw message (if it contains anything).
             boolean showingMessage = message != null && text.isEmpty();// && !hasFocus();
-            if (showingMessage)
-                remainingBeforeN = message + " ";
-            
-            // Break up text according to new line characters.
-            String remainingAfterN = "";
-            if (remainingBeforeN.indexOf("\n") != -1)
-            {
-                remainingAfterN = remainingBeforeN.substring(remainingBeforeN.indexOf("\n") + 1);
-                remainingBeforeN = remainingBeforeN.substring(0, remainingBeforeN.indexOf("\n")) + " ";
-            }
             
-            // Current constructed line of text to be drawn.
-            current = "";
-            
-            // How many characters have been drawn so far.
-            count = 0;
+            // If password status, substitute characters for password character. Only what the text says has changed is wrapped again.
+            int limit = (int)size.getX() - SCROLL_WIDTH - 3;
+            if (showingMessage)
+                wrapper.wrap(message, message.length(), 0, font, limit);
+            else
+                wrapper.wrap(password ? passwordChars : text, text.getChangeStart(), text.getUnchangedEnd(), font, limit);
+            text.clearChanges();
             
             // Line where caret is within.
             caretLine = -1;
             
             caretX = 0;
             
-            // While still have text left.
-            while (!remainingBeforeN.isEmpty() || !remainingAfterN.isEmpty())
+            for (int i = 0; i < wrapper.getLineCount(); i++)
             {
-                // While have text left before a new line character.
-                while (!remainingBeforeN.isEmpty())
-                {
-                    // Width of the currently looked at String.
-                    int currentWidth = fm.stringWidth(current);
-                    
-                    // The next string to be looked at, to try to add to current, and its width.
-                    String next = remainingBeforeN.substring(0, remainingBeforeN.indexOf(" ") + 1);
-                    int nextWidth = fm.stringWidth(next);
-                    
-                    boolean needToUpdateRemaining = true;
-                    
-                    // If next string's width added to current width reaches past right side bound.
-                    if (currentWidth + nextWidth > size.getX() - SCROLL_WIDTH - 3)
-                    {
-                        if (current.isEmpty())
-                            for (int i = 1; i <= next.length(); i++)
-                            {
-                                if (fm.stringWidth(remainingBeforeN.substring(0, i)) > size.getX() - SCROLL_WIDTH - 3)
-                                {
-                                    current = remainingBeforeN.substring(0, i - 1);
-                                    remainingBeforeN = remainingBeforeN.substring(i - 1);
-                                    needToUpdateRemaining = false;
-                                    break;
-                                }
-                            }
-                        
-                        addCurrent_drawHighlight_rememberCaret();
-                        
-                        handleCaret_finishCurrent(showingMessage);
-                    }
-                    
-                    // If haven't already updated remainings.
-                    if (needToUpdateRemaining)
-                        // If the next String is bigger than bound.
-                        if (current.isEmpty() && nextWidth > size.getX() - SCROLL_WIDTH - 3)
-                        {
-                            for (int i = 1; i <= next.length(); i++)
-                            {
-                                if (fm.stringWidth(next.substring(0, i)) > size.getX() - SCROLL_WIDTH - 3)
-                                {
-                                    current = next.substring(0, i - 1);
-                                    remainingBeforeN = remainingBeforeN.substring(i - 1);
-                                    break;
-                                }
-                            }
-                        }
-                        else
-                        {
-                            // Add next String to currently looked at string.
-                            current += next;
-                            // Pass over the visited next String.
-                            remainingBeforeN = remainingBeforeN.substring(remainingBeforeN.indexOf(" ") + 1);
-                        }
-                }
-                
-                if (current.length() > 1 || current.charAt(0) != ' ' || !remainingAfterN.isEmpty() || !remainingAfterN.isEmpty())
-                    addCurrent_drawHighlight_rememberCaret();
-                
-                handleCaret_finishCurrent(showingMessage);
-                
-                if (!remainingAfterN.isEmpty())
-                    if (remainingAfterN.indexOf("\n") != -1)
-                    {
-                        remainingBeforeN = remainingAfterN.substring(0, remainingAfterN.indexOf("\n")) + " ";
-                        remainingAfterN = remainingAfterN.substring(remainingAfterN.indexOf("\n") + 1);
-                    }
-                    else
-                    {
-                        remainingBeforeN = remainingAfterN + " ";
-                        remainingAfterN = "";
-                    }
+                boolean shown = i < lineCount();
+                if (shown)
+                    drawHighlight_rememberCaret(i);
+                handleCaret(i, shown ? i + 1 : i, showingMessage);
             }
             
             // If still haven't found position for caret, place at end of text.
@@ -1010,7 +970,7 @@ public class TextBox extends WindowComponent
                 caret = text.length();
                 clickedAt = null;
                 
-                caretLine = strs.size();
+                caretLine = lineCount();
             }
             
             // If caret moved out of view, adjust scroll amount.
@@ -1031,7 +991,7 @@ public class TextBox extends WindowComponent
             int n = scroller.getScroll();
             
             // If scroll bar present.
-            if (strs.size() * font.getSize() > size.getY())
+            if (lineCount() * font.getSize() > size.getY())
             {
                 // If mouse is over this TextBox.
                 if (mouseOverThis() && getWorld() != null)
@@ -1042,12 +1002,12 @@ public class TextBox extends WindowComponent
                     // Adjust scroll amount if out of bounds.
                     if (scrollValue < 0)
                         scrollValue = 0;
-                    else if (scrollValue > font.getSize() * strs.size() + font.getSize() / 5 - (int)size.getY() + 3)
-                        scrollValue = font.getSize() * strs.size() + font.getSize() / 5 - (int)size.getY() + 3;
+                    else if (scrollValue > font.getSize() * lineCount() + font.getSize() / 5 - (int)size.getY() + 3)
+                        scrollValue = font.getSize() * lineCount() + font.getSize() / 5 - (int)size.getY() + 3;
                 }
                 
                 // Y-coordinate relatvie to image, of where top of scroll bar will be.
-                int scroll = (int)(scrollValue / (double)(font.getSize() * strs.size() + font.getSize() / 5 - (int)size.getY() + 3) * (size.getY() - scrollBar));
+                int scroll = (int)(scrollValue / (double)(font.getSize() * lineCount() + font.getSize() / 5 - (int)size.getY() + 3) * (size.getY() - scrollBar));
                 
                 // Draw scroll bar.
                 pic.setColor(scrollColor);
@@ -1057,15 +1017,17 @@ public class TextBox extends WindowComponent
             }
             
             // Adjust scroll amount if out of bounds.
-            if (scrollValue < 0 || strs.size() * font.getSize() <= size.getY())
+            if (scrollValue < 0 || lineCount() * font.getSize() <= size.getY())
                 scrollValue = 0;
-            else if (scrollValue > font.getSize() * strs.size() + font.getSize() / 5 - (int)size.getY() + 3)
-                scrollValue = font.getSize() * strs.size() + font.getSize() / 5 - (int)size.getY() + 3;
+            else if (scrollValue > font.getSize() * lineCount() + font.getSize() / 5 - (int)size.getY() + 3)
+                scrollValue = font.getSize() * lineCount() + font.getSize() / 5 - (int)size.getY() + 3;
             
-            // Draw lines of text.
+            // Draw the lines of text that can be seen.
             g.setColor(showingMessage ? messageColor : textColor);
-            for (int i = 0; i < strs.size(); i++)
-                g.drawString(strs.get(i), 4, font.getSize() * (i + 1) - scrollValue);
+            int first = Math.max(0, scrollValue / font.getSize() - 1);
+            int last = Math.min(lineCount(), (scrollValue + (int)size.getY()) / font.getSize() + 2);
+            for (int i = first; i < last; i++)
+                g.drawChars(wrapper.getSource(), wrapper.lineStart(i), lineLength(i), 4, font.getSize() * (i + 1) - scrollValue);
             g.dispose();
             
             // Draw blinking caret.
@@ -1105,55 +1067,85 @@ public class TextBox extends WindowComponent
             setImage(p);
         }
         
-        private void addCurrent_drawHighlight_rememberCaret()
+        /**
+         * Get the number of lines drawn.
+         */
+        public int lineCount()
         {
-            strs.add(current);
-            
+            return wrapper.getShownLineCount();
+        }
+        
+        /**
+         * Get the number of characters in a line, counting the space the line ends with.
+         */
+        public int lineLength(int line)
+        {
+            return wrapper.lineLength(line);
+        }
+        
+        /**
+         * Get the width in pixels of the first given number of characters of a line.
+         */
+        public int lineWidth(int line, int chars)
+        {
+            return wrapper.lineWidth(line, chars);
+        }
+        
+        private void drawHighlight_rememberCaret(int line)
+        {
+            int count = wrapper.lineStart(line);
+            int length = lineLength(line);
             if (selectingPivot != -1)
             {
                 int minC = Math.min(selectingPivot, caret);
                 int maxC = Math.max(selectingPivot, caret);
-                if (maxC > count && minC < count + current.length())
+                if (maxC > count && minC < count + length)
                 {
                     minC -= count;
                     if (minC < 0)
                         minC = 0;
                     maxC -= count;
-                    if (maxC > current.length())
-                        maxC = current.length();
-                    int hBegin = fm.stringWidth(current.substring(0, minC)) + 4;
-                    int hLength = fm.stringWidth(current.substring(minC, maxC));
+                    if (maxC > length)
+                        maxC = length;
+                    int hBegin = lineWidth(line, minC) + 4;
+                    int hLength = lineWidth(line, maxC) - lineWidth(line, minC);
                     pic.setColor(selectColor);
-                    pic.fillRect(hBegin, font.getSize() * (strs.size() - 1) + font.getSize() / 5 - scrollValue, hLength, font.getSize());
+                    pic.fillRect(hBegin, font.getSize() * line + font.getSize() / 5 - scrollValue, hLength, font.getSize());
                 }
             }
             
             // Remember location for caret bar if is within this line of text.
-            if (hasFocus() && caret >= count && caret < count + current.length())
+            if (hasFocus() && caret >= count && caret < count + length)
             {
-                caretX = fm.stringWidth(current.substring(0, caret - count)) + 4;
-                caretLine = strs.size();
+                caretX = lineWidth(line, caret - count) + 4;
+                caretLine = line + 1;
             }
         }
         
-        private void handleCaret_finishCurrent(boolean showingMessage)
+        /**
+         * Place the caret where the mouse clicked, if it is within this line.
+         * @param shownLines How many lines have been drawn up to and including this one.
+         */
+        private void handleCaret(int line, int shownLines, boolean showingMessage)
         {
+            int count = wrapper.lineStart(line);
+            int length = lineLength(line);
             if (!showingMessage)
                 // If looking to place caret and location is before this line, then set caret to beginning of text. (Only occur when iterating first line).
-                if (clickedAt != null && clickedAt.getY() <= font.getSize() * (strs.size() - 1) - scrollValue)
+                if (clickedAt != null && clickedAt.getY() <= font.getSize() * (shownLines - 1) - scrollValue)
                 {
                     caret = 0;
                     clickedAt = null;
                     if (caret == selectingPivot)
                         selectingPivot = -1;
-                    caretLine = strs.size();
+                    caretLine = shownLines;
                 }
                 
                 // If looking to place caret within text, and is within current.
-                else if (clickedAt != null && clickedAt.getY() > font.getSize() * (strs.size() - 1) - scrollValue && clickedAt.getY() <= font.getSize() * strs.size() - scrollValue)
+                else if (clickedAt != null && clickedAt.getY() > font.getSize() * (shownLines - 1) - scrollValue && clickedAt.getY() <= font.getSize() * shownLines - scrollValue)
                 {
                     // If to the left of entire line of text.
-                    if (clickedAt.getX() < 4 + fm.stringWidth(current.substring(0, 1)) / 2)
+                    if (clickedAt.getX() < 4 + lineWidth(line, 1) / 2)
                     {
                         caret = count;
                         clickedAt = null;
@@ -1161,27 +1153,27 @@ public class TextBox extends WindowComponent
                     else
                     {
                         // Step to the right, one character at a time.
-                        for (int i = 1; i < current.length() - 1; i++)
+                        for (int i = 1; i < length - 1; i++)
                             // If to the left of index.
-                            if (clickedAt.getX() >= 4 + fm.stringWidth(current.substring(0, i - 1)) + fm.stringWidth(current.substring(i - 1, i)) / 2 && clickedAt.getX() < 4 + fm.stringWidth(current.substring(0, i)) + fm.stringWidth(current.substring(i, i + 1)) / 2)
+                            if (clickedAt.getX() >= 4 + lineWidth(line, i - 1) + (lineWidth(line, i) - lineWidth(line, i - 1)) / 2 && clickedAt.getX() < 4 + lineWidth(line, i) + (lineWidth(line, i + 1) - lineWidth(line, i)) / 2)
                             {
                                 if (clickCount < 2 || (clickCount - 1) % 3 == 0)
                                     caret = count + i;
                                 else if ((clickCount - 1) % 3 == 1) {
-                                    int charType = getCharType(current.charAt(i - 1));
+                                    int charType = getCharType(wrapper.getSource()[count + i - 1]);
                                     int k;
                                     for (k = i - 2; k >= 0; k--)
-                                        if (getCharType(current.charAt(k)) != charType)
+                                        if (getCharType(wrapper.getSource()[count + k]) != charType)
                                             break;
                                     selectingPivot = count + k + 1;
-                                    for (k = i; k < current.length(); k++)
-                                        if (getCharType(current.charAt(k)) != charType)
+                                    for (k = i; k < length; k++)
+                                        if (getCharType(wrapper.getSource()[count + k]) != charType)
                                             break;
                                     caret = count + k;
                                 }
                                 else if ((clickCount - 1) % 3 == 2) {
                                     selectingPivot = count;
-                                    caret = count + current.length() - 1;
+                                    caret = count + length - 1;
                                 }
                                 clickedAt = null;
                                 break;
@@ -1189,7 +1181,7 @@ public class TextBox extends WindowComponent
                         // If haven't found position for caret yet, place at end of this line of text.
                         if (clickedAt != null)
                         {
-                            caret = count + current.length() - 1;
+                            caret = count + length - 1;
                             
                             // Since text has ' ' added to end for iterating, caret might get placed at end of it. (Occurs if last line).
                             if (caret > text.length())
@@ -1201,14 +1193,8 @@ public class TextBox extends WindowComponent
                     if (caret == selectingPivot)
                         selectingPivot = -1;
                     // Record which line of text the caret position is in.
-                    caretLine = strs.size();
+                    caretLine = shownLines;
                 }
-            
-            // Update how many characters have been drawn.
-            count += current.length();
-            
-            // Reset currently looked at String.
-            current = "";
         }
         private int getCharType(char ch)
         {
@@ -1224,4 +1210,4 @@ public class TextBox extends WindowComponent
             setImage(new GreenfootImage(pic.getWidth() + 6, pic.getHeight() + 6));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,381 @@
+import java.util.ArrayList;
+
+/**
+ * TextDocument
+ * <p>
+ * The text of a TextBox, kept in a gap buffer: one array with an unused gap at the last place edited, so typing, deleting or pasting
+ * at the caret only moves the characters between the old and new edit points, rather than copying the whole text into a new String
+ * each keystroke.<p>
+ * Edits can be undone and redone. Characters typed one after another are undone together a word at a time, as are characters
+ * deleted one after another.<p>
+ * Also remembers which part of the text has changed since clearChanges() was last called, so the TextBox only has to measure and
+ * wrap that part again.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class TextDocument implements CharSequence
+{
+    /**
+     * How many edits are kept to undo.
+     */
+    public static final int UNDO_LIMIT = 200;
+
+    private char[] buffer;
+    private int gapStart;
+    private int gapEnd;
+    private int newLines;
+    // The text as a String, made when first asked for after an edit.
+    private String string;
+
+    // What has changed since clearChanges(): the first changed index, and how many characters at the end have not changed.
+    private int changeStart;
+    private int unchangedEnd;
+
+    private ArrayList<Edit> undos = new ArrayList<Edit>();
+    private ArrayList<Edit> redos = new ArrayList<Edit>();
+
+    /**
+     * Create a new empty TextDocument.
+     */
+    public TextDocument()
+    {
+        this("");
+    }
+
+    /**
+     * Create a new TextDocument.
+     * @param text The text to begin with.
+     */
+    public TextDocument(String text)
+    {
+        buffer = new char[text.length() + 16];
+        gapStart = 0;
+        gapEnd = buffer.length;
+        insertRaw(0, text);
+        clearChanges();
+    }
+
+    @Override
+    public int length()
+    {
+        return buffer.length - (gapEnd - gapStart);
+    }
+
+    public boolean isEmpty()
+    {
+        return length() == 0;
+    }
+
+    @Override
+    public char charAt(int index)
+    {
+        if (index < 0 || index >= length())
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+        return index < gapStart ? buffer[index] : buffer[index + gapEnd - gapStart];
+    }
+
+    /**
+     * Copy characters into an array, the same as String.getChars().
+     * @param begin Index of the first character to copy.
+     * @param end Index after the last character to copy.
+     * @param dst The array to copy into.
+     * @param dstBegin Where in dst to copy to.
+     */
+    public void getChars(int begin, int end, char[] dst, int dstBegin)
+    {
+        if (begin < 0 || end > length() || begin > end)
+            throw new IndexOutOfBoundsException("begin " + begin + ", end " + end + ", length " + length());
+        if (begin < gapStart)
+        {
+            int n = Math.min(end, gapStart) - begin;
+            System.arraycopy(buffer, begin, dst, dstBegin, n);
+            dstBegin += n;
+            begin += n;
+        }
+        if (begin < end)
+            System.arraycopy(buffer, begin + gapEnd - gapStart, dst, dstBegin, end - begin);
+    }
+
+    public String substring(int begin, int end)
+    {
+        char[] chars = new char[end - begin];
+        getChars(begin, end, chars, 0);
+        return new String(chars);
+    }
+
+    @Override
+    public CharSequence subSequence(int begin, int end)
+    {
+        return substring(begin, end);
+    }
+
+    /**
+     * Get the text as a String. The same String is given back until the text changes.
+     */
+    @Override
+    public String toString()
+    {
+        if (string == null)
+            string = substring(0, length());
+        return string;
+    }
+
+    /**
+     * Check if the text has any new lines.
+     */
+    public boolean hasNewLines()
+    {
+        return newLines != 0;
+    }
+
+    /**
+     * Replace all of the text, forgetting what there is to undo.
+     * @param text The new text.
+     */
+    public void setText(String text)
+    {
+        // Only replace what differs, so less is seen as changed.
+        int length = length();
+        int max = Math.min(length, text.length());
+        int start = 0;
+        while (start < max && charAt(start) == text.charAt(start))
+            start++;
+        int same = 0;
+        while (same < max - start && charAt(length - 1 - same) == text.charAt(text.length() - 1 - same))
+            same++;
+        deleteRaw(start, length - same);
+        insertRaw(start, text.substring(start, text.length() - same));
+        undos.clear();
+        redos.clear();
+    }
+
+    /**
+     * Insert a character typed at the caret. Characters typed one after another are undone together, a word (and the spaces after it) at a time.
+     * @param index Where to insert it.
+     * @param c The character.
+     */
+    public void type(int index, char c)
+    {
+        Edit last = undos.isEmpty() || !redos.isEmpty() ? null : undos.get(undos.size() - 1);
+        if (last != null && last.typed && index == last.index + last.inserted.length()
+            && !(isSpace(last.inserted.charAt(last.inserted.length() - 1)) && !isSpace(c)))
+        {
+            last.inserted.append(c);
+            insertRaw(index, String.valueOf(c));
+            return;
+        }
+        replace(index, index, String.valueOf(c));
+        undos.get(undos.size() - 1).typed = true;
+    }
+
+    /**
+     * Insert text.
+     * @param index Where to insert it.
+     * @param s The text.
+     */
+    public void insert(int index, String s)
+    {
+        replace(index, index, s);
+    }
+
+    /**
+     * Delete part of the text. Single characters deleted one after another (as by holding backspace or delete) are undone together.
+     * @param begin Index of the first character to delete.
+     * @param end Index after the last character to delete.
+     */
+    public void delete(int begin, int end)
+    {
+        Edit last = undos.isEmpty() || !redos.isEmpty() ? null : undos.get(undos.size() - 1);
+        if (end - begin == 1 && last != null && last.deleted && last.inserted.length() == 0)
+        {
+            // Backspace just before the last deletion, or delete where it was.
+            if (end == last.index)
+            {
+                last.removed.insert(0, charAt(begin));
+                last.index = begin;
+                deleteRaw(begin, end);
+                return;
+            }
+            if (begin == last.index)
+            {
+                last.removed.append(charAt(begin));
+                deleteRaw(begin, end);
+                return;
+            }
+        }
+        replace(begin, end, "");
+        if (end - begin == 1)
+            undos.get(undos.size() - 1).deleted = true;
+    }
+
+    /**
+     * Replace part of the text, as one edit to undo.
+     * @param begin Index of the first character to replace.
+     * @param end Index after the last character to replace.
+     * @param s The text to replace it with.
+     */
+    public void replace(int begin, int end, String s)
+    {
+        if (begin == end && s.isEmpty())
+            return;
+        Edit edit = new Edit(begin, substring(begin, end), s);
+        deleteRaw(begin, end);
+        insertRaw(begin, s);
+        redos.clear();
+        undos.add(edit);
+        if (undos.size() > UNDO_LIMIT)
+            undos.remove(0);
+    }
+
+    public boolean canUndo()
+    {
+        return !undos.isEmpty();
+    }
+
+    public boolean canRedo()
+    {
+        return !redos.isEmpty();
+    }
+
+    /**
+     * Undo the last edit.
+     * @return Where the caret goes (the end of what was put back), or -1 if there was nothing to undo.
+     */
+    public int undo()
+    {
+        if (undos.isEmpty())
+            return -1;
+        Edit edit = undos.remove(undos.size() - 1);
+        deleteRaw(edit.index, edit.index + edit.inserted.length());
+        insertRaw(edit.index, edit.removed.toString());
+        redos.add(edit);
+        return edit.index + edit.removed.length();
+    }
+
+    /**
+     * Redo the last edit undone.
+     * @return Where the caret goes (the end of what was put back), or -1 if there was nothing to redo.
+     */
+    public int redo()
+    {
+        if (redos.isEmpty())
+            return -1;
+        Edit edit = redos.remove(redos.size() - 1);
+        deleteRaw(edit.index, edit.index + edit.removed.length());
+        insertRaw(edit.index, edit.inserted.toString());
+        undos.add(edit);
+        return edit.index + edit.inserted.length();
+    }
+
+    /**
+     * Get the index of the first character changed since clearChanges(). The length of the text if nothing has changed.
+     */
+    public int getChangeStart()
+    {
+        return changeStart;
+    }
+
+    /**
+     * Get how many characters at the end of the text have not changed since clearChanges().
+     */
+    public int getUnchangedEnd()
+    {
+        return unchangedEnd;
+    }
+
+    /**
+     * Start remembering changes from now.
+     */
+    public void clearChanges()
+    {
+        changeStart = length();
+        unchangedEnd = length();
+    }
+
+    private void insertRaw(int index, String s)
+    {
+        if (s.isEmpty())
+            return;
+        changed(index, index);
+        moveGap(index);
+        if (gapEnd - gapStart < s.length())
+        {
+            char[] bigger = new char[Math.max(buffer.length * 2, length() + s.length() + 16)];
+            int tail = buffer.length - gapEnd;
+            System.arraycopy(buffer, 0, bigger, 0, gapStart);
+            System.arraycopy(buffer, gapEnd, bigger, bigger.length - tail, tail);
+            gapEnd = bigger.length - tail;
+            buffer = bigger;
+        }
+        s.getChars(0, s.length(), buffer, gapStart);
+        for (int i = 0; i < s.length(); i++)
+            if (s.charAt(i) == '\n')
+                newLines++;
+        gapStart += s.length();
+    }
+
+    private void deleteRaw(int begin, int end)
+    {
+        if (begin == end)
+            return;
+        if (begin < 0 || end > length() || begin > end)
+            throw new IndexOutOfBoundsException("begin " + begin + ", end " + end + ", length " + length());
+        changed(begin, end);
+        moveGap(end);
+        for (int i = begin; i < end; i++)
+            if (buffer[i] == '\n')
+                newLines--;
+        gapStart = begin;
+    }
+
+    /**
+     * Note that the characters from begin to end are about to be replaced.
+     */
+    private void changed(int begin, int end)
+    {
+        string = null;
+        changeStart = Math.min(changeStart, begin);
+        unchangedEnd = Math.min(unchangedEnd, length() - end);
+    }
+
+    private void moveGap(int index)
+    {
+        if (index < gapStart)
+        {
+            int n = gapStart - index;
+            System.arraycopy(buffer, index, buffer, gapEnd - n, n);
+            gapStart -= n;
+            gapEnd -= n;
+        }
+        else if (index > gapStart)
+        {
+            int n = index - gapStart;
+            System.arraycopy(buffer, gapEnd, buffer, gapStart, n);
+            gapStart += n;
+            gapEnd += n;
+        }
+    }
+
+    private static boolean isSpace(char c)
+    {
+        return c == ' ' || c == '\n';
+    }
+
+    private static class Edit
+    {
+        private int index;
+        private final StringBuilder removed;
+        private final StringBuilder inserted;
+        // Made by type(), or by delete() of one character, so more of the same can be added to it.
+        private boolean typed;
+        private boolean deleted;
+
+        Edit(int index, String removed, String inserted)
+        {
+            this.index = index;
+            this.removed = new StringBuilder(removed);
+            this.inserted = new StringBuilder(inserted);
+        }
+    }
+}
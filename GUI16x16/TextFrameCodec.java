@@ -0,0 +1,161 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * TextFrameCodec
+ * <p>
+ * Reads and writes a FrameBuffer in the text format used by the Export and Import buttons.<p>
+ * The first line holds the width and height ("16 16"), then each following line holds one pixel as "r g b".<p>
+ * Pixels are listed in the order of an LedLayout, so the lines match the order the LEDs are wired in. If the layout is not
+ * the default (a column at a time: every pixel of x = 0 from top to bottom, then every pixel of x = 1, and so on), its spec
+ * string follows the size ("16 16 serpentine").<p>
+ * Files written before the size line was added have no size line and are always 16x16.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class TextFrameCodec
+{
+    public static final int LEGACY_WIDTH = 16;
+    public static final int LEGACY_HEIGHT = 16;
+
+    private TextFrameCodec()
+    {}
+
+    /**
+     * Write a FrameBuffer to the file at the given path, in the order of the given LedLayout. The file is replaced in one step
+     * (see AtomicFile), so it is never left half written.
+     */
+    public static void writeFile(FrameBuffer frameBuffer, LedLayout layout, Path path) throws IOException
+    {
+        Path temp = AtomicFile.begin(path);
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp)) {
+                write(frameBuffer, layout, writer);
+            }
+            AtomicFile.commit(temp, path);
+        } finally {
+            AtomicFile.abort(temp);
+        }
+    }
+
+    /**
+     * Read a FrameBuffer from the file at the given path.
+     */
+    public static FrameBuffer readFile(Path path) throws IOException
+    {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Write the size line followed by every pixel's "r g b" line, in the default column by column order.
+     */
+    public static void write(FrameBuffer frameBuffer, Writer writer) throws IOException
+    {
+        write(frameBuffer, LedLayout.COLUMN_MAJOR, writer);
+    }
+
+    /**
+     * Write the size line followed by every pixel's "r g b" line, in the order of the given LedLayout.
+     */
+    public static void write(FrameBuffer frameBuffer, LedLayout layout, Writer writer) throws IOException
+    {
+        int width = frameBuffer.getWidth();
+        int height = frameBuffer.getHeight();
+        writer.write(width + " " + height);
+        if (layout != LedLayout.COLUMN_MAJOR)
+            writer.write(" " + layout);
+        int[] pixels = frameBuffer.getPixels();
+        for (int index : layout.getOrder(width, height))
+        {
+            int argb = pixels[index];
+            writer.write("\n");
+            writer.write(FrameBuffer.red(argb) + " " + FrameBuffer.green(argb) + " " + FrameBuffer.blue(argb));
+        }
+    }
+
+    /**
+     * Read a FrameBuffer. Pixels missing from the end of the file are left black.
+     * @throws IOException If the file could not be read or is not in this format.
+     */
+    public static FrameBuffer read(BufferedReader reader) throws IOException
+    {
+        String line = reader.readLine();
+        if (line == null)
+            throw new IOException("Empty frame file");
+        String[] values = line.trim().split(" +");
+        FrameBuffer frameBuffer;
+        LedLayout layout = LedLayout.COLUMN_MAJOR;
+        // A size line has the width and height, and maybe a layout. Pixel lines have three numbers.
+        if (values.length == 2 || values.length == 3 && !Character.isDigit(values[2].charAt(0)))
+        {
+            frameBuffer = new FrameBuffer(parse(values[0], 1, FrameBuffer.MAX_GRID_SIZE), parse(values[1], 1, FrameBuffer.MAX_GRID_SIZE));
+            if (values.length == 3)
+                layout = parseLayout(values[2]);
+            line = reader.readLine();
+        }
+        else
+            frameBuffer = new FrameBuffer(LEGACY_WIDTH, LEGACY_HEIGHT);
+
+        int height = frameBuffer.getHeight();
+        int count = frameBuffer.getWidth() * height;
+        int[] order = getOrder(layout, frameBuffer);
+        int[] pixels = frameBuffer.getPixels();
+        int lineCnt = 0;
+        for (; line != null; line = reader.readLine())
+        {
+            if (line.trim().isEmpty())
+                continue;
+            if (lineCnt == count)
+                throw new IOException("More than " + count + " pixels in a " + frameBuffer.getWidth() + "x" + height + " frame file");
+            values = line.trim().split(" +");
+            if (values.length != 3)
+                throw new IOException("Expected \"r g b\" but found \"" + line + "\"");
+            pixels[order[lineCnt]] = FrameBuffer.pack(parse(values[0], 0, 255), parse(values[1], 0, 255), parse(values[2], 0, 255), 255);
+            lineCnt++;
+        }
+        frameBuffer.markChanged();
+        return frameBuffer;
+    }
+
+    /**
+     * Get the layout named in a file, as an IOException if it is not a layout.
+     */
+    static LedLayout parseLayout(String spec) throws IOException
+    {
+        try {
+            return LedLayout.parse(spec);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+
+    /**
+     * Get the layout's lookup table for the frame, as an IOException if the layout does not fit the frame's size.
+     */
+    static int[] getOrder(LedLayout layout, FrameBuffer frameBuffer) throws IOException
+    {
+        try {
+            return layout.getOrder(frameBuffer.getWidth(), frameBuffer.getHeight());
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+
+    private static int parse(String value, int min, int max) throws IOException
+    {
+        try {
+            int i = Integer.parseInt(value);
+            if (i < min || i > max)
+                throw new IOException("Value out of range: " + value);
+            return i;
+        } catch (NumberFormatException e) {
+            throw new IOException("Not a number: " + value);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * TextMetricsCache
+ * <p>
+ * Measures text for every GUI component, so none of them has to make a throwaway image and Graphics2D just to get FontMetrics.<p>
+ * FontMetrics are kept for each Font, and string widths are kept for each Font and String, dropping the least recently used once
+ * there are more than CAPACITY. A GlyphAtlas is kept for each Font as well.<p>
+ * Measured with antialiasing on, the same as the components draw their text.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class TextMetricsCache
+{
+    /**
+     * How many string widths are kept before the least recently used are dropped.
+     */
+    public static final int CAPACITY = 2048;
+
+    private static Graphics2D scratch;
+    private static final HashMap<Font, FontMetrics> metrics = new HashMap<Font, FontMetrics>();
+    private static final HashMap<Font, GlyphAtlas> atlases = new HashMap<Font, GlyphAtlas>();
+    private static final LinkedHashMap<WidthKey, Integer> widths = new LinkedHashMap<WidthKey, Integer>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<WidthKey, Integer> eldest)
+        {
+            return size() > CAPACITY;
+        }
+    };
+    // Looked up with, so a hit doesn't allocate a key.
+    private static final WidthKey probe = new WidthKey(null, null);
+
+    /**
+     * Get the FontMetrics for a Font.
+     */
+    public static synchronized FontMetrics getFontMetrics(Font font)
+    {
+        FontMetrics fm = metrics.get(font);
+        if (fm == null)
+        {
+            if (scratch == null)
+            {
+                scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+                scratch.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            }
+            fm = scratch.getFontMetrics(font);
+            metrics.put(font, fm);
+        }
+        return fm;
+    }
+
+    /**
+     * Get the width in pixels of a String drawn in a Font.
+     */
+    public static synchronized int stringWidth(Font font, String text)
+    {
+        probe.font = font;
+        probe.text = text;
+        Integer width = widths.get(probe);
+        probe.font = null;
+        probe.text = null;
+        if (width == null)
+        {
+            width = getFontMetrics(font).stringWidth(text);
+            widths.put(new WidthKey(font, text), width);
+        }
+        return width;
+    }
+
+    public static int getAscent(Font font)
+    {
+        return getFontMetrics(font).getAscent();
+    }
+    public static int getDescent(Font font)
+    {
+        return getFontMetrics(font).getDescent();
+    }
+
+    /**
+     * Get the GlyphAtlas of a Font, rendering it the first time.
+     */
+    public static synchronized GlyphAtlas getGlyphAtlas(Font font)
+    {
+        GlyphAtlas atlas = atlases.get(font);
+        if (atlas == null)
+        {
+            atlas = new GlyphAtlas(font, getFontMetrics(font));
+            atlases.put(font, atlas);
+        }
+        return atlas;
+    }
+
+    private static class WidthKey
+    {
+        private Font font;
+        private String text;
+
+        WidthKey(Font font, String text)
+        {
+            this.font = font;
+            this.text = text;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return font.hashCode() * 31 + text.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof WidthKey))
+                return false;
+            WidthKey k = (WidthKey)o;
+            return font.equals(k.font) && text.equals(k.text);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+import greenfoot.Actor;
+import greenfoot.GreenfootImage;
+import greenfoot.World;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+/**
+ * Timeline
+ * <p>
+ * A strip of thumbnails, one for each frame of the Animation being played, with the current frame outlined.<p>
+ * Pressing on a thumbnail, or dragging along the strip, scrubs to that frame. Scrolls to keep the current frame in view.<p>
+ * Only thumbnails whose frame has changed are redrawn.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class Timeline extends Actor implements InputListener
+{
+    private static final int MARGIN = 4;
+    private static final Color BACK_COLOR = new Color(220, 220, 220);
+    private static final Color CURRENT_COLOR = Color.RED;
+
+    private AnimationPlayer player;
+    private GreenfootImage image;
+    private int thumbWidth;
+    private int thumbHeight;
+    private int visibleCount;
+    private int firstVisible;
+    private int layoutWidth;
+    private int layoutHeight;
+
+    // What was last drawn, to know what needs to be redrawn.
+    private int drawnAnimationModCount = -1;
+    private int drawnFrameIndex = -1;
+    private int drawnFirstVisible = -1;
+    private FrameBuffer[] drawnFrames;
+    private int[] drawnModCounts;
+    private int[] thumbRow;
+
+    /**
+     * Create a new Timeline.
+     * @param player The AnimationPlayer whose Animation and current frame are shown.
+     * @param width The width in pixels of the strip.
+     * @param height The height in pixels of the strip.
+     */
+    public Timeline(AnimationPlayer player, int width, int height)
+    {
+        this.player = player;
+        image = new GreenfootImage(width, height);
+        setImage(image);
+        layoutThumbs();
+    }
+
+    /**
+     * Work out the thumbnail size from the Animation's frame size, so thumbnails fill the height of the strip.
+     */
+    private void layoutThumbs()
+    {
+        Animation animation = player.getAnimation();
+        layoutWidth = animation.getWidth();
+        layoutHeight = animation.getHeight();
+        thumbHeight = image.getHeight() - MARGIN * 2;
+        thumbWidth = Math.max(8, Math.min(thumbHeight * 3, thumbHeight * animation.getWidth() / animation.getHeight()));
+        visibleCount = Math.max(1, (image.getWidth() - MARGIN) / (thumbWidth + MARGIN));
+        drawnFrames = new FrameBuffer[visibleCount];
+        drawnModCounts = new int[visibleCount];
+        thumbRow = new int[thumbWidth];
+        drawnAnimationModCount = -1;
+    }
+
+    /**
+     * Put this Timeline in the HitIndex, so it can be clicked on.
+     */
+    @Override
+    public void addedToWorld(World world)
+    {
+        HitIndex.getInstance().add(this);
+    }
+
+    /**
+     * Act.
+     */
+    @Override
+    public void act()
+    {
+        update();
+    }
+
+    /**
+     * Scrub to the frame pressed on or dragged over.
+     */
+    @Override
+    public void handleEvent(InputEvent event)
+    {
+        if (event.getType() != InputEvent.PRESS && event.getType() != InputEvent.DRAG)
+            return;
+        int x = event.getX() - (getX() - image.getWidth() / 2) - MARGIN;
+        int index = firstVisible + Math.floorDiv(x, thumbWidth + MARGIN);
+        ((MyWorld)getWorld()).scrubTo(Math.max(0, Math.min(index, player.getAnimation().getFrameCount() - 1)));
+    }
+
+    /**
+     * Redraw whatever has changed since last drawn.
+     */
+    public void update()
+    {
+        Animation animation = player.getAnimation();
+        if (animation.getWidth() != layoutWidth || animation.getHeight() != layoutHeight)
+            layoutThumbs();
+
+        int current = player.getFrameIndex();
+        if (current < firstVisible)
+            firstVisible = current;
+        else if (current >= firstVisible + visibleCount)
+            firstVisible = current - visibleCount + 1;
+        firstVisible = Math.max(0, Math.min(firstVisible, animation.getFrameCount() - visibleCount));
+
+        boolean full = animation.getModCount() != drawnAnimationModCount || firstVisible != drawnFirstVisible;
+        boolean thumbsDrawn = false;
+        if (full)
+        {
+            image.setColor(BACK_COLOR);
+            image.fill();
+            for (int slot = 0; slot < visibleCount; slot++)
+                drawnFrames[slot] = null;
+        }
+        for (int slot = 0; slot < visibleCount && firstVisible + slot < animation.getFrameCount(); slot++)
+        {
+            int index = firstVisible + slot;
+            FrameBuffer frame = animation.getFrame(index);
+            if (frame != drawnFrames[slot] || frame.getModCount() != drawnModCounts[slot])
+            {
+                drawThumb(slot, frame);
+                thumbsDrawn = true;
+            }
+            if (full || index == current || index == drawnFrameIndex)
+                drawOutline(slot, index == current);
+        }
+        if (full || current != drawnFrameIndex || thumbsDrawn)
+            SnapshotCache.getShared().invalidate(getX() - image.getWidth() / 2, getY() - image.getHeight() / 2, image.getWidth(), image.getHeight());
+        drawnAnimationModCount = animation.getModCount();
+        drawnFirstVisible = firstVisible;
+        drawnFrameIndex = current;
+    }
+
+    private void drawThumb(int slot, FrameBuffer frame)
+    {
+        BufferedImage awt = image.getAwtImage();
+        int[] pixels = frame.getPixels();
+        int width = frame.getWidth();
+        int left = MARGIN + slot * (thumbWidth + MARGIN);
+        for (int ty = 0; ty < thumbHeight; ty++)
+        {
+            int rowStart = ty * frame.getHeight() / thumbHeight * width;
+            for (int tx = 0; tx < thumbWidth; tx++)
+                thumbRow[tx] = pixels[rowStart + tx * width / thumbWidth];
+            awt.setRGB(left, MARGIN + ty, thumbWidth, 1, thumbRow, 0, thumbWidth);
+        }
+        drawnFrames[slot] = frame;
+        drawnModCounts[slot] = frame.getModCount();
+    }
+
+    private void drawOutline(int slot, boolean current)
+    {
+        int left = MARGIN + slot * (thumbWidth + MARGIN);
+        image.setColor(current ? CURRENT_COLOR : BACK_COLOR);
+        image.drawRect(left - 2, MARGIN - 2, thumbWidth + 3, thumbHeight + 3);
+        image.drawRect(left - 1, MARGIN - 1, thumbWidth + 1, thumbHeight + 1);
+    }
+}
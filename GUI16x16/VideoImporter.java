@@ -0,0 +1,660 @@
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+/**
+ * VideoImporter
+ * <p>
+ * Turns a video clip into an animation at the grid's size, a frame at a time, so a clip of any length is imported with only a few
+ * frames in memory.<p>
+ * The JDK can't decode video formats such as MP4, so a clip is read either as a folder of images, one per frame in name order (as
+ * "ffmpeg -i clip.mp4 frames/%05d.png" writes), or as a Motion JPEG stream (as "ffmpeg -i clip.mp4 -q:v 3 clip.mjpeg" writes, and
+ * many webcams serve), split up with an MjpegReader. Neither says how fast it plays, so each frame is shown for 1 / the frame rate
+ * given to setFrameRate().<p>
+ * Frames go through a pipeline of stages, each on its own thread, joined by queues that hold at most a few frames:
+ * <pre>
+ * read      the next image file, or the next JPEG of the stream, as bytes
+ * decode    decode the image and scale it to the grid with an ImageScaler
+ * quantize  correct the colors (see ColorCorrection) and reduce them to fewer levels, a palette, or both
+ * write     delta-encode the frame and write it with an AnimationWriter (or add it to an Animation)
+ * </pre>
+ * When a stage falls behind, the queue in front of it fills and the stages before it wait, so however long the clip is, only the
+ * queued frames and the one each stage is working on are held. Decoding and scaling are one stage so the full size image, by far
+ * the largest thing in the pipeline, never waits in a queue; a JPEG the same size as the last one is decoded into the same image.<p>
+ * Video noise makes pixels flicker by a few levels from frame to frame, which turns every frame into a large delta frame. A noise
+ * threshold keeps a pixel's last color until it changes by more than the threshold, and frames that come out the same as the one
+ * before are joined into one longer frame.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class VideoImporter
+{
+    public static final double DEFAULT_FRAME_RATE = 25;
+    public static final int DEFAULT_QUEUE_SIZE = 4;
+    /**
+     * The highest frame rate, at which each frame is shown for 1 millisecond.
+     */
+    public static final int MAX_FRAME_RATE = 1000;
+    /**
+     * The most pixels (frames times the grid's width and height) read() holds, 256MB of them. Longer clips must be imported with
+     * importFile().
+     */
+    public static final int MAX_READ_PIXELS = 1 << 26;
+
+    // Put on a queue after the last frame.
+    private static final byte[] END_IMAGE = new byte[0];
+    private static final FrameBuffer END_FRAME = new FrameBuffer(1, 1);
+
+    private final int width;
+    private final int height;
+    private final ImageScaler scaler;
+    private double frameRate = DEFAULT_FRAME_RATE;
+    private ColorCorrection correction = ColorCorrection.NONE;
+    private int colorBits = 8;
+    private ColorPalette palette;
+    private int noiseThreshold;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    /**
+     * Create a new VideoImporter.
+     * @param width The number of pixels across the grid.
+     * @param height The number of pixels down the grid.
+     * @param filter The filter frames are scaled with, ImageScaler.AREA or ImageScaler.LANCZOS.
+     */
+    public VideoImporter(int width, int height, int filter)
+    {
+        if (width < 1 || height < 1 || width > FrameBuffer.MAX_GRID_SIZE || height > FrameBuffer.MAX_GRID_SIZE)
+            throw new IllegalArgumentException("Bad grid size " + width + "x" + height);
+        this.width = width;
+        this.height = height;
+        scaler = new ImageScaler(filter);
+    }
+
+    /**
+     * Check if the file or folder at the given path can be read as a clip: a Motion JPEG file, or a folder (of images).
+     */
+    public static boolean isVideo(Path path)
+    {
+        return Files.isDirectory(path) || MjpegReader.isMjpegFile(path);
+    }
+
+    /**
+     * Set how many frames of the clip are shown each second, at most MAX_FRAME_RATE (as frames are timed in whole milliseconds).
+     */
+    public void setFrameRate(double frameRate)
+    {
+        if (!(frameRate > 0 && frameRate <= MAX_FRAME_RATE))
+            throw new IllegalArgumentException("Frame rate must be more than 0 and at most " + MAX_FRAME_RATE + ", was " + frameRate);
+        this.frameRate = frameRate;
+    }
+
+    /**
+     * Set the correction made to every color, before it is quantized.
+     */
+    public void setColorCorrection(ColorCorrection correction)
+    {
+        this.correction = correction;
+    }
+
+    /**
+     * Set how many bits of each of red, green and blue are kept, from 1 to 8. 8 keeps every color; 5 gives the levels of RGB565.
+     */
+    public void setColorBits(int bits)
+    {
+        if (bits < 1 || bits > 8)
+            throw new IllegalArgumentException("Color bits must be from 1 to 8, was " + bits);
+        colorBits = bits;
+    }
+
+    /**
+     * Set the palette every color is replaced with the nearest color of, or null to keep colors as they are.
+     */
+    public void setPalette(ColorPalette palette)
+    {
+        this.palette = palette;
+    }
+
+    /**
+     * Set how far (in levels of red, green or blue, from 0 to 255) a pixel's color must change from its last color before the change
+     * is kept. 0 keeps every change.
+     */
+    public void setNoiseThreshold(int threshold)
+    {
+        if (threshold < 0 || threshold > 255)
+            throw new IllegalArgumentException("Noise threshold must be from 0 to 255, was " + threshold);
+        noiseThreshold = threshold;
+    }
+
+    /**
+     * Set the most frames that can wait between two stages.
+     */
+    public void setQueueSize(int size)
+    {
+        if (size < 1)
+            throw new IllegalArgumentException("Queue size must be at least 1, was " + size);
+        queueSize = size;
+    }
+
+    /**
+     * Import a clip into an animation file. The file is replaced in one step (see AtomicFile), so a failed import never leaves
+     * half an animation behind.
+     * @param source A Motion JPEG file, or a folder of images.
+     * @param listener Told how much of the clip has been read, or null.
+     * @return The number of frames of the clip imported.
+     */
+    public int importFile(Path source, Path output, ProgressListener listener) throws IOException
+    {
+        Path temp = AtomicFile.begin(output);
+        try {
+            int frames;
+            try (final AnimationWriter writer = new AnimationWriter(Files.newOutputStream(temp), width, height)) {
+                frames = run(open(source), new FrameSink() {
+                    public void write(FrameBuffer frame, int duration) throws IOException
+                    {
+                        writer.writeFrame(frame, duration);
+                    }
+                }, listener);
+            }
+            AtomicFile.commit(temp, output);
+            return frames;
+        } finally {
+            AtomicFile.abort(temp);
+        }
+    }
+
+    /**
+     * Import a clip into an Animation. Every frame is held (at the grid's size), so a clip is refused once it has more than
+     * MAX_READ_PIXELS pixels in all, such as 1024 frames of a 256x256 grid or about 3 hours of a 16x16 grid at 25 frames a second. Use
+     * importFile() for longer clips.
+     * @param source A Motion JPEG file, or a folder of images.
+     * @param listener Told how much of the clip has been read, or null.
+     * @throws IOException If the clip can't be read, or is too long.
+     */
+    public Animation read(final Path source, ProgressListener listener) throws IOException
+    {
+        final Animation[] animation = new Animation[1];
+        final int maxFrames = MAX_READ_PIXELS / (width * height);
+        run(open(source), new FrameSink() {
+            public void write(FrameBuffer frame, int duration) throws IOException
+            {
+                if (animation[0] != null && animation[0].getFrameCount() == maxFrames)
+                    throw new IOException(source + " is longer than " + maxFrames + " frames of " + width + "x" + height
+                                          + ", too long to hold in memory. Import it into an animation file with VideoImporter instead.");
+                if (animation[0] == null)
+                    animation[0] = new Animation(frame, duration);
+                else
+                    animation[0].addFrame(frame, duration);
+            }
+        }, listener);
+        if (animation[0] == null)
+            throw new IOException(source + " has no frames");
+        return animation[0];
+    }
+
+    /**
+     * Open a clip to be read a frame at a time.
+     */
+    private static FrameSource open(Path source) throws IOException
+    {
+        if (Files.isDirectory(source))
+        {
+            final List<Path> files = new ArrayList<Path>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(source)) {
+                for (Path file : stream)
+                    if (Files.isRegularFile(file) && ImageFrameCodec.isImageFile(file))
+                        files.add(file);
+            }
+            Collections.sort(files);
+            return new FrameSource() {
+                private volatile int next;
+                public byte[] readImage() throws IOException
+                {
+                    return next < files.size() ? Files.readAllBytes(files.get(next++)) : null;
+                }
+                public int getRead()
+                {
+                    return next;
+                }
+                public int getTotal()
+                {
+                    return files.size();
+                }
+                public void close()
+                {}
+            };
+        }
+        // Progress through a stream is counted in kilobytes.
+        final int kilobytes = (int)Math.min(Integer.MAX_VALUE, Files.size(source) >> 10);
+        final MjpegReader reader = new MjpegReader(Files.newInputStream(source));
+        return new FrameSource() {
+            private volatile int read;
+            public byte[] readImage() throws IOException
+            {
+                byte[] image;
+                try {
+                    image = reader.readImage();
+                } catch (EOFException e) {
+                    // A recording that was cut off partway through a frame: keep the frames before it.
+                    image = null;
+                }
+                read = (int)Math.min(kilobytes, reader.getPosition() >> 10);
+                return image;
+            }
+            public int getRead()
+            {
+                return read;
+            }
+            public int getTotal()
+            {
+                return kilobytes;
+            }
+            public void close() throws IOException
+            {
+                reader.close();
+            }
+        };
+    }
+
+    /**
+     * Run every frame of a clip through the pipeline. The read, decode and quantize stages run on threads of their own, and frames are
+     * written on the calling thread.
+     * @return The number of frames read.
+     */
+    private int run(final FrameSource source, FrameSink sink, ProgressListener listener) throws IOException
+    {
+        final BlockingQueue<byte[]> images = new ArrayBlockingQueue<byte[]>(queueSize);
+        final BlockingQueue<FrameBuffer> scaled = new ArrayBlockingQueue<FrameBuffer>(queueSize);
+        final BlockingQueue<FrameBuffer> quantized = new ArrayBlockingQueue<FrameBuffer>(queueSize);
+        final AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(3, new ThreadFactory() {
+            public Thread newThread(Runnable runnable)
+            {
+                Thread thread = new Thread(runnable, "VideoImporter-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // Each stage passes on the end of the clip even when it fails, so the stages after it (and the writer) don't wait forever.
+        // The stages before a failed one are stopped by cancelling them.
+        List<Future<Void>> stages = new ArrayList<Future<Void>>();
+        try {
+            stages.add(executor.submit(new Callable<Void>() {
+                public Void call() throws Exception
+                {
+                    boolean finished = false;
+                    try {
+                        byte[] image;
+                        while ((image = source.readImage()) != null)
+                            images.put(image);
+                        finished = true;
+                    } finally {
+                        end(images, END_IMAGE, finished);
+                    }
+                    return null;
+                }
+            }));
+            stages.add(executor.submit(new Callable<Void>() {
+                public Void call() throws Exception
+                {
+                    Decoder decoder = new Decoder();
+                    boolean finished = false;
+                    try {
+                        byte[] image;
+                        while ((image = images.take()) != END_IMAGE)
+                            scaled.put(decoder.decode(image));
+                        finished = true;
+                    } finally {
+                        decoder.dispose();
+                        end(scaled, END_FRAME, finished);
+                    }
+                    return null;
+                }
+            }));
+            stages.add(executor.submit(new Callable<Void>() {
+                public Void call() throws Exception
+                {
+                    Quantizer quantizer = new Quantizer();
+                    boolean finished = false;
+                    try {
+                        FrameBuffer frame;
+                        while ((frame = scaled.take()) != END_FRAME)
+                        {
+                            quantizer.quantize(frame);
+                            quantized.put(frame);
+                        }
+                        finished = true;
+                    } finally {
+                        end(quantized, END_FRAME, finished);
+                    }
+                    return null;
+                }
+            }));
+
+            // Write each frame once the next is known, so a run of frames that are the same can be joined into one.
+            int frames = 0;
+            FrameBuffer pending = null;
+            int pendingDuration = 0;
+            FrameBuffer frame;
+            while ((frame = quantized.take()) != END_FRAME)
+            {
+                int duration = frameTime(frames + 1) - frameTime(frames);
+                frames++;
+                if (listener != null)
+                    listener.progress(source.getRead(), source.getTotal());
+                if (pending != null && Arrays.equals(pending.getPixels(), frame.getPixels()))
+                {
+                    pendingDuration += duration;
+                    continue;
+                }
+                if (pending != null)
+                    sink.write(pending, pendingDuration);
+                pending = frame;
+                pendingDuration = duration;
+            }
+            // A stage that failed ended the clip early, so check them from the last, whose failure is the cause of the others'.
+            for (int i = stages.size() - 1; i >= 0; i--)
+                stages.get(i).get();
+            if (pending != null)
+                sink.write(pending, pendingDuration);
+            if (listener != null)
+                listener.progress(source.getTotal(), source.getTotal());
+            return frames;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while importing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException)e.getCause();
+            throw new IOException(e.getCause());
+        } finally {
+            for (Future<Void> stage : stages)
+                stage.cancel(true);
+            executor.shutdownNow();
+            source.close();
+        }
+    }
+
+    /**
+     * Put the end of the clip on a stage's output queue. A stage that finished waits for room after the frames before it. A stage
+     * that failed or was cancelled may have nothing taking from the queue any more (the writer gave up, or a later stage failed
+     * too), so it drops the frames waiting, which the failed import won't use, and never waits.
+     */
+    private static <T> void end(BlockingQueue<T> queue, T end, boolean finished) throws InterruptedException
+    {
+        if (finished)
+        {
+            queue.put(end);
+            return;
+        }
+        queue.clear();
+        queue.offer(end);
+    }
+
+    /**
+     * Get the time in milliseconds from the start of the clip to the start of the given frame. Frame durations are the differences
+     * between these, so rounding never builds up over a long clip.
+     */
+    private int frameTime(int frame)
+    {
+        return (int)Math.round(frame * 1000 / frameRate);
+    }
+
+    /**
+     * Where a clip comes from: the encoded images of its frames, in order.
+     */
+    private interface FrameSource
+    {
+        /**
+         * Get the next frame's image file, or null after the last frame.
+         */
+        byte[] readImage() throws IOException;
+
+        /**
+         * Get how much of the clip has been read, out of getTotal().
+         */
+        int getRead();
+
+        int getTotal();
+
+        void close() throws IOException;
+    }
+
+    /**
+     * Where the frames of a clip go.
+     */
+    private interface FrameSink
+    {
+        void write(FrameBuffer frame, int duration) throws IOException;
+    }
+
+    /**
+     * The decode stage. Keeps the last ImageReader, so each frame doesn't have to look one up, and the last JPEG's image, so the next
+     * JPEG the same size is decoded into it.
+     */
+    private class Decoder
+    {
+        private ImageReader reader;
+        private BufferedImage image;
+        private int index;
+
+        FrameBuffer decode(byte[] data) throws IOException
+        {
+            // Read from memory directly; ImageIO.createImageInputStream() would cache each frame in a temporary file.
+            ImageInputStream in = new MemoryCacheImageInputStream(new ByteArrayInputStream(data));
+            try {
+                if (reader == null || !reader.getOriginatingProvider().canDecodeInput(in))
+                {
+                    dispose();
+                    Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+                    if (!readers.hasNext())
+                        throw new IOException("not an image that can be read");
+                    reader = readers.next();
+                }
+                reader.setInput(in, true, true);
+                // As ImageFrameCodec.readImageFile() does, have the JPEG reader decode straight into packed int pixels.
+                ImageReadParam param = reader.getDefaultReadParam();
+                ImageTypeSpecifier intType = null;
+                for (Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0); reader.getFormatName().equalsIgnoreCase("jpeg") && types.hasNext(); )
+                {
+                    ImageTypeSpecifier type = types.next();
+                    if (type.getBufferedImageType() == BufferedImage.TYPE_INT_RGB || type.getBufferedImageType() == BufferedImage.TYPE_INT_ARGB)
+                    {
+                        intType = type;
+                        break;
+                    }
+                }
+                if (intType != null && image != null && image.getType() == intType.getBufferedImageType()
+                    && image.getWidth() == reader.getWidth(0) && image.getHeight() == reader.getHeight(0))
+                    param.setDestination(image);
+                else if (intType != null)
+                    param.setDestinationType(intType);
+                BufferedImage decoded = reader.read(0, param);
+                image = intType != null ? decoded : null;
+                FrameBuffer frame = new FrameBuffer(width, height);
+                scaler.scale(decoded, frame);
+                return frame;
+            } catch (IOException e) {
+                throw new IOException("Can't decode frame " + index + ": " + e, e);
+            } finally {
+                index++;
+                in.close();
+            }
+        }
+
+        void dispose()
+        {
+            if (reader != null)
+                reader.dispose();
+            reader = null;
+            image = null;
+        }
+    }
+
+    /**
+     * The quantize stage. Corrects and reduces each of red, green and blue with one table lookup, then applies the palette and the
+     * noise threshold, which compares each pixel with its color in the last frame.
+     */
+    private class Quantizer
+    {
+        private final int[] levels = new int[256];
+        private int[] last;
+
+        Quantizer()
+        {
+            int drop = 8 - colorBits;
+            for (int v = 0; v < 256; v++)
+            {
+                int corrected = correction.apply(v) & 0xFF;
+                // Round to the nearest level kept, then fill the low bits from the high bits so white stays white.
+                int level = Math.min((corrected + (drop > 0 ? 1 << drop - 1 : 0)) >> drop, (1 << colorBits) - 1);
+                int value = 0;
+                for (int shift = 8 - colorBits; shift > -colorBits; shift -= colorBits)
+                    value |= shift >= 0 ? level << shift : level >> -shift;
+                levels[v] = value;
+            }
+        }
+
+        void quantize(FrameBuffer frame)
+        {
+            int[] pixels = frame.getPixels();
+            boolean first = last == null;
+            if (first)
+                last = new int[pixels.length];
+            for (int i = 0; i < pixels.length; i++)
+            {
+                int argb = pixels[i];
+                argb = FrameBuffer.BLACK | levels[argb >>> 16 & 0xFF] << 16 | levels[argb >>> 8 & 0xFF] << 8 | levels[argb & 0xFF];
+                if (palette != null)
+                    argb = palette.getColor(palette.nearestSlot(argb)) | FrameBuffer.BLACK;
+                if (!first && Math.abs(FrameBuffer.red(argb) - FrameBuffer.red(last[i])) <= noiseThreshold
+                           && Math.abs(FrameBuffer.green(argb) - FrameBuffer.green(last[i])) <= noiseThreshold
+                           && Math.abs(FrameBuffer.blue(argb) - FrameBuffer.blue(last[i])) <= noiseThreshold)
+                    argb = last[i];
+                pixels[i] = argb;
+                last[i] = argb;
+            }
+            frame.markChanged();
+        }
+    }
+
+    /**
+     * Import a clip from the command line, headless. Run with no arguments to see the options.
+     */
+    public static void main(String[] args) throws Exception
+    {
+        System.setProperty("java.awt.headless", "true");
+        int width = 16;
+        int height = 16;
+        int filter = ImageScaler.AREA;
+        double frameRate = DEFAULT_FRAME_RATE;
+        double gamma = 1;
+        double brightness = 1;
+        int bits = 8;
+        boolean usePalette = false;
+        int threshold = 0;
+        int queueSize = DEFAULT_QUEUE_SIZE;
+        List<Path> paths = new ArrayList<Path>();
+        VideoImporter importer;
+        try {
+            for (int i = 0; i < args.length; i++)
+            {
+                String arg = args[i];
+                if (arg.equals("-palette"))
+                    usePalette = true;
+                else if (arg.startsWith("-") && i + 1 == args.length)
+                    throw new IllegalArgumentException(arg + " needs a value");
+                else if (arg.equals("-size"))
+                {
+                    String[] values = args[++i].toLowerCase().split("x");
+                    if (values.length != 2)
+                        throw new IllegalArgumentException("Expected a size like 16x16, but found " + args[i]);
+                    width = Integer.parseInt(values[0].trim());
+                    height = Integer.parseInt(values[1].trim());
+                }
+                else if (arg.equals("-filter"))
+                    filter = ImageScaler.parseFilter(args[++i]);
+                else if (arg.equals("-fps"))
+                    frameRate = Double.parseDouble(args[++i]);
+                else if (arg.equals("-gamma"))
+                    gamma = Double.parseDouble(args[++i]);
+                else if (arg.equals("-brightness"))
+                    brightness = Double.parseDouble(args[++i]);
+                else if (arg.equals("-bits"))
+                    bits = Integer.parseInt(args[++i]);
+                else if (arg.equals("-threshold"))
+                    threshold = Integer.parseInt(args[++i]);
+                else if (arg.equals("-queue"))
+                    queueSize = Integer.parseInt(args[++i]);
+                else if (arg.startsWith("-"))
+                    throw new IllegalArgumentException("Unknown option " + arg);
+                else
+                    paths.add(Paths.get(arg));
+            }
+            if (paths.isEmpty() || paths.size() > 2)
+                throw new IllegalArgumentException("Expected a clip and optionally the animation file to write");
+            if (!isVideo(paths.get(0)))
+                throw new IllegalArgumentException(paths.get(0) + " is not a .mjpeg file or a folder");
+            importer = new VideoImporter(width, height, filter);
+            importer.setFrameRate(frameRate);
+            importer.setColorCorrection(new ColorCorrection(gamma, brightness));
+            importer.setColorBits(bits);
+            importer.setPalette(usePalette ? new ColorPalette() : null);
+            importer.setNoiseThreshold(threshold);
+            importer.setQueueSize(queueSize);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: VideoImporter [options] <.mjpeg file or folder of images> [output .anim file]");
+            System.err.println("  -size <w>x<h>        grid size (default 16x16)");
+            System.err.println("  -filter <filter>     area or lanczos (default area)");
+            System.err.println("  -fps <n>             frames per second of the clip, up to 1000 (default 25)");
+            System.err.println("  -gamma <g>           gamma correction, such as 2.2 (default 1)");
+            System.err.println("  -brightness <b>      brightness from 0 to 1 (default 1)");
+            System.err.println("  -bits <n>            bits kept of each of red, green and blue (default 8)");
+            System.err.println("  -palette             use the nearest of the Palette's default colors");
+            System.err.println("  -threshold <n>       ignore changes of up to n levels, to hide noise (default 0)");
+            System.err.println("  -queue <n>           most frames waiting between stages (default 4)");
+            System.exit(2);
+            return;
+        }
+
+        Path source = paths.get(0);
+        Path output = paths.size() > 1 ? paths.get(1) : null;
+        if (output == null)
+        {
+            String name = source.toAbsolutePath().getFileName().toString();
+            if (name.lastIndexOf('.') > 0)
+                name = name.substring(0, name.lastIndexOf('.'));
+            output = source.toAbsolutePath().resolveSibling(name + ".anim");
+        }
+        long start = System.nanoTime();
+        int frames = importer.importFile(source, output, null);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d frames from %s to %s in %.2f s (%.1f frames/s)%n", frames, source, output, seconds, frames / seconds);
+    }
+}
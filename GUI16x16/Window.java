@@ -1,7 +1,6 @@
 import greenfoot.Greenfoot;
 import greenfoot.GreenfootImage;
 import greenfoot.World;
-import greenfoot.MouseInfo;
 import greenfoot.core.WorldHandler;
 import java.awt.Color;
 import java.awt.Point;
@@ -57,7 +56,6 @@ public abstract class Window extends GUI_Component
     private Point size;
     private Point originalSize;
     private Point pressedAt;
-    private boolean dragging;
     private Point pos;
     private boolean alwaysOpenToDefault;
     private boolean closeWhenLoseFocus;
@@ -81,11 +79,7 @@ public abstract class Window extends GUI_Component
     public Window(String title, boolean alwaysOpenToDefault, boolean closeWhenLoseFocus, int minWidth, int minHeight)
     {
         this.title = title;
-        Graphics2D g = (Graphics2D)(new GreenfootImage(1, 1)).getAwtImage().getGraphics();
-        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g.setFont(font);
-        int titleWidth = g.getFontMetrics().stringWidth(title);
-        g.dispose();
+        int titleWidth = TextMetricsCache.stringWidth(font, title);
         size = new Point((int)Math.max(minWidth < 20 ? 20 : minWidth, titleWidth + 3 * 2 + btnClose.getGUIWidth()), minHeight < 20 ? 20 : minHeight);
         keepSizeInWorld();
         originalSize = new Point(size);
@@ -175,6 +169,7 @@ public abstract class Window extends GUI_Component
         
         keepSizeInWorld();
         if (needToRedraw || getImage().getWidth() != size.getX() || getImage().getHeight() != size.getY()) {
+            invalidateSnapshot();
             setImage(draw());
             if (inWorld())
                 setLocation(getX(), getY());
@@ -210,11 +205,7 @@ public abstract class Window extends GUI_Component
     
     protected int getMinWidthAccordingToTitle()
     {
-        Graphics2D g = getImage().getAwtImage().createGraphics();
-        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g.setFont(font);
-        int titleWidth = g.getFontMetrics().stringWidth(title);
-        g.dispose();
+        int titleWidth = TextMetricsCache.stringWidth(font, title);
         return (int)Math.max((int)originalSize.getX(), titleWidth + 3 * 2 + btnClose.getGUIWidth());
     }
     
@@ -281,29 +272,8 @@ public abstract class Window extends GUI_Component
         
         adjustSize();
         
-        MouseInfo mouse = Greenfoot.getMouseInfo();
-        if (Greenfoot.mousePressed(this))
-        {
-            pressedAt = new Point(getX() - mouse.getX(), getY() - mouse.getY());
-            if (topWindow != this)
-                bringToFront();
-        }
-        if (topWindow != this && mousePressedOnThisOrComponents())
+        if (topWindow != this && (InputDispatcher.getInstance().getPressed() == this || mousePressedOnThisOrComponents()))
             bringToFront();
-        if (Greenfoot.mouseDragged(null) && pressedAt != null)
-            dragging = true;
-        if (dragging)
-        {
-            if (Greenfoot.mouseDragged(null))
-                setLocation(mouse.getX() + (int)pressedAt.getX(), mouse.getY() + (int)pressedAt.getY());
-            if (Greenfoot.mouseClicked(null) || Greenfoot.mouseDragEnded(null))
-            {
-                pressedAt = null;
-                dragging = false;
-            }
-        }
-        if (Greenfoot.mouseClicked(this))
-            pressedAt = null;
         if (Greenfoot.isKeyDown("escape"))
         {
             if (isTopWindow() && !escapePressed)
@@ -371,6 +341,27 @@ public abstract class Window extends GUI_Component
         return super.hasFocus() || (currentContainer != -1 && containers.get(currentContainer).hasFocus());
     }
     
+    /**
+     * Handles being dragged around the World: pressing on this Window grabs it, dragging moves it and letting go drops it.
+     */
+    @Override
+    public void handleEvent(InputEvent event)
+    {
+        super.handleEvent(event);
+        switch (event.getType()) {
+            case InputEvent.PRESS:
+                pressedAt = new Point(getX() - event.getX(), getY() - event.getY());
+                break;
+            case InputEvent.DRAG:
+                if (pressedAt != null)
+                    setLocation(event.getX() + (int)pressedAt.getX(), event.getY() + (int)pressedAt.getY());
+                break;
+            case InputEvent.RELEASE:
+                pressedAt = null;
+                break;
+        }
+    }
+    
     /**
      * Check if this Window or its current Container has been pressed on by the mouse.<p>
      * Called within act(), to determine if should call bringToFront().
@@ -378,6 +369,8 @@ public abstract class Window extends GUI_Component
      */
     public boolean mousePressedOnThisOrComponents()
     {
+        if (InputDispatcher.getInstance().getPressed() == null)
+            return false;
         if (currentContainer != -1)
             if (containers.get(currentContainer).mousePressedOnThisOrComponents())
                 return true;
@@ -410,6 +403,7 @@ public abstract class Window extends GUI_Component
      */
     public void setLocation(int x, int y)
     {
+        invalidateSnapshot();
         if (x - getImage().getWidth() / 2 < 0)
             x = getImage().getWidth() / 2;
         else if (x + getImage().getWidth() / 2 > getWorld().getWidth())
@@ -427,6 +421,16 @@ public abstract class Window extends GUI_Component
         snugMenu();
         
         pos = new Point(getX(), getY());
+        invalidateSnapshot();
+    }
+    
+    /**
+     * Tell the SnapshotCache the area this Window covers has changed.
+     */
+    private void invalidateSnapshot()
+    {
+        if (inWorld())
+            SnapshotCache.getShared().invalidate(getX() - getImage().getWidth() / 2, getY() - getImage().getHeight() / 2, getImage().getWidth(), getImage().getHeight());
     }
     
     private void snugMenu()
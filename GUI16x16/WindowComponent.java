@@ -1,15 +1,18 @@
+import greenfoot.GreenfootImage;
 import greenfoot.World;
 
 /**
  * WindowComponent
  * <p>
  * A component to be used within a Window.<p>
- * Handles horizontal and vertical justification (beginning, center, and end) within a cell of a Container.
+ * Handles horizontal and vertical justification (beginning, center, and end) within a cell of a Container.<p>
+ * Tells its Container when its GUI size changes or it is hidden or shown, so the Container only lays out again when it needs to.
+ * A subclass whose GUI size can change without a call to setImage() must call checkGUISize() after it changes.
  * 
  * @author Taylor Born
  * @version February 2013 - March 2014
  */
-public abstract class WindowComponent extends GUI_Component
+public abstract class WindowComponent extends GUI_Component implements CellLayout.Cell
 {
     public static final int BEGINNING = 0, CENTER = 1, END = 2;
 
@@ -18,6 +21,10 @@ public abstract class WindowComponent extends GUI_Component
     private int lastKnownWidth;
     private int lastKnownHeight;
     
+    private Container container;
+    private int containerRow;
+    private int containerColumn;
+    
     /**
      * Listener to be called by Container.
      * @return Whether this WindowComponent's GUI width or height has changed since last call.
@@ -37,6 +44,72 @@ public abstract class WindowComponent extends GUI_Component
         }
         return changed;
     }
+    
+    /**
+     * Tell the Container holding this WindowComponent if its GUI width or height has changed.
+     */
+    protected void checkGUISize()
+    {
+        if (hasChangedGUISize() && container != null)
+            container.componentResized(this);
+    }
+    
+    /**
+     * Inherited from Actor, set the image of this WindowComponent, telling its Container if that changes its GUI size.
+     */
+    @Override
+    public void setImage(GreenfootImage image)
+    {
+        super.setImage(image);
+        checkGUISize();
+    }
+    
+    /**
+     * Set whether or not this WindowComponent is to be hidden, telling its Container so it can add or remove it from the World.
+     */
+    @Override
+    public void hide(boolean h)
+    {
+        boolean changed = h != isHidden();
+        super.hide(h);
+        if (changed && container != null)
+            container.componentShownOrHidden();
+    }
+    
+    /**
+     * Remove this WindowComponent from the World. Its Container puts it back if it is not set to be hidden.
+     */
+    @Override
+    public void removeFromWorld()
+    {
+        super.removeFromWorld();
+        if (container != null)
+            container.componentShownOrHidden();
+    }
+    
+    /**
+     * Called by Container when this WindowComponent is put in one of its cells.
+     */
+    void setContainerCell(Container container, int row, int column)
+    {
+        this.container = container;
+        containerRow = row;
+        containerColumn = column;
+        hasChangedGUISize();
+    }
+    
+    Container getContainer()
+    {
+        return container;
+    }
+    int getContainerRow()
+    {
+        return containerRow;
+    }
+    int getContainerColumn()
+    {
+        return containerColumn;
+    }
 
     /**
      * Called within Container to set this WindowComponent's location within World to be within a cell of grid/table structure.<p>
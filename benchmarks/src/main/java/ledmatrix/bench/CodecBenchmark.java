@@ -0,0 +1,121 @@
+package ledmatrix.bench;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CodecBenchmark
+ * <p>
+ * Exporting and importing one frame the way ExportBtn and ImportBtn do (TextFrameCodec for text files, BinaryFrameCodec for .bin
+ * and .565 files, in the order of an LedLayout), in memory so disk speed doesn't count.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark
+{
+    @Param({"16", "64"})
+    public int size;
+
+    @Param({"column", "serpentine"})
+    public String layout;
+
+    private FrameBuffer frameBuffer;
+    private LedLayout ledLayout;
+    private String text;
+    private byte[] rgb888;
+    private byte[] rgb565;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        frameBuffer = new FrameBuffer(size, size);
+        for (int y = 0; y < size; y++)
+            for (int x = 0; x < size; x++)
+                frameBuffer.set(x, y, FrameBuffer.pack(x * 255 / size, y * 255 / size, (x * y) & 0xFF, 255));
+        ledLayout = LedLayout.parse(layout);
+        text = exportText();
+        rgb888 = exportBinary(BinaryFrameCodec.RGB888);
+        rgb565 = exportBinary(BinaryFrameCodec.RGB565);
+    }
+
+    @Benchmark
+    public String exportText() throws IOException
+    {
+        StringWriter writer = new StringWriter();
+        TextFrameCodec.write(frameBuffer, ledLayout, writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public FrameBuffer importText() throws IOException
+    {
+        return TextFrameCodec.read(new BufferedReader(new StringReader(text)));
+    }
+
+    @Benchmark
+    public byte[] exportRGB888() throws IOException
+    {
+        return exportBinary(BinaryFrameCodec.RGB888);
+    }
+
+    @Benchmark
+    public FrameBuffer importRGB888() throws IOException
+    {
+        return BinaryFrameCodec.read(Channels.newChannel(new ByteArrayInputStream(rgb888)));
+    }
+
+    @Benchmark
+    public byte[] exportRGB565() throws IOException
+    {
+        return exportBinary(BinaryFrameCodec.RGB565);
+    }
+
+    @Benchmark
+    public FrameBuffer importRGB565() throws IOException
+    {
+        return BinaryFrameCodec.read(Channels.newChannel(new ByteArrayInputStream(rgb565)));
+    }
+
+    @Benchmark
+    public FrameBuffer roundTripText() throws IOException
+    {
+        return TextFrameCodec.read(new BufferedReader(new StringReader(exportText())));
+    }
+
+    @Benchmark
+    public FrameBuffer roundTripRGB888() throws IOException
+    {
+        return BinaryFrameCodec.read(Channels.newChannel(new ByteArrayInputStream(exportBinary(BinaryFrameCodec.RGB888))));
+    }
+
+    private byte[] exportBinary(int format) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryFrameCodec.write(frameBuffer, format, ledLayout, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,116 @@
+package ledmatrix.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ContainerBenchmark
+ * <p>
+ * Container.alignComponents(): measuring a grid of components and working out where each one goes. Container does this with a
+ * CellLayout and only moves the Greenfoot Actors itself, so this times the CellLayout, with cells standing in for the components.
+ * Aligning after everything is measured again (as when a component is added) is compared with aligning after one component
+ * changes size (as when a slider's label changes), which only measures that component's row and column.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainerBenchmark
+{
+    /**
+     * How many rows and columns of components the Container holds. The Palette's color cells are 6 by 4.
+     */
+    @Param({"6", "24"})
+    public int size;
+
+    private Box[][] cells;
+    private CellLayout<Box> layout;
+    private Box resized;
+    private int sum;
+
+    /**
+     * A component's size.
+     */
+    private static class Box implements CellLayout.Cell
+    {
+        int width;
+        int height;
+
+        Box(int width, int height)
+        {
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getGUIWidth()
+        {
+            return width;
+        }
+
+        public int getGUIHeight()
+        {
+            return height;
+        }
+    }
+
+    // Stands in for moving a component into its cell.
+    private final CellLayout.Placer<Box> placer = new CellLayout.Placer<Box>() {
+        public void place(Box cell, int leftSide, int xRange, int topSide, int yRange)
+        {
+            sum += leftSide + xRange / 2 + topSide + yRange / 2;
+        }
+    };
+
+    @Setup
+    public void setUp()
+    {
+        cells = new Box[size][size];
+        for (int r = 0; r < size; r++)
+            for (int c = 0; c < size; c++)
+                if ((r + c) % 7 != 3)
+                    cells[r][c] = new Box(20 + (r * 5 + c * 3) % 40, 15 + (r * 3 + c * 5) % 20);
+        // The component that changes size, in the middle so the rows and columns after it move.
+        resized = new Box(30, 20);
+        cells[size / 2][size / 2] = resized;
+        layout = new CellLayout<Box>(cells, 10);
+        layout.measure();
+    }
+
+    @Benchmark
+    public int alignComponents()
+    {
+        layout.invalidate();
+        sum = 0;
+        layout.align(600, 400, placer);
+        return sum;
+    }
+
+    @Benchmark
+    public int alignAfterResize()
+    {
+        // Grow the component then shrink it back, so the grid stays the same. That is two resizes, each aligned after.
+        resized.width += 50;
+        layout.resized(size / 2, size / 2);
+        sum = 0;
+        layout.align(600, 400, placer);
+        resized.width -= 50;
+        layout.resized(size / 2, size / 2);
+        layout.align(600, 400, placer);
+        return sum;
+    }
+}
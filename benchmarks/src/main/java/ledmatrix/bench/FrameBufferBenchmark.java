@@ -0,0 +1,88 @@
+package ledmatrix.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FrameBufferBenchmark
+ * <p>
+ * Bulk fill and blit on a FrameBuffer, with and without a DirtyTracker recording the changes (as the GUI always has one).
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameBufferBenchmark
+{
+    @Param({"16", "64", "256"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean tracked;
+
+    private FrameBuffer frameBuffer;
+    private FrameBuffer source;
+    private int color;
+
+    @Setup
+    public void setUp()
+    {
+        frameBuffer = new FrameBuffer(size, size);
+        source = new FrameBuffer(size, size);
+        for (int y = 0; y < size; y++)
+            for (int x = 0; x < size; x++)
+                source.set(x, y, FrameBuffer.pack(x * 255 / size, y * 255 / size, 128, 255));
+        if (tracked)
+            frameBuffer.track();
+    }
+
+    @Benchmark
+    public FrameBuffer fill()
+    {
+        frameBuffer.fill(color++ | 0xFF000000);
+        return frameBuffer;
+    }
+
+    @Benchmark
+    public FrameBuffer fillRect()
+    {
+        frameBuffer.fillRect(size / 4, size / 4, size / 2, size / 2, color++ | 0xFF000000);
+        return frameBuffer;
+    }
+
+    @Benchmark
+    public FrameBuffer blit()
+    {
+        frameBuffer.blit(source, 0, 0, size / 4, size / 4, size / 2, size / 2);
+        return frameBuffer;
+    }
+
+    @Benchmark
+    public FrameBuffer blitWithinItself()
+    {
+        frameBuffer.blit(frameBuffer, 0, 0, 1, 1, size - 1, size - 1);
+        return frameBuffer;
+    }
+
+    @Benchmark
+    public FrameBuffer copyFrom()
+    {
+        frameBuffer.copyFrom(source);
+        return frameBuffer;
+    }
+}
@@ -0,0 +1,72 @@
+package ledmatrix.bench;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ImageScalerBenchmark
+ * <p>
+ * Scaling a 4K image down to the grid the way ImportBtn does, from packed int pixels and from the 3 byte pixels most image readers
+ * give back.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ImageScalerBenchmark
+{
+    @Param({"16", "64", "256"})
+    public int grid;
+
+    @Param({"area", "lanczos"})
+    public String filter;
+
+    private BufferedImage intImage;
+    private BufferedImage byteImage;
+    private ImageScaler scaler;
+    private FrameBuffer frameBuffer;
+
+    @Setup
+    public void setUp()
+    {
+        intImage = new BufferedImage(3840, 2160, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt)intImage.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < pixels.length; i++)
+            pixels[i] = FrameBuffer.pack(i % 3840 * 255 / 3840, i / 3840 * 255 / 2160, i * 31 & 0xFF, 255);
+        byteImage = new BufferedImage(3840, 2160, BufferedImage.TYPE_3BYTE_BGR);
+        byteImage.createGraphics().drawImage(intImage, 0, 0, null);
+        scaler = new ImageScaler(ImageScaler.parseFilter(filter));
+        frameBuffer = new FrameBuffer(grid, grid);
+    }
+
+    @Benchmark
+    public FrameBuffer scaleIntPixels()
+    {
+        scaler.scale(intImage, frameBuffer);
+        return frameBuffer;
+    }
+
+    @Benchmark
+    public FrameBuffer scaleBytePixels()
+    {
+        scaler.scale(byteImage, frameBuffer);
+        return frameBuffer;
+    }
+}
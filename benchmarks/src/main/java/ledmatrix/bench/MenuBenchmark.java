@@ -0,0 +1,107 @@
+package ledmatrix.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MenuBenchmark
+ * <p>
+ * Menu.getItem(): finding a menu item by its address, such as "Animations/Saved 3/frame 12", in a menu generated for many saved
+ * animations. Menu keeps its items in a tree of MenuNodes and getItem() is MenuNode.find() on the top of it, so this times the same
+ * code without Menu's Greenfoot drawing.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuBenchmark
+{
+    /**
+     * How many items each of the menu's lists holds: groups of saved animations, and animations in each group.
+     */
+    @Param({"10", "100"})
+    public int items;
+
+    private Item root;
+    private String deepAddress;
+    private String missingAddress;
+
+    /**
+     * A menu item, holding nothing more than its name, as Menu's items do for finding them.
+     */
+    private static class Item extends MenuNode<Item>
+    {
+        Item(String name)
+        {
+            super(name);
+        }
+    }
+
+    @Setup
+    public void setUp()
+    {
+        root = new Item("");
+        for (String top : new String[] { "File", "Edit", "View", "Animations" })
+            root.add(new Item(top));
+        Item animations = root.getChild("Animations", 0, "Animations".length());
+        for (int g = 0; g < items; g++)
+        {
+            Item group = new Item("Saved " + g);
+            animations.add(group);
+            for (int i = 0; i < items; i++)
+                group.add(new Item("frame " + i));
+        }
+        deepAddress = "Animations/Saved " + (items - 1) + "/frame " + (items - 1);
+        missingAddress = "Animations/Saved " + (items - 1) + "/frame " + items;
+    }
+
+    @Benchmark
+    public Item getItem()
+    {
+        return root.find(deepAddress, deepAddress.length());
+    }
+
+    @Benchmark
+    public Item getMissingItem()
+    {
+        return root.find(missingAddress, missingAddress.length());
+    }
+
+    @Benchmark
+    public Item getItemBySplitting()
+    {
+        // How Menu found items before it kept them by name, for comparison: cut out each name and look through the list for it.
+        Item m = root;
+        String address = deepAddress;
+        while (m != null && !address.isEmpty())
+        {
+            int slash = address.indexOf('/');
+            String name = slash == -1 ? address : address.substring(0, slash);
+            address = slash == -1 ? "" : address.substring(slash + 1);
+            Item found = null;
+            for (Item mi : m.getItems())
+                if (mi.getName().equals(name))
+                {
+                    found = mi;
+                    break;
+                }
+            m = found;
+        }
+        return m;
+    }
+}
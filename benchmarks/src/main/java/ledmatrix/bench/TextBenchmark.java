@@ -0,0 +1,98 @@
+package ledmatrix.bench;
+
+import java.awt.Font;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TextBenchmark
+ * <p>
+ * Editing and wrapping pasted frame data the way TextBox does: the TextDocument it keeps its text in, and the LineWrapper it
+ * breaks the text into lines with (wrapping everything, and wrapping again after typing one character).
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TextBenchmark
+{
+    // Width of a 300 pixel wide TextBox, less its scroll bar.
+    private static final int LIMIT = 288;
+    private static final Font FONT = new Font("Helvetica", Font.PLAIN, 12);
+
+    /**
+     * How many pixels of "r g b" lines the text holds.
+     */
+    @Param({"256", "4096"})
+    public int pixels;
+
+    private String frameText;
+    private TextDocument document;
+    private LineWrapper wrapper;
+    private int caret;
+
+    @Setup
+    public void setUp()
+    {
+        StringBuilder sb = new StringBuilder("16 16");
+        for (int i = 0; i < pixels; i++)
+            sb.append('\n').append(i * 7 & 0xFF).append(' ').append(i * 13 & 0xFF).append(' ').append(i * 29 & 0xFF);
+        frameText = sb.toString();
+        document = new TextDocument(frameText);
+        wrapper = new LineWrapper();
+        wrapper.wrap(document, 0, 0, FONT, LIMIT);
+        caret = frameText.length() / 2;
+    }
+
+    @Benchmark
+    public LineWrapper wrapAll()
+    {
+        LineWrapper fresh = new LineWrapper();
+        fresh.wrap(frameText, 0, 0, FONT, LIMIT);
+        return fresh;
+    }
+
+    @Benchmark
+    public LineWrapper typeAndWrap()
+    {
+        // Type a character then delete it, so the text stays the same size.
+        document.type(caret, '7');
+        wrapper.wrap(document, document.getChangeStart(), document.getUnchangedEnd(), FONT, LIMIT);
+        document.clearChanges();
+        document.delete(caret, caret + 1);
+        wrapper.wrap(document, document.getChangeStart(), document.getUnchangedEnd(), FONT, LIMIT);
+        document.clearChanges();
+        return wrapper;
+    }
+
+    @Benchmark
+    public TextDocument typeAtCaret()
+    {
+        document.type(caret, '7');
+        document.delete(caret, caret + 1);
+        return document;
+    }
+
+    @Benchmark
+    public String typeIntoString()
+    {
+        // How TextBox edited its text before it had a TextDocument, for comparison.
+        String s = frameText.substring(0, caret) + '7' + frameText.substring(caret);
+        return s.substring(0, caret) + s.substring(caret + 1);
+    }
+}
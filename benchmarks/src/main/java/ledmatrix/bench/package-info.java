@@ -0,0 +1,11 @@
+/**
+ * JMH benchmarks for the Greenfoot-free core of GUI16x16: FrameBufferBenchmark (fill and blit), CodecBenchmark (text and binary
+ * export/import round trips, as the Export and Import buttons do them), TextBenchmark (TextBox's document and line wrapping),
+ * ImageScalerBenchmark, ContainerBenchmark (Container.alignComponents()) and MenuBenchmark (Menu.getItem()).<p>
+ * Container and Menu are Greenfoot Actors, which can't be built here (Greenfoot isn't published to Maven). Their work is done by
+ * Greenfoot-free classes, CellLayout and MenuNode, the same way TextBox wraps with LineWrapper, so those are what is timed.
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+package ledmatrix.bench;
@@ -0,0 +1,251 @@
+package ledmatrix.bench;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * AnimationFormatTest
+ * <p>
+ * Round trips through AnimationWriter and AnimationReader, and damaged files that the reader must refuse with an IOException (not run
+ * out of memory or fail some other way).
+ *
+ * @author karaleemota
+ * @version 10/17/26
+ */
+public class AnimationFormatTest
+{
+    private static final int WIDTH = 5;
+    private static final int HEIGHT = 4;
+    private static final int HEADER_SIZE = 12;
+
+    @Test
+    public void roundTripKeepsEveryFrameAndDuration() throws IOException
+    {
+        FrameBuffer[] frames = frames();
+        byte[] file = write(frames, AnimationWriter.DEFAULT_KEYFRAME_INTERVAL);
+        assertFrames(frames, file);
+    }
+
+    @Test
+    public void roundTripWithKeyframeEveryOtherFrame() throws IOException
+    {
+        FrameBuffer[] frames = frames();
+        assertFrames(frames, write(frames, 2));
+    }
+
+    @Test
+    public void roundTripLargestGrid() throws IOException
+    {
+        int size = FrameBuffer.MAX_GRID_SIZE;
+        FrameBuffer first = new FrameBuffer(size, size);
+        FrameBuffer second = first.copy();
+        second.fillRect(10, 20, 200, 3, 0xFF123456);
+        FrameBuffer[] frames = { first, second };
+        assertFrames(frames, write(frames, 0));
+    }
+
+    @Test
+    public void writerRefusesDurationUnderOneMillisecond() throws IOException
+    {
+        AnimationWriter writer = new AnimationWriter(new ByteArrayOutputStream(), WIDTH, HEIGHT);
+        assertThrows(IllegalArgumentException.class, () -> writer.writeFrame(new FrameBuffer(WIDTH, HEIGHT), 0));
+    }
+
+    @Test
+    public void writerRefusesFramesLargerThanTheGrid()
+    {
+        assertThrows(IOException.class, () -> new AnimationWriter(new ByteArrayOutputStream(), FrameBuffer.MAX_GRID_SIZE + 1, 1));
+    }
+
+    @Test
+    public void truncatedFileIsRefusedOrEndsAtAFrame() throws IOException
+    {
+        FrameBuffer[] frames = frames();
+        byte[] file = write(frames, AnimationWriter.DEFAULT_KEYFRAME_INTERVAL);
+        for (int length = 0; length < file.length; length++)
+        {
+            try
+            {
+                int count = readAll(Arrays.copyOf(file, length));
+                // Only a cut between two frames can be read without an error.
+                if (count >= frames.length)
+                    fail("Read every frame from " + length + " of " + file.length + " bytes");
+            } catch (IOException e)
+            {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void corruptedFileIsRefusedWithIOException() throws IOException
+    {
+        byte[] file = write(frames(), AnimationWriter.DEFAULT_KEYFRAME_INTERVAL);
+        Random random = new Random(1);
+        for (int i = 0; i < file.length; i++)
+        {
+            for (int bit = 0; bit < 8; bit++)
+            {
+                byte[] damaged = file.clone();
+                damaged[i] ^= 1 << bit;
+                readAllowingIOException(damaged);
+            }
+            byte[] damaged = file.clone();
+            damaged[i] = (byte)random.nextInt();
+            readAllowingIOException(damaged);
+        }
+    }
+
+    @Test
+    public void hugePayloadLengthIsRefusedBeforeAllocating() throws IOException
+    {
+        ByteArrayOutputStream bytes = header();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(AnimationWriter.DELTA);
+        out.writeInt(100);
+        out.writeInt(Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> readAll(bytes.toByteArray()));
+    }
+
+    @Test
+    public void hugeRunCountIsRefused() throws IOException
+    {
+        // One run, skipping nothing, of 0x7FFFFFFF pixels (which overflows when added to the position or multiplied by 3).
+        assertThrows(IOException.class, () -> readAll(delta(1, 0, 0xFF, 0xFF, 0xFF, 0xFF, 0x07, 0, 0, 0)));
+    }
+
+    @Test
+    public void hugeSkipIsRefused() throws IOException
+    {
+        assertThrows(IOException.class, () -> readAll(delta(1, 0xFF, 0xFF, 0xFF, 0xFF, 0x07, 1, 0, 0, 0)));
+    }
+
+    @Test
+    public void negativeVarintIsRefused() throws IOException
+    {
+        // Every bit set: the varint comes out as -1.
+        assertThrows(IOException.class, () -> readAll(delta(1, 0, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F, 0, 0, 0)));
+    }
+
+    @Test
+    public void runPastTheLastPixelIsRefused() throws IOException
+    {
+        int[] payload = new int[3 + 3 * 2];
+        payload[0] = 1;
+        payload[1] = WIDTH * HEIGHT - 1;
+        payload[2] = 2;
+        assertThrows(IOException.class, () -> readAll(delta(payload)));
+    }
+
+    /**
+     * Frames that make the writer use a keyframe, a small delta, an empty delta, a full change and a change at the last pixel.
+     */
+    private static FrameBuffer[] frames()
+    {
+        FrameBuffer first = new FrameBuffer(WIDTH, HEIGHT);
+        for (int y = 0; y < HEIGHT; y++)
+            for (int x = 0; x < WIDTH; x++)
+                first.set(x, y, FrameBuffer.pack(x * 50, y * 60, x * y, 255));
+        FrameBuffer small = first.copy();
+        small.set(1, 1, 0xFFFF0000);
+        small.set(3, 1, 0xFF00FF00);
+        FrameBuffer same = small.copy();
+        FrameBuffer full = new FrameBuffer(WIDTH, HEIGHT);
+        full.fill(0xFF0000FF);
+        FrameBuffer last = full.copy();
+        last.set(WIDTH - 1, HEIGHT - 1, 0xFFFFFFFF);
+        return new FrameBuffer[] { first, small, same, full, last };
+    }
+
+    private static byte[] write(FrameBuffer[] frames, int keyframeInterval) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (AnimationWriter writer = new AnimationWriter(bytes, frames[0].getWidth(), frames[0].getHeight()))
+        {
+            writer.setKeyframeInterval(keyframeInterval);
+            for (int i = 0; i < frames.length; i++)
+                writer.writeFrame(frames[i], 10 * (i + 1));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void assertFrames(FrameBuffer[] frames, byte[] file) throws IOException
+    {
+        try (AnimationReader reader = new AnimationReader(new ByteArrayInputStream(file)))
+        {
+            assertEquals(frames[0].getWidth(), reader.getWidth());
+            assertEquals(frames[0].getHeight(), reader.getHeight());
+            FrameBuffer frame = new FrameBuffer(reader.getWidth(), reader.getHeight());
+            for (int i = 0; i < frames.length; i++)
+            {
+                assertEquals(10 * (i + 1), reader.readFrame(frame), "duration of frame " + i);
+                assertArrayEquals(frames[i].getPixels(), frame.getPixels(), "pixels of frame " + i);
+            }
+            assertEquals(-1, reader.readFrame(frame));
+        }
+    }
+
+    /**
+     * Read every frame of a file.
+     * @return The number of frames read.
+     */
+    private static int readAll(byte[] file) throws IOException
+    {
+        try (AnimationReader reader = new AnimationReader(new ByteArrayInputStream(file)))
+        {
+            FrameBuffer frame = new FrameBuffer(reader.getWidth(), reader.getHeight());
+            int count = 0;
+            while (reader.readFrame(frame) != -1)
+                count++;
+            return count;
+        }
+    }
+
+    private static void readAllowingIOException(byte[] file)
+    {
+        try
+        {
+            readAll(file);
+        } catch (IOException e)
+        {
+            // expected for most damage
+        }
+    }
+
+    private static ByteArrayOutputStream header() throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new AnimationWriter(bytes, WIDTH, HEIGHT).close();
+        assertEquals(HEADER_SIZE, bytes.size());
+        return bytes;
+    }
+
+    /**
+     * Make a file holding a keyframe and then a delta frame with the given payload bytes.
+     */
+    private static byte[] delta(int... payload) throws IOException
+    {
+        ByteArrayOutputStream bytes = header();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(AnimationWriter.KEYFRAME);
+        out.writeInt(100);
+        out.writeInt(WIDTH * HEIGHT * 3);
+        out.write(new byte[WIDTH * HEIGHT * 3]);
+        out.writeByte(AnimationWriter.DELTA);
+        out.writeInt(100);
+        out.writeInt(payload.length);
+        for (int b : payload)
+            out.writeByte(b);
+        return bytes.toByteArray();
+    }
+}